@@ -1,5 +1,7 @@
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.NoSuchElementException;
+import java.util.function.BiConsumer;
 import java.util.function.Function;
 
 public class ABB<K, V> implements IMapeamento<K, V> {
@@ -11,6 +13,39 @@ public class ABB<K, V> implements IMapeamento<K, V> {
     private long inicio;
     private long termino;
 
+    /**
+     * Pilha explícita de nós, usada no lugar da pilha de chamadas da recursão, de modo que nenhum caminhamento
+     * estoura a pilha, qualquer que seja o formato da árvore. O espaço ocupado é proporcional à altura da árvore.
+     * É a mesma pilha de caminho da árvore do projeto "atividade em sala"; aqui, apenas os nós são empilhados.
+     */
+    private static final class Caminho<K, V> {
+        
+        private No<K, V>[] nos;
+        private int profundidade;
+        
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Caminho() {
+            nos = new No[32];
+            profundidade = 0;
+        }
+        
+        void empilhar(No<K, V> no) {
+            if (profundidade == nos.length)
+                nos = Arrays.copyOf(nos, 2 * profundidade);
+            nos[profundidade++] = no;
+        }
+        
+        boolean vazio() {
+            return (profundidade == 0);
+        }
+        
+        No<K, V> desempilhar() {
+            No<K, V> no = nos[--profundidade];
+            nos[profundidade] = null;
+            return no;
+        }
+    }
+
     /**
      * Método auxiliar para inicialização da árvore binária de busca.
      * * Este método define a raiz da árvore como {@code null} e seu tamanho como 0.
@@ -56,25 +91,42 @@ public class ABB<K, V> implements IMapeamento<K, V> {
     }
     
     /**
-     * Recursivamente, copia os elementos da árvore original para esta, num processo análogo ao caminhamento em ordem.
+     * Copia os elementos da árvore original para esta, em ordem, sem recursão.
      * @param <T> Tipo da nova chave.
      * @param raizArvore raiz da árvore original que será copiada.
      * @param funcaoChave função extratora da nova chave para cada item da árvore.
-     * @param novaArvore Nova árvore. Parâmetro usado para permitir o retorno da recursividade.
+     * @param novaArvore Nova árvore, que recebe os itens copiados.
      * @return A nova árvore com os itens copiados e usando a chave indicada pela função extratora.
      */
     private <T> ABB<T, V> copiarArvore(No<?, V> raizArvore, Function<V, T> funcaoChave, ABB<T, V> novaArvore) {
         
-        if (raizArvore != null) {
-            novaArvore = copiarArvore(raizArvore.getEsquerda(), funcaoChave, novaArvore);
-            V item = raizArvore.getItem();
-            T chave = funcaoChave.apply(item);
-            novaArvore.inserir(chave, item);
-            novaArvore = copiarArvore(raizArvore.getDireita(), funcaoChave, novaArvore);
-        }
+        caminharEmOrdem(raizArvore, (chave, item) -> novaArvore.inserir(funcaoChave.apply(item), item));
         return novaArvore;
     }
     
+    /**
+     * Visita os nós da árvore ou sub-árvore em ordem crescente de chave, sem recursão:
+     * cada nó é empilhado ao descer pela esquerda e visitado ao ser desempilhado; em seguida, visita-se sua sub-árvore direita.
+     * A pilha explícita guarda no máximo um nó por nível, de modo que nenhum formato de árvore estoura a pilha de chamadas.
+     * @param raizArvore raiz da árvore ou sub-árvore a ser percorrida.
+     * @param acao ação executada sobre a chave e o item de cada nó.
+     */
+    private static <C, I> void caminharEmOrdem(No<C, I> raizArvore, BiConsumer<? super C, ? super I> acao) {
+        
+        Caminho<C, I> pendentes = new Caminho<>();
+        No<C, I> atual = raizArvore;
+        
+        while (atual != null || !pendentes.vazio()) {
+            while (atual != null) {
+                pendentes.empilhar(atual);
+                atual = atual.getEsquerda();
+            }
+            atual = pendentes.desempilhar();
+            acao.accept(atual.getChave(), atual.getItem());
+            atual = atual.getDireita();
+        }
+    }
+    
     /**
      * Método booleano que indica se a árvore está vazia ou não.
      * @return
@@ -87,71 +139,69 @@ public class ABB<K, V> implements IMapeamento<K, V> {
     
     @Override
     /**
-     * Método que encapsula a pesquisa recursiva de itens na árvore.
+     * Pesquisa o item associado à chave, descendo iterativamente da raiz.
      * @param chave a chave do item que será pesquisado na árvore.
      * @return o valor associado à chave.
+     * @throws NoSuchElementException se a chave não for localizada na árvore.
      */
     public V pesquisar(K chave) {
-        comparacoes = 0;
-        inicio = System.nanoTime();
-        V procurado = pesquisar(raiz, chave);
-        termino = System.nanoTime();
-        return procurado;
-    }
-    
-    private V pesquisar(No<K, V> raizArvore, K procurado) {
         
+        No<K, V> atual = raiz;
         int comparacao;
         
-        comparacoes++;
-        if (raizArvore == null)
-            /// Se a raiz da árvore ou sub-árvore for null, a árvore/sub-árvore está vazia e então o item não foi encontrado.
-            throw new NoSuchElementException("O item não foi localizado na árvore!");
-        
-        comparacao = comparador.compare(procurado, raizArvore.getChave());
-        
-        if (comparacao == 0)
-            /// O item procurado foi encontrado.
-            return raizArvore.getItem();
-        else if (comparacao < 0)
-            /// Se o item procurado for menor do que o item armazenado na raiz da árvore:
-            /// pesquise esse item na sub-árvore esquerda.    
-            return pesquisar(raizArvore.getEsquerda(), procurado);
-        else
-            /// Se o item procurado for maior do que o item armazenado na raiz da árvore:
-            /// pesquise esse item na sub-árvore direita.
-            return pesquisar(raizArvore.getDireita(), procurado);
+        comparacoes = 0;
+        inicio = System.nanoTime();
+        while (true) {
+            comparacoes++;
+            if (atual == null) {
+                /// A descida chegou a uma sub-árvore vazia: o item não foi encontrado.
+                termino = System.nanoTime();
+                throw new NoSuchElementException("O item não foi localizado na árvore!");
+            }
+            
+            comparacao = comparador.compare(chave, atual.getChave());
+            
+            if (comparacao == 0) {
+                /// O item procurado foi encontrado.
+                termino = System.nanoTime();
+                return atual.getItem();
+            }
+            /// O item procurado, se existir, está na sub-árvore esquerda (se for menor) ou direita (se for maior).
+            atual = (comparacao < 0) ? atual.getEsquerda() : atual.getDireita();
+        }
     }
     
     @Override
     /**
-     * Método que encapsula a adição recursiva de itens à árvore, associando-o à chave fornecida.
+     * Adiciona o item à árvore, associando-o à chave fornecida, descendo iterativamente até a posição do novo nó.
      * @param chave a chave associada ao item que será inserido na árvore.
      * @param item o item que será inserido na árvore.
-     * * @return o tamanho atualizado da árvore após a execução da operação de inserção.
+     * @return o tamanho atualizado da árvore após a execução da operação de inserção.
+     * @throws IllegalArgumentException se a chave já estiver presente na árvore.
      */
     public int inserir(K chave, V item) {
-        raiz = inserirRecursivo(raiz, chave, item);
-        return tamanho;
-    }
-
-    private No<K, V> inserirRecursivo(No<K, V> no, K chave, V item) {
-        if (no == null) {
-            tamanho++;
-            return new No<>(chave, item);
-        }
-
-        int comparacao = comparador.compare(chave, no.getChave());
-
-        if (comparacao < 0) {
-            no.setEsquerda(inserirRecursivo(no.getEsquerda(), chave, item));
-        } else if (comparacao > 0) {
-            no.setDireita(inserirRecursivo(no.getDireita(), chave, item));
-        } else {
-            // Chave já existe.
-            throw new IllegalArgumentException("Chave duplicada: " + chave);
+        
+        No<K, V> pai = null;
+        No<K, V> atual = raiz;
+        int comparacao = 0;
+        
+        while (atual != null) {
+            comparacao = comparador.compare(chave, atual.getChave());
+            if (comparacao == 0)
+                // Chave já existe.
+                throw new IllegalArgumentException("Chave duplicada: " + chave);
+            pai = atual;
+            atual = (comparacao < 0) ? atual.getEsquerda() : atual.getDireita();
         }
-        return no;
+        
+        if (pai == null)
+            raiz = new No<>(chave, item);
+        else if (comparacao < 0)
+            pai.setEsquerda(new No<>(chave, item));
+        else
+            pai.setDireita(new No<>(chave, item));
+        tamanho++;
+        return tamanho;
     }
 
     @Override 
@@ -166,7 +216,7 @@ public class ABB<K, V> implements IMapeamento<K, V> {
 
     public String caminhamentoEmOrdem() {
         StringBuilder sb = new StringBuilder("[");
-        caminharEmOrdemRecursivo(raiz, sb);
+        caminharEmOrdem(raiz, (chave, item) -> sb.append(item).append(", "));
         
         if (sb.length() > 1) {
             sb.setLength(sb.length() - 2); // Remove a última vírgula e espaço
@@ -176,58 +226,52 @@ public class ABB<K, V> implements IMapeamento<K, V> {
         return sb.toString();
     }
 
-    private void caminharEmOrdemRecursivo(No<K, V> no, StringBuilder sb) {
-        if (no != null) {
-            caminharEmOrdemRecursivo(no.getEsquerda(), sb);
-            sb.append(no.getItem()).append(", ");
-            caminharEmOrdemRecursivo(no.getDireita(), sb);
-        }
-    }
-
     @Override
     /**
-     * Método que encapsula a remoção recursiva de um item da árvore.
+     * Remove o item associado à chave, sem recursão.
      * @param chave a chave do item que deverá ser localizado e removido da árvore.
      * @return o valor associado ao item removido.
+     * @throws NoSuchElementException se a chave não for localizada na árvore.
      */
     public V remover(K chave) {
-        V itemRemovido = pesquisar(chave); // Garante que existe e recupera o valor para retorno
-        raiz = removerRecursivo(raiz, chave);
-        tamanho--;
-        return itemRemovido;
-    }
-
-    private No<K, V> removerRecursivo(No<K, V> no, K chave) {
-        if (no == null) return null;
-
-        int comparacao = comparador.compare(chave, no.getChave());
-
-        if (comparacao < 0) {
-            no.setEsquerda(removerRecursivo(no.getEsquerda(), chave));
-        } else if (comparacao > 0) {
-            no.setDireita(removerRecursivo(no.getDireita(), chave));
-        } else {
-            // Encontrou o nó a remover
-            
-            // Caso 1: Nó folha ou com 1 filho
-            if (no.getEsquerda() == null) return no.getDireita();
-            if (no.getDireita() == null) return no.getEsquerda();
-
-            // Caso 2: Nó com 2 filhos -> Trocar pelo sucessor (mínimo da direita)
-            No<K, V> sucessor = minimo(no.getDireita());
-            no.setChave(sucessor.getChave());
-            no.setItem(sucessor.getItem());
-            
-            no.setDireita(removerRecursivo(no.getDireita(), sucessor.getChave()));
+        
+        No<K, V> pai = null;
+        No<K, V> atual = raiz;
+        No<K, V> substituto;
+        V itemRemovido;
+        int comparacao;
+        
+        while (atual != null && (comparacao = comparador.compare(chave, atual.getChave())) != 0) {
+            pai = atual;
+            atual = (comparacao < 0) ? atual.getEsquerda() : atual.getDireita();
         }
-        return no;
-    }
-
-    private No<K, V> minimo(No<K, V> no) {
-        while (no.getEsquerda() != null) {
-            no = no.getEsquerda();
+        if (atual == null)
+            throw new NoSuchElementException("O item não foi localizado na árvore!");
+        itemRemovido = atual.getItem();
+        
+        if (atual.getEsquerda() != null && atual.getDireita() != null) {
+            // Caso 2: Nó com 2 filhos -> Trocar pelo sucessor (mínimo da direita), que é retirado em seu lugar.
+            pai = atual;
+            substituto = atual.getDireita();
+            while (substituto.getEsquerda() != null) {
+                pai = substituto;
+                substituto = substituto.getEsquerda();
+            }
+            atual.setChave(substituto.getChave());
+            atual.setItem(substituto.getItem());
+            atual = substituto;
         }
-        return no;
+        
+        // Caso 1: Nó folha ou com 1 filho: o filho (se houver) ocupa o lugar do nó.
+        substituto = (atual.getEsquerda() != null) ? atual.getEsquerda() : atual.getDireita();
+        if (pai == null)
+            raiz = substituto;
+        else if (pai.getEsquerda() == atual)
+            pai.setEsquerda(substituto);
+        else
+            pai.setDireita(substituto);
+        tamanho--;
+        return itemRemovido;
     }
 
     @Override
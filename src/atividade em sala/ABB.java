@@ -1,5 +1,11 @@
+import java.io.IOException;
+import java.util.Arrays;
 import java.util.Comparator;
+import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
 import java.util.function.Function;
 
 public class ABB<K, V> implements IMapeamento<K, V>{
@@ -11,6 +17,49 @@ public class ABB<K, V> implements IMapeamento<K, V>{
 	private long inicio;
 	private long termino;
 	
+	/**
+	 * Pilha explícita com o caminho percorrido da raiz até um nó: cada nó visitado e o lado (esquerdo ou direito) 
+	 * pelo qual a descida continuou. Substitui a pilha de chamadas da recursão, de modo que nenhuma operação
+	 * estoura a pilha, qualquer que seja o formato da árvore. O espaço ocupado é proporcional à altura da árvore.
+	 */
+	private static final class Caminho<K, V> {
+		
+		private No<K, V>[] nos;
+		private boolean[] aEsquerda;
+		private int profundidade;
+		
+		@SuppressWarnings({"unchecked", "rawtypes"})
+		Caminho() {
+			nos = new No[32];
+			aEsquerda = new boolean[32];
+			profundidade = 0;
+		}
+		
+		void empilhar(No<K, V> no, boolean esquerda) {
+			if (profundidade == nos.length) {
+				nos = Arrays.copyOf(nos, 2 * profundidade);
+				aEsquerda = Arrays.copyOf(aEsquerda, 2 * profundidade);
+			}
+			nos[profundidade] = no;
+			aEsquerda[profundidade++] = esquerda;
+		}
+		
+		boolean vazio() {
+			return (profundidade == 0);
+		}
+		
+		/// indica se a descida, a partir do nó do topo, continuou pela esquerda.
+		boolean topoAEsquerda() {
+			return aEsquerda[profundidade - 1];
+		}
+		
+		No<K, V> desempilhar() {
+			No<K, V> no = nos[--profundidade];
+			nos[profundidade] = null;
+			return no;
+		}
+	}
+	
 	/**
 	 * Método auxiliar para inicialização da árvore binária de busca.
 	 * 
@@ -49,32 +98,124 @@ public class ABB<K, V> implements IMapeamento<K, V>{
      * com os mesmos itens, mas usando uma nova chave.
      * @param original a árvore binária de busca original.
      * @param funcaoChave a função que irá extrair a nova chave de cada item para a nova árvore.
+     * @throws IllegalArgumentException caso dois itens tenham a mesma nova chave.
      */
     public ABB(ABB<?, V> original, Function<V, K> funcaoChave, Comparator<K> comparador) {
-        ABB<K, V> nova = new ABB<>();
-        nova = copiarArvore(original.raiz, funcaoChave, nova);
-        this.raiz = nova.raiz;
-        this.comparador = comparador;
+        init(comparador);
+        copiarArvore(original, funcaoChave, this);
     }
     
     /**
-     * Recursivamente, copia os elementos da árvore original para esta, num processo análogo ao caminhamento em ordem.
+     * Copia os elementos da árvore original para esta, extraindo a nova chave de cada item.
+     * Os nós são reunidos em ordem da chave original e a nova árvore é montada por carga em lote,
+     * sem inserções nem rotações individuais.
      * @param <T> Tipo da nova chave.
-     * @param raizArvore raiz da árvore original que será copiada.
+     * @param original árvore original que será copiada.
      * @param funcaoChave função extratora da nova chave para cada item da árvore.
-     * @param novaArvore Nova árvore. Parâmetro usado para permitir o retorno da recursividade.
-     * @return A nova árvore com os itens copiados e usando a chave indicada pela função extratora.
+     * @param novaArvore Nova árvore, que recebe os itens copiados.
+     */
+    private static <T, V> void copiarArvore(ABB<?, V> original, Function<V, T> funcaoChave, ABB<T, V> novaArvore) {
+    	
+    	No<T, V>[] nos = criarVetorNos(original.tamanho());
+    	int[] quantidade = {0};
+    	
+    	original.paraCadaPar((chave, item) -> nos[quantidade[0]++] = novaArvore.criarNo(funcaoChave.apply(item), item));
+    	novaArvore.montar(nos, quantidade[0]);
+    }
+    
+    /**
+     * Carga em lote: constrói, em O(n), uma árvore perfeitamente balanceada com os itens informados.
+     * Se os itens já estiverem em ordem crescente de chave, nenhuma ordenação é feita; caso contrário,
+     * eles são ordenados antes da construção, em O(n log n). Em ambos os casos, nenhuma rotação é necessária
+     * e a altura de cada nó é calculada de baixo para cima, de modo que a árvore resultante também é uma AVL válida.
+     * @param itens os itens a serem carregados.
+     * @param funcaoChave a função que extrai a chave de cada item.
+     * @throws IllegalStateException caso a árvore não esteja vazia.
+     * @throws IllegalArgumentException caso dois itens tenham a mesma chave. Nesse caso, a árvore permanece vazia.
+     */
+    public void carregar(V[] itens, Function<? super V, ? extends K> funcaoChave) {
+    	
+    	No<K, V>[] nos = criarVetorNos(itens.length);
+    	
+    	for (int i = 0; i < itens.length; i++)
+    		nos[i] = criarNo(funcaoChave.apply(itens[i]), itens[i]);
+    	montar(nos, nos.length);
+    }
+    
+    /**
+     * Carga em lote a partir de uma sequência de itens, como a obtida de um fluxo ({@code stream.iterator()}).
+     * Os itens são reunidos em um vetor e carregados como em {@link #carregar(Object[], Function)}.
+     * @param itens a sequência de itens a serem carregados.
+     * @param funcaoChave a função que extrai a chave de cada item.
+     * @throws IllegalStateException caso a árvore não esteja vazia.
+     * @throws IllegalArgumentException caso dois itens tenham a mesma chave. Nesse caso, a árvore permanece vazia.
      */
-    private <T> ABB<T, V> copiarArvore(No<?, V> raizArvore, Function<V, T> funcaoChave, ABB<T, V> novaArvore) {
-    	
-        if (raizArvore != null) {
-    		novaArvore = copiarArvore(raizArvore.getEsquerda(), funcaoChave, novaArvore);
-            V item = raizArvore.getItem();
-            T chave = funcaoChave.apply(item);
-    		novaArvore.inserir(chave, item);
-    		novaArvore = copiarArvore(raizArvore.getDireita(), funcaoChave, novaArvore);
+    public void carregar(Iterator<? extends V> itens, Function<? super V, ? extends K> funcaoChave) {
+    	
+    	No<K, V>[] nos = criarVetorNos(16);
+    	int quantidade = 0;
+    	V item;
+    	
+    	while (itens.hasNext()) {
+    		if (quantidade == nos.length)
+    			nos = Arrays.copyOf(nos, 2 * quantidade);
+    		item = itens.next();
+    		nos[quantidade++] = criarNo(funcaoChave.apply(item), item);
     	}
-        return novaArvore;
+    	montar(nos, quantidade);
+    }
+    
+    /// vetor de nós para a carga em lote: único ponto em que um vetor genérico de nós é criado.
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <T, V> No<T, V>[] criarVetorNos(int tamanho) {
+    	return new No[tamanho];
+    }
+    
+    /**
+     * Substitui a árvore vazia pela árvore perfeitamente balanceada formada pelos "quantidade" primeiros nós do vetor.
+     * A ordenação é verificada com uma única passada; apenas uma entrada fora de ordem provoca a ordenação do vetor.
+     */
+    private void montar(No<K, V>[] nos, int quantidade) {
+    	
+    	boolean ordenado = true;
+    	
+    	if (!vazia())
+    		throw new IllegalStateException("A carga em lote exige uma árvore vazia.");
+    	
+    	for (int i = 1; i < quantidade && ordenado; i++)
+    		ordenado = comparador.compare(nos[i - 1].getChave(), nos[i].getChave()) < 0;
+    	
+    	if (!ordenado) {
+    		Arrays.sort(nos, 0, quantidade, (no1, no2) -> comparador.compare(no1.getChave(), no2.getChave()));
+    		for (int i = 1; i < quantidade; i++) {
+    			if (comparador.compare(nos[i - 1].getChave(), nos[i].getChave()) == 0)
+    				throw new IllegalArgumentException("O item já foi inserido anteriormente na árvore.");
+    		}
+    	}
+    	
+    	this.raiz = montar(nos, 0, quantidade - 1);
+    	this.tamanho = quantidade;
+    }
+    
+    /**
+     * Liga os nós do intervalo [primeiro, ultimo] do vetor ordenado: o nó do meio é a raiz, e as metades, suas sub-árvores.
+     * A profundidade da recursão é logarítmica, pois cada chamada divide o intervalo ao meio.
+     */
+    private No<K, V> montar(No<K, V>[] nos, int primeiro, int ultimo) {
+    	
+    	int meio;
+    	No<K, V> raizArvore;
+    	
+    	if (primeiro > ultimo)
+    		return null;
+    	
+    	meio = (primeiro + ultimo) >>> 1;
+    	raizArvore = nos[meio];
+    	raizArvore.setEsquerda(montar(nos, primeiro, meio - 1));
+    	raizArvore.setDireita(montar(nos, meio + 1, ultimo));
+    	raizArvore.setAltura();
+    	raizArvore.setTamanho();
+    	return raizArvore;
     }
     
     /**
@@ -89,98 +230,207 @@ public class ABB<K, V> implements IMapeamento<K, V>{
     
     @Override
     /**
-     * Método que encapsula a pesquisa recursiva de itens na árvore.
+     * Método que encapsula a pesquisa de itens na árvore.
      * @param chave a chave do item que será pesquisado na árvore.
      * @return o valor associado à chave.
+     * @throws NoSuchElementException se a chave não for localizada na árvore.
      */
 	public V pesquisar(K chave) {
+    	No<K, V> procurado = localizar(chave);
+    	
+    	if (procurado == null)
+    		throw new NoSuchElementException("O item não foi localizado na árvore!");
+    	return procurado.getItem();
+	}
+    
+    @Override
+    /**
+     * Pesquisa o item associado à chave, retornando o valor padrão informado caso a chave não seja localizada.
+     * Nenhuma exceção é lançada e nenhum objeto é criado durante a pesquisa.
+     * @param chave a chave do item que será pesquisado na árvore.
+     * @param valorPadrao o valor retornado caso a chave não esteja presente na árvore.
+     * @return o valor associado à chave ou, caso a chave não seja localizada, valorPadrao.
+     */
+    public V pesquisar(K chave, V valorPadrao) {
+    	No<K, V> procurado = localizar(chave);
+    	
+    	return (procurado != null) ? procurado.getItem() : valorPadrao;
+    }
+    
+    @Override
+    public boolean contem(K chave) {
+    	return (localizar(chave) != null);
+    }
+    
+    /**
+     * Localiza o nó que armazena a chave informada, registrando o número de comparações e o tempo da pesquisa.
+     * @param chave a chave do item que será pesquisado na árvore.
+     * @return o nó que armazena a chave, ou null caso ela não esteja presente na árvore.
+     */
+    private No<K, V> localizar(K chave) {
     	comparacoes = 0;
     	inicio = System.nanoTime();
-    	V procurado = pesquisar(raiz, chave);
+    	No<K, V> procurado = localizar(raiz, chave);
     	termino = System.nanoTime();
     	return procurado;
-	}
+    }
     
-    private V pesquisar(No<K, V> raizArvore, K procurado) {
+    private No<K, V> localizar(No<K, V> raizArvore, K procurado) {
     	
     	int comparacao;
     	
-    	comparacoes++;
-    	if (raizArvore == null)
-    		/// Se a raiz da árvore ou sub-árvore for null, a árvore/sub-árvore está vazia e então o item não foi encontrado.
-    		throw new NoSuchElementException("O item não foi localizado na árvore!");
+    	while (true) {
+    		comparacoes++;
+    		if (raizArvore == null)
+    			/// Se a raiz da árvore ou sub-árvore for null, a árvore/sub-árvore está vazia e então o item não foi encontrado.
+    			return null;
+    		
+    		comparacao = comparador.compare(procurado, raizArvore.getChave());
+    		
+    		if (comparacao == 0)
+    			/// O item procurado foi encontrado.
+    			return raizArvore;
+    		else if (comparacao < 0)
+    			/// Se o item procurado for menor do que o item armazenado na raiz da árvore:
+    			/// a pesquisa continua na sub-árvore esquerda.    
+    			raizArvore = raizArvore.getEsquerda();
+    		else
+    			/// Se o item procurado for maior do que o item armazenado na raiz da árvore:
+    			/// a pesquisa continua na sub-árvore direita.
+    			raizArvore = raizArvore.getDireita();
+    	}
+    }
+    
+    /**
+     * Cria o nó que armazenará o item na árvore. Todos os nós da árvore, inclusive os da carga em lote, são criados aqui.
+     * Subclasses podem criar nós que mantêm outros agregados da sub-árvore (além da altura e do tamanho),
+     * recalculados em {@link No#setTamanho()}, que é chamado sempre que os filhos de um nó mudam.
+     * @param chave a chave do item.
+     * @param item o item a ser armazenado.
+     * @return o novo nó, ainda sem filhos.
+     */
+    protected No<K, V> criarNo(K chave, V item) {
+    	return new No<>(chave, item);
+    }
+    
+    /**
+     * Retorna a raiz da árvore (null, caso ela esteja vazia), para que subclasses percorram os nós diretamente.
+     */
+    protected No<K, V> getRaiz() {
+    	return raiz;
+    }
+    
+    /**
+     * Ajusta a raiz de uma sub-árvore cujos descendentes foram alterados, durante a subida de uma inserção ou remoção.
+     * Na árvore binária de busca simples, nada precisa ser ajustado; subclasses (como a AVL) atualizam aqui 
+     * a altura do nó e rebalanceiam a sub-árvore.
+     * @param raizArvore a raiz da sub-árvore alterada (pode ser null).
+     * @return a raiz, possivelmente nova, da sub-árvore.
+     */
+    protected No<K, V> ajustar(No<K, V> raizArvore) {
+    	return raizArvore;
+    }
+    
+    /**
+     * Sobe pelo caminho percorrido, do nó mais profundo até a raiz, religando a cada pai a sua sub-árvore alterada,
+     * recalculando o tamanho da sub-árvore do pai e ajustando-o com {@link #ajustar(No)}.
+     * @param caminho o caminho da raiz até o pai da sub-árvore alterada. Fica vazio ao final.
+     * @param subarvore a nova raiz da sub-árvore alterada.
+     * @return a nova raiz da árvore.
+     */
+    private No<K, V> subirAjustando(Caminho<K, V> caminho, No<K, V> subarvore) {
+    	
+    	boolean esquerda;
+    	No<K, V> pai;
+    	
+    	while (!caminho.vazio()) {
+    		esquerda = caminho.topoAEsquerda();
+    		pai = caminho.desempilhar();
+    		if (esquerda)
+    			pai.setEsquerda(subarvore);
+    		else
+    			pai.setDireita(subarvore);
+    		pai.setTamanho();
+    		subarvore = ajustar(pai);
+    	}
+    	return subarvore;
+    }
+    
+    /**
+     * Desce da raiz em direção à chave, empilhando os nós visitados, até encontrá-la ou chegar a uma sub-árvore vazia.
+     * @return o nó que armazena a chave, ou null caso ela não esteja presente (o caminho termina no pai da posição da chave).
+     */
+    private No<K, V> descer(K chave, Caminho<K, V> caminho) {
     	
-    	comparacao = comparador.compare(procurado, raizArvore.getChave());
+    	No<K, V> atual = raiz;
+    	int comparacao;
     	
-    	if (comparacao == 0)
-    		/// O item procurado foi encontrado.
-    		return raizArvore.getItem();
-    	else if (comparacao < 0)
-    		/// Se o item procurado for menor do que o item armazenado na raiz da árvore:
-            /// pesquise esse item na sub-árvore esquerda.    
-    		return pesquisar(raizArvore.getEsquerda(), procurado);
-    	else
-    		/// Se o item procurado for maior do que o item armazenado na raiz da árvore:
-            /// pesquise esse item na sub-árvore direita.
-    		return pesquisar(raizArvore.getDireita(), procurado);
+    	while (atual != null) {
+    		comparacao = comparador.compare(chave, atual.getChave());
+    		if (comparacao == 0)
+    			return atual;
+    		caminho.empilhar(atual, comparacao < 0);
+    		atual = (comparacao < 0) ? atual.getEsquerda() : atual.getDireita();
+    	}
+    	return null;
     }
     
     @Override
     /**
-     * Método que encapsula a adição recursiva de itens à árvore, associando-o à chave fornecida.
+     * Adiciona o item à árvore, associando-o à chave fornecida, sem recursão:
+     * a descida empilha o caminho até a posição do novo nó, e a subida ajusta (e, na AVL, rebalanceia) cada ancestral.
      * @param chave a chave associada ao item que será inserido na árvore.
      * @param item o item que será inserido na árvore.
-     * 
      * @return o tamanho atualizado da árvore após a execução da operação de inserção.
+     * @throws IllegalArgumentException se um item com a mesma chave já estiver presente na árvore.
      */
     public int inserir(K chave, V item) {
-    	/// Chama o método recursivo "inserir", responsável por adicionar, o item passado como parâmetro, à árvore.
-        /// O método "inserir" recursivo receberá, como primeiro parâmetro, a raiz atual da árvore; 
-    	/// como segundo parâmetro, a chave do item que será adicionado à árvore; e como terceiro parâmetro, o item.
-        /// Por fim, a raiz atual da árvore é atualizada, com a raiz retornada pelo método "inserir" recursivo.
-        this.raiz = inserir(this.raiz, chave, item);
+    	
+    	Caminho<K, V> caminho = new Caminho<>();
+    	
+    	if (descer(chave, caminho) != null)
+    		/// A chave de um item já armazenado é igual à chave do novo item.
+    		throw new IllegalArgumentException("O item já foi inserido anteriormente na árvore.");
+    	
+    	/// O novo nó ocupa a sub-árvore vazia em que a descida terminou.
+        this.raiz = subirAjustando(caminho, ajustar(criarNo(chave, item)));
         tamanho++;
         return tamanho;
     }
 
+    @Override
     /**
-     * Método recursivo responsável por adicionar um item à árvore.
-     * @param raizArvore a raiz da árvore ou sub-árvore em que o item será adicionado.
-     * @param chave a chave associada ao item que deverá ser inserido.
-     * @param item o item que deverá ser adicionado à árvore.
-     * @return a raiz atualizada da árvore ou sub-árvore em que o item foi adicionado.
-     * @throws RuntimeException se um item com a mesma chave já estiver presente na árvore.
+     * Calcula o item associado a uma chave.
+     * A chave é pesquisada uma única vez: o novo item é inserido, atualizado ou, se a função retornar null, retirado
+     * no próprio caminho de descida da pesquisa.
+     * @param chave a chave cujo item será calculado.
+     * @param funcaoRemapeamento função que calcula o novo item a partir da chave e do item atual (ou null).
+     * @return o novo item associado à chave, ou null caso a chave tenha ficado sem item.
      */
-    protected No<K, V> inserir(No<K, V> raizArvore, K chave, V item) {
+    public V calcular(K chave, BiFunction<? super K, ? super V, ? extends V> funcaoRemapeamento) {
     	
-    	int comparacao;
+    	Caminho<K, V> caminho = new Caminho<>();
+    	No<K, V> encontrado = descer(chave, caminho);
+    	V novoItem;
     	
-        /// Se a raiz da árvore ou sub-árvore for null, a árvore/sub-árvore está vazia e então um novo item é inserido.
-        if (raizArvore == null)
-            raizArvore = new No<>(chave, item);
-        else {
-        	comparacao = comparador.compare(chave, raizArvore.getChave());
-        
-        	if (comparacao < 0)
-        		/// Se a chave do item que deverá ser inserido na árvore for menor do que 
-        		/// a chave do item armazenado na raiz da árvore:
-        		/// adicione esse novo item à sub-árvore esquerda; 
-        		/// e atualize a referência para a sub-árvore esquerda modificada. 
-        		raizArvore.setEsquerda(inserir(raizArvore.getEsquerda(), chave, item));
-        	else if (comparacao > 0)
-        		/// Se a chave do item que deverá ser inserido na árvore for maior do que 
-        		/// a chave do item armazenado na raiz da árvore:
-        		/// adicione esse novo item à sub-árvore direita; 
-        		/// e atualize a referência para a sub-árvore direita modificada.
-        		raizArvore.setDireita(inserir(raizArvore.getDireita(), chave, item));
-        	else
-        		/// A chave do item armazenado na raiz da árvore 
-        		/// é igual à chave do novo item que deveria ser inserido na árvore.
-        		throw new IllegalArgumentException("O item já foi inserido anteriormente na árvore.");
-        }
-        
-        /// Retorna a raiz atualizada da árvore ou sub-árvore em que o item foi adicionado.
-        return raizArvore;
+    	if (encontrado == null) {
+    		/// A chave não está presente: o item calculado, se houver, é inserido na posição em que a descida terminou.
+    		novoItem = funcaoRemapeamento.apply(chave, null);
+    		if (novoItem != null) {
+    			this.raiz = subirAjustando(caminho, ajustar(criarNo(chave, novoItem)));
+    			tamanho++;
+    		}
+    	} else {
+    		/// A chave foi encontrada: o item é atualizado ou, se a função retornar null, o nó é retirado da árvore.
+    		novoItem = funcaoRemapeamento.apply(chave, encontrado.getItem());
+    		if (novoItem != null)
+    			encontrado.setItem(novoItem);
+    		else {
+    			this.raiz = retirar(caminho, encontrado);
+    			tamanho--;
+    		}
+    	}
+    	return novoItem;
     }
 
     @Override 
@@ -188,131 +438,398 @@ public class ABB<K, V> implements IMapeamento<K, V>{
     	return percorrer();
     }
 
+    /**
+     * Escreve os itens da árvore no destino, um por linha, em ordem crescente de chave.
+     * @throws IllegalStateException caso a árvore esteja vazia.
+     */
     @Override
-    public String percorrer() {
-    	return caminhamentoEmOrdem();
+    public void percorrer(Appendable destino) throws IOException {
+    	caminhamentoEmOrdem(destino);
     }
 
     public String caminhamentoEmOrdem() {
+    	return percorrer();
+    }
+
+    /**
+     * Escreve os itens da árvore no destino, um por linha, em ordem crescente de chave.
+     * A memória adicional é proporcional apenas à altura da árvore (pilha explícita dos nós pendentes).
+     * @throws IllegalStateException caso a árvore esteja vazia.
+     */
+    public void caminhamentoEmOrdem(Appendable destino) throws IOException {
     	
     	if (vazia())
     		throw new IllegalStateException("A árvore está vazia!");
     	
-    	return caminhamentoEmOrdem(raiz);
+    	caminhamentoEmOrdem(raiz, destino);
     }
 
-    private String caminhamentoEmOrdem(No<K, V> raizArvore) {
-    	if (raizArvore != null) {
-    		String resposta = caminhamentoEmOrdem(raizArvore.getEsquerda());
-    		resposta += raizArvore.getItem() + "\n";
-    		resposta += caminhamentoEmOrdem(raizArvore.getDireita());
-    		
-    		return resposta;
-    	} else {
-    		return "";
+    private void caminhamentoEmOrdem(No<K, V> raizArvore, Appendable destino) throws IOException {
+    	
+    	Caminho<K, V> pendentes = new Caminho<>();
+    	
+    	/// Cada nó é empilhado ao descer pela esquerda e escrito ao ser desempilhado; em seguida, visita-se sua sub-árvore direita.
+    	while (raizArvore != null || !pendentes.vazio()) {
+    		while (raizArvore != null) {
+    			pendentes.empilhar(raizArvore, true);
+    			raizArvore = raizArvore.getEsquerda();
+    		}
+    		raizArvore = pendentes.desempilhar();
+    		destino.append(String.valueOf(raizArvore.getItem())).append('\n');
+    		raizArvore = raizArvore.getDireita();
+    	}
+    }
+
+    /**
+     * Executa a ação informada para cada item da árvore, em ordem crescente de chave.
+     * @param acao a ação a ser executada sobre cada item.
+     */
+    public void paraCada(Consumer<? super V> acao) {
+    	paraCadaPar(raiz, (chave, item) -> acao.accept(item));
+    }
+    
+    /**
+     * Executa a ação informada para cada par chave/item da árvore, em ordem crescente de chave.
+     * @param acao a ação a ser executada sobre cada chave e seu item.
+     */
+    public void paraCadaPar(BiConsumer<? super K, ? super V> acao) {
+    	paraCadaPar(raiz, acao);
+    }
+    
+    private void paraCadaPar(No<K, V> raizArvore, BiConsumer<? super K, ? super V> acao) {
+    	
+    	Caminho<K, V> pendentes = new Caminho<>();
+    	
+    	while (raizArvore != null || !pendentes.vazio()) {
+    		while (raizArvore != null) {
+    			pendentes.empilhar(raizArvore, true);
+    			raizArvore = raizArvore.getEsquerda();
+    		}
+    		raizArvore = pendentes.desempilhar();
+    		acao.accept(raizArvore.getChave(), raizArvore.getItem());
+    		raizArvore = raizArvore.getDireita();
     	}
     }
 
     @Override
     /**
-     * Método que encapsula a remoção recursiva de um item da árvore.
+     * Remove da árvore o item associado à chave, sem recursão.
      * @param chave a chave do item que deverá ser localizado e removido da árvore.
      * @return o valor associado ao item removido.
+     * @throws NoSuchElementException se a chave não for localizada na árvore.
      */
     public V remover(K chave) {
     	
-    	V removido = pesquisar(chave);
+    	Caminho<K, V> caminho = new Caminho<>();
+    	No<K, V> retirado = descer(chave, caminho);
+    	V removido;
     	
-    	/// Chama o método recursivo "remover", que será responsável por 
-    	/// pesquisar o item que apresenta a chave passada como parâmetro na árvore e retirá-lo da árvore.
-        /// O método "remover" recursivo receberá, como primeiro parâmetro, a raiz atual da árvore; 
-    	/// e, como segundo parâmetro, a chave do item que deverá ser localizado e retirado dessa árvore.
-    	/// Por fim, a raiz atual da árvore é atualizada, com a raiz retornada pelo método "remover" recursivo.
-    	raiz = remover(raiz, chave);
-    	tamanho--;
-    	return removido;
+        /// Se a descida chegou a uma sub-árvore vazia, o item que deveria ser retirado da árvore não foi encontrado.
+        if (retirado == null) 
+        	throw new NoSuchElementException("O item a ser removido não foi localizado na árvore!");
+        
+        removido = retirado.getItem();
+        raiz = retirar(caminho, retirado);
+        tamanho--;
+        return removido;
     }
 
     /**
-     * Método recursivo responsável por localizar um item na árvore e retirá-lo da árvore.
-     * @param raizArvore a raiz da árvore ou sub-árvore da qual o item será retirado.
-     * @param chaveRemover a chave do item que deverá ser localizado e removido da árvore.
-     * @return a raiz atualizada da árvore ou sub-árvore da qual o item foi retirado.
+     * Retira da árvore o nó informado, já localizado, e ajusta seus ancestrais.
+     * @param caminho o caminho da raiz até o pai do nó que será retirado.
+     * @param retirar o nó que será retirado da árvore.
+     * @return a nova raiz da árvore.
      */
-    protected No<K, V> remover(No<K, V> raizArvore, K chaveRemover) {
+    private No<K, V> retirar(Caminho<K, V> caminho, No<K, V> retirar) {
     	
-    	int comparacao;
+    	No<K, V> antecessor;
     	
-        /// Se a raiz da árvore ou sub-árvore for null, a árvore está vazia e o item, que deveria ser retirado dessa árvore, não foi encontrado.
-        /// Nesse caso, deve-se lançar uma exceção.
-        if (raizArvore == null) 
-        	throw new NoSuchElementException("O item a ser removido não foi localizado na árvore!");
-        
-        comparacao = comparador.compare(chaveRemover, raizArvore.getChave());
-        
-        if (comparacao == 0) {
-            /// O item armazenado na raiz da árvore corresponde ao item que deve ser retirado dessa árvore.
-            /// Ou seja, o item que deve ser retirado da árvore foi encontrado.
-        	if (raizArvore.getDireita() == null) {
-        		/// O nó da árvore que será retirado não possui descendentes à direita.
-                /// Nesse caso, os descendentes à esquerda do nó que está sendo retirado da árvore passarão a ser descendentes do nó-pai do nó que está sendo retirado.
-                raizArvore = raizArvore.getEsquerda();
-        	} else if (raizArvore.getEsquerda() == null) {
-                /// O nó da árvore que será retirado não possui descendentes à esquerda.
-                /// Nesse caso, os descendentes à direita do nó que está sendo retirado da árvore passarão a ser descendentes do nó-pai do nó que está sendo retirado.
-                raizArvore = raizArvore.getDireita();
-        	} else {
-            	/// O nó que está sendo retirado da árvore possui descendentes à esquerda e à direita.
-                /// Nesse caso, o antecessor do nó que está sendo retirado é localizado na sub-árvore esquerda desse nó. 
-                /// O antecessor do nó que está sendo retirado da árvore corresponde
-                /// ao nó que armazena o item cuja chave é a maior, 
-                /// dentre as chaves menores do que a do item do nó que está sendo retirado.
-                /// Depois de ser localizado na sub-árvore esquerda do nó que está sendo retirado, 
-                /// o antecessor desse nó o substitui.
-                /// A sub-árvore esquerda do nó que foi retirado é atualizada com a remoção do antecessor.
-                raizArvore.setEsquerda(removerNoAntecessor(raizArvore, raizArvore.getEsquerda()));
-        	}
-        } else if (comparacao < 0)
-        	/// Se a chave do item que deverá ser localizado e retirado da árvore 
-        	/// for menor do que a chave do item armazenado na raiz da árvore:
-        	/// pesquise e retire esse item da sub-árvore esquerda.
-            raizArvore.setEsquerda(remover(raizArvore.getEsquerda(), chaveRemover));
-        else
-        	/// Se a chave do item que deverá ser localizado e retirado da árvore
-        	/// for maior do que a chave do item armazenado na raiz da árvore:
-        	/// pesquise e retire esse item da sub-árvore direita.
-            raizArvore.setDireita(remover(raizArvore.getDireita(), chaveRemover));
-         
-        /// Retorna a raiz atualizada da árvore ou sub-árvore da qual o item foi retirado.
-        return raizArvore;
+    	if (retirar.getDireita() == null)
+    		/// O nó da árvore que será retirado não possui descendentes à direita.
+            /// Nesse caso, os descendentes à esquerda do nó que está sendo retirado da árvore passarão a ser descendentes do nó-pai do nó que está sendo retirado.
+    		return subirAjustando(caminho, retirar.getEsquerda());
+    	if (retirar.getEsquerda() == null)
+            /// O nó da árvore que será retirado não possui descendentes à esquerda.
+            /// Nesse caso, os descendentes à direita do nó que está sendo retirado da árvore passarão a ser descendentes do nó-pai do nó que está sendo retirado.
+    		return subirAjustando(caminho, retirar.getDireita());
+    	
+    	/// O nó que está sendo retirado da árvore possui descendentes à esquerda e à direita.
+        /// Nesse caso, o antecessor do nó que está sendo retirado é localizado na sub-árvore esquerda desse nó:
+        /// é o nó que armazena o item cuja chave é a maior, dentre as chaves menores do que a do item do nó que está sendo retirado.
+        /// O antecessor substitui o nó que está sendo retirado e, em seu lugar, ficam os seus descendentes à esquerda.
+        /// O caminho até o antecessor também é empilhado, para que todos os nós acima dele sejam ajustados.
+    	caminho.empilhar(retirar, true);
+    	antecessor = retirar.getEsquerda();
+    	while (antecessor.getDireita() != null) {
+    		caminho.empilhar(antecessor, false);
+    		antecessor = antecessor.getDireita();
+    	}
+    	retirar.setChave(antecessor.getChave());
+    	retirar.setItem(antecessor.getItem());
+    	return subirAjustando(caminho, antecessor.getEsquerda());
     }
 
     /**
-     * Método recursivo responsável por localizar na árvore ou sub-árvore o antecessor do nó que deverá ser retirado. 
-     * O antecessor do nó que deverá ser retirado da árvore corresponde
-     * ao nó que armazena o item cuja chave é a maior, 
-     * dentre as chaves menores do que a do item que deverá ser retirado.
-     * Depois de ser localizado na árvore ou sub-árvore, 
-     * o antecessor do nó que deverá ser retirado da árvore o substitui.
-     * Adicionalmente, a árvore ou sub-árvore é atualizada com a remoção do antecessor.
-     * @param itemRetirar: referência ao nó que armazena o item que deverá ser retirado da árvore.
-     * @param raizArvore: raiz da árvore ou sub-árvore em que o antecessor do nó que deverá ser retirado deverá ser localizado.
-     * @return a raiz atualizada da árvore ou sub-árvore após a remoção do antecessor do nó que foi retirado da árvore.
+     * Recorta a árvore: retorna, em ordem crescente de chave, os itens cujas chaves estão no intervalo fechado
+     * [chaveDeOnde, chaveAteOnde].
+     * @param chaveDeOnde a menor chave do intervalo.
+     * @param chaveAteOnde a maior chave do intervalo.
+     * @return uma lista com os itens do intervalo (vazia, caso nenhum item esteja nele).
+     * @throws IllegalArgumentException caso a chave inicial seja maior do que a chave final.
+     */
+    public Lista<V> recortar(K chaveDeOnde, K chaveAteOnde) {
+    	return recortar(chaveDeOnde, true, chaveAteOnde, true);
+    }
+    
+    /**
+     * Recorta a árvore: retorna, em ordem crescente de chave, os itens cujas chaves estão entre os limites informados.
+     * Apenas as sub-árvores que podem conter chaves do intervalo são visitadas: o custo é O(h + k),
+     * sendo h a altura da árvore e k a quantidade de itens recortados.
+     * @param chaveDeOnde o limite inferior do intervalo, ou null para começar pelo primeiro item da árvore.
+     * @param incluirDeOnde indica se o limite inferior pertence ao intervalo (fechado) ou não (aberto).
+     * @param chaveAteOnde o limite superior do intervalo, ou null para terminar no último item da árvore.
+     * @param incluirAteOnde indica se o limite superior pertence ao intervalo (fechado) ou não (aberto).
+     * @return uma lista com os itens do intervalo (vazia, caso nenhum item esteja nele).
+     * @throws IllegalArgumentException caso o limite inferior seja maior do que o limite superior.
      */
-    protected No<K, V> removerNoAntecessor(No<K, V> itemRetirar, No<K, V> raizArvore) {
-        /// Se o antecessor do nó que deverá ser retirado da árvore ainda não foi encontrado...
-        if (raizArvore.getDireita() != null) {
-            /// Pesquise o antecessor na sub-árvore direita.
-            raizArvore.setDireita(removerNoAntecessor(itemRetirar, raizArvore.getDireita()));
-        } else {
-        	/// O antecessor do nó que deverá ser retirado da árvore foi encontrado e deverá substitui-lo.
-        	itemRetirar.setChave(raizArvore.getChave());
-            itemRetirar.setItem(raizArvore.getItem());
-            /// A raiz da árvore ou sub-árvore é atualizada com os descendentes à esquerda do antecessor.
-            /// Ou seja, retira-se o antecessor da árvore.
-            raizArvore = raizArvore.getEsquerda();
-        }
-        return raizArvore;
+    public Lista<V> recortar(K chaveDeOnde, boolean incluirDeOnde, K chaveAteOnde, boolean incluirAteOnde) {
+    	
+    	Lista<V> recorte = new Lista<>();
+    	Iterator<V> cursor;
+    	
+    	inicio = System.nanoTime();
+    	cursor = cursor(chaveDeOnde, incluirDeOnde, chaveAteOnde, incluirAteOnde);
+    	while (cursor.hasNext())
+    		recorte.inserirFinal(cursor.next());
+    	termino = System.nanoTime();
+    	return recorte;
+    }
+    
+    /**
+     * Retorna um cursor que percorre, sob demanda e em ordem crescente de chave, os itens entre os limites informados.
+     * Nenhum item é copiado: cada chamada a {@code next()} avança na árvore apenas até o próximo item do intervalo,
+     * de modo que um percurso interrompido cedo custa apenas o que foi percorrido.
+     * A árvore não deve ser alterada enquanto o cursor estiver em uso.
+     * @param chaveDeOnde o limite inferior do intervalo, ou null para começar pelo primeiro item da árvore.
+     * @param incluirDeOnde indica se o limite inferior pertence ao intervalo.
+     * @param chaveAteOnde o limite superior do intervalo, ou null para terminar no último item da árvore.
+     * @param incluirAteOnde indica se o limite superior pertence ao intervalo.
+     * @throws IllegalArgumentException caso o limite inferior seja maior do que o limite superior.
+     */
+    public Iterator<V> cursor(K chaveDeOnde, boolean incluirDeOnde, K chaveAteOnde, boolean incluirAteOnde) {
+    	
+    	if (chaveDeOnde != null && chaveAteOnde != null && comparador.compare(chaveDeOnde, chaveAteOnde) > 0)
+    		throw new IllegalArgumentException("O início do intervalo não pode ser maior do que o seu fim.");
+    	
+    	comparacoes = 0;
+    	return new CursorIntervalo(chaveDeOnde, incluirDeOnde, chaveAteOnde, incluirAteOnde);
+    }
+    
+    /**
+     * Cursor de um intervalo de chaves. A pilha guarda os nós do intervalo ainda não visitados cujas sub-árvores
+     * esquerdas já foram descartadas ou empilhadas; seu tamanho é limitado pela altura da árvore.
+     */
+    private final class CursorIntervalo implements Iterator<V> {
+    	
+    	private final Caminho<K, V> pendentes = new Caminho<>();
+    	private final K chaveDeOnde;
+    	private final boolean incluirDeOnde;
+    	private final K chaveAteOnde;
+    	private final boolean incluirAteOnde;
+    	private No<K, V> proximo;
+    	
+    	CursorIntervalo(K chaveDeOnde, boolean incluirDeOnde, K chaveAteOnde, boolean incluirAteOnde) {
+    		
+    		No<K, V> no = raiz;
+    		
+    		this.chaveDeOnde = chaveDeOnde;
+    		this.incluirDeOnde = incluirDeOnde;
+    		this.chaveAteOnde = chaveAteOnde;
+    		this.incluirAteOnde = incluirAteOnde;
+    		
+    		/// Desce até o limite inferior: nós abaixo dele são descartados com toda a sua sub-árvore esquerda.
+    		while (no != null) {
+    			if (aPartirDoInicio(no)) {
+    				pendentes.empilhar(no, true);
+    				no = no.getEsquerda();
+    			} else
+    				no = no.getDireita();
+    		}
+    		avancar();
+    	}
+    	
+    	private boolean aPartirDoInicio(No<K, V> no) {
+    		
+    		int comparacao;
+    		
+    		if (chaveDeOnde == null)
+    			return true;
+    		comparacoes++;
+    		comparacao = comparador.compare(no.getChave(), chaveDeOnde);
+    		return (comparacao > 0 || (comparacao == 0 && incluirDeOnde));
+    	}
+    	
+    	private boolean ateOFim(No<K, V> no) {
+    		
+    		int comparacao;
+    		
+    		if (chaveAteOnde == null)
+    			return true;
+    		comparacoes++;
+    		comparacao = comparador.compare(no.getChave(), chaveAteOnde);
+    		return (comparacao < 0 || (comparacao == 0 && incluirAteOnde));
+    	}
+    	
+    	/// Prepara o próximo nó do intervalo; o primeiro nó além do limite superior encerra o percurso.
+    	private void avancar() {
+    		
+    		No<K, V> no;
+    		
+    		proximo = null;
+    		if (pendentes.vazio())
+    			return;
+    		
+    		no = pendentes.desempilhar();
+    		if (!ateOFim(no))
+    			return;
+    		
+    		proximo = no;
+    		/// Todos os nós da sub-árvore direita são maiores do que o nó atual e, portanto, estão a partir do início.
+    		for (no = no.getDireita(); no != null; no = no.getEsquerda())
+    			pendentes.empilhar(no, true);
+    	}
+    	
+    	@Override
+    	public boolean hasNext() {
+    		return (proximo != null);
+    	}
+    	
+    	@Override
+    	public V next() {
+    		
+    		V item;
+    		
+    		if (proximo == null)
+    			throw new NoSuchElementException("Não há mais itens no intervalo.");
+    		item = proximo.getItem();
+    		avancar();
+    		return item;
+    	}
+    }
+
+    /**
+     * Retorna a posição da chave na ordem da árvore: a quantidade de chaves menores do que ela.
+     * A chave não precisa estar presente. Custa O(h), graças ao tamanho das sub-árvores guardado em cada nó.
+     * @param chave a chave cuja posição será calculada.
+     * @return a quantidade de chaves da árvore menores do que a chave informada (entre 0 e tamanho()).
+     */
+    public int posicao(K chave) {
+    	
+    	int quantidade;
+    	
+    	comparacoes = 0;
+    	inicio = System.nanoTime();
+    	quantidade = contarAntes(chave, false);
+    	termino = System.nanoTime();
+    	return quantidade;
+    }
+    
+    /**
+     * Conta as chaves menores do que a chave informada ou, se "incluirIgual" for verdadeiro, menores ou iguais a ela.
+     * A cada descida à direita, o nó e toda a sua sub-árvore esquerda são somados de uma só vez.
+     */
+    private int contarAntes(K chave, boolean incluirIgual) {
+    	
+    	No<K, V> no = raiz;
+    	int quantidade = 0;
+    	int comparacao;
+    	
+    	while (no != null) {
+    		comparacoes++;
+    		comparacao = comparador.compare(chave, no.getChave());
+    		if (comparacao < 0 || (comparacao == 0 && !incluirIgual))
+    			no = no.getEsquerda();
+    		else {
+    			quantidade += tamanho(no.getEsquerda()) + 1;
+    			no = no.getDireita();
+    		}
+    	}
+    	return quantidade;
+    }
+    
+    private static int tamanho(No<?, ?> no) {
+    	return (no != null) ? no.getTamanho() : 0;
+    }
+    
+    /**
+     * Seleciona o item que ocupa a posição informada na ordem da árvore (0 para o item de menor chave), em O(h).
+     * @param posicao a posição do item desejado.
+     * @return o item da posição informada.
+     * @throws IndexOutOfBoundsException caso a posição seja negativa ou não seja menor do que o tamanho da árvore.
+     */
+    public V selecionar(int posicao) {
+    	
+    	No<K, V> no = raiz;
+    	int antes;
+    	
+    	if (posicao < 0 || posicao >= tamanho)
+    		throw new IndexOutOfBoundsException("Não foi possível selecionar o item: a posição informada é inválida!");
+    	
+    	comparacoes = 0;
+    	inicio = System.nanoTime();
+    	while (true) {
+    		comparacoes++;
+    		antes = tamanho(no.getEsquerda());
+    		if (posicao < antes)
+    			no = no.getEsquerda();
+    		else if (posicao == antes)
+    			break;
+    		else {
+    			posicao -= antes + 1;
+    			no = no.getDireita();
+    		}
+    	}
+    	termino = System.nanoTime();
+    	return no.getItem();
+    }
+    
+    /**
+     * Seleciona o item do percentil informado, pelo método da posição mais próxima: 
+     * o item de posição ceil(p * n) - 1, em O(h). O percentil 0.5 é a mediana (inferior, se n for par).
+     * @param percentil o percentil desejado, entre 0 e 1.
+     * @return o item do percentil informado.
+     * @throws IllegalArgumentException caso o percentil não esteja entre 0 e 1.
+     * @throws NoSuchElementException caso a árvore esteja vazia.
+     */
+    public V percentil(double percentil) {
+    	
+    	if (!(percentil >= 0 && percentil <= 1))
+    		throw new IllegalArgumentException("O percentil deve estar entre 0 e 1.");
+    	if (vazia())
+    		throw new NoSuchElementException("A árvore está vazia!");
+    	
+    	return selecionar(Math.max(0, (int) Math.ceil(percentil * tamanho) - 1));
+    }
+    
+    /**
+     * Conta, em O(h) e sem percorrê-los, os itens cujas chaves estão entre os limites informados.
+     * Os limites seguem as mesmas regras de {@link #recortar(Object, boolean, Object, boolean)}.
+     * @return a quantidade de itens do intervalo.
+     * @throws IllegalArgumentException caso o limite inferior seja maior do que o limite superior.
+     */
+    public int contarIntervalo(K chaveDeOnde, boolean incluirDeOnde, K chaveAteOnde, boolean incluirAteOnde) {
+    	
+    	int ateOFim, antesDoInicio;
+    	
+    	if (chaveDeOnde != null && chaveAteOnde != null && comparador.compare(chaveDeOnde, chaveAteOnde) > 0)
+    		throw new IllegalArgumentException("O início do intervalo não pode ser maior do que o seu fim.");
+    	
+    	comparacoes = 0;
+    	inicio = System.nanoTime();
+    	ateOFim = (chaveAteOnde == null) ? tamanho : contarAntes(chaveAteOnde, incluirAteOnde);
+    	antesDoInicio = (chaveDeOnde == null) ? 0 : contarAntes(chaveDeOnde, !incluirDeOnde);
+    	termino = System.nanoTime();
+    	return Math.max(0, ateOFim - antesDoInicio);
     }
 
 	@Override
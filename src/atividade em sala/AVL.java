@@ -20,45 +20,15 @@ public class AVL<K, V> extends ABB<K, V> {
     }
        
     /**
-    * Método recursivo responsável por adicionar um item à árvore.
-    * @param raizArvore: raiz da árvore ou sub-árvore em que o item será adicionado.
-    * @param item: item que deverá ser adicionado à árvore.
-    * @return a raiz atualizada da árvore ou sub-árvore balanceada AVL em que o item foi adicionado.
+    * Ajusta a raiz de uma sub-árvore alterada durante a subida de uma inserção ou remoção:
+    * atualiza sua altura e, caso o fator de balanceamento chegue a 2 ou -2, aplica a rotação simples ou dupla correspondente.
+    * Como a subida passa por todos os ancestrais do nó alterado, a árvore inteira permanece balanceada.
+    * @param raizArvore: raiz da sub-árvore alterada.
+    * @return a raiz atualizada da sub-árvore balanceada AVL.
     */
     @Override
-    protected No<K, V> inserir(No<K, V> raizArvore, K chave, V item) {
-    	
-    	return balancear(super.inserir(raizArvore, chave, item));
-    }
-    
-    /**
-    * Método recursivo responsável por localizar na árvore ou sub-árvore o antecessor do nó que deverá ser retirado. 
-    * O antecessor do nó que deverá ser retirado da árvore corresponde
-    * ao nó que armazena o item que é o maior, 
-    * dentre os itens menores do que o item que deverá ser retirado.
-    * Depois de ser localizado na árvore ou sub-árvore, 
-    * o antecessor do nó que deverá ser retirado da árvore o substitui.
-    * Adicionalmente, a árvore ou sub-árvore balanceada AVL é atualizada com a remoção do antecessor.
-    * @param itemRetirar: referência ao nó que armazena o item que deverá ser retirado da árvore.
-    * @param raizArvore: raiz da árvore ou sub-árvore em que o antecessor do nó que deverá ser retirado deverá ser localizado.
-    * @return a raiz atualizada da árvore ou sub-árvore balanceada AVL após a remoção do antecessor do nó que foi retirado da árvore.
-    */
-    @Override
-    protected No<K, V> removerNoAntecessor(No<K, V> itemRetirar, No<K, V> raizArvore) {
-    	
-        return balancear(super.removerNoAntecessor(itemRetirar, raizArvore));
-    }
-
-    /**
-    * Método recursivo responsável por localizar um item na árvore e retirá-lo da árvore.
-    * @param raizArvore: raiz da árvore ou sub-árvore da qual o item será retirado.
-    * @param itemRemover: item que deverá ser localizado e removido da árvore.
-    * @return a raiz atualizada da árvore ou sub-árvore balanceada AVL da qual o item foi retirado.
-    */
-    @Override
-    protected No<K, V> remover(No<K, V> raizArvore, K chaveRemover) {
-    	
-    	return balancear(super.remover(raizArvore, chaveRemover));
+    protected No<K, V> ajustar(No<K, V> raizArvore) {
+    	return balancear(raizArvore);
     }
 
     private No<K, V> balancear(No<K, V> raizArvore) {
@@ -107,6 +77,8 @@ public class AVL<K, V> extends ABB<K, V> {
 		
 		p.setAltura();
 		u.setAltura();
+		p.setTamanho();
+		u.setTamanho();
 		
 		return u;
 	}
@@ -124,6 +96,8 @@ public class AVL<K, V> extends ABB<K, V> {
 		
 		p.setAltura();
 		z.setAltura();
+		p.setTamanho();
+		z.setTamanho();
 		
 		return z;
 	}
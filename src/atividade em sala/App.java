@@ -3,9 +3,14 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.NoSuchElementException;
 import java.util.Random;
 import java.util.Scanner;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.Function;
 import java.io.BufferedWriter;
 import java.io.File;
@@ -23,15 +28,41 @@ public class App {
 
     /** Quantidade de produtos cadastrados atualmente na lista */
     static int quantosProdutos = 0;
+    
+    /** Taxa de falsos positivos dos filtros de Bloom que descartam as pesquisas sem sucesso */
+    static final double TAXA_FALSOS_POSITIVOS = 0.01;
+
+    /** Argumento da linha de comando que seleciona árvores B+ para os índices de produtos por id e por nome */
+    static final String ESTRUTURA_B_MAIS = "bmais";
+
+    /** Quantidade de lotes em que a geração de pedidos é dividida. Fixa, para que os pedidos não dependam da máquina */
+    static final int LOTES_PEDIDOS = 16;
+    
+    /** Semente do primeiro lote de pedidos; cada lote usa a semente seguinte à do lote anterior */
+    static final long SEMENTE_PEDIDOS = 42;
 
     static AVL<String, Produto> produtosBalanceadosPorNome;
     
     static AVL<Integer, Produto> produtosBalanceadosPorId;
     
-    static TabelaHash<Produto, Lista<Pedido>> pedidosPorProduto;
+    /** Índice dos produtos por valor de venda, com os agregados (quantidade, soma, mínimo e máximo) de cada sub-árvore */
+    static IndiceAgregado<Produto> produtosPorPreco;
+    
+    /** Índices dos produtos por id e por nome para as pesquisas, muito mais frequentes do que as inserções: 
+     *  funções hash perfeitas mínimas, construídas a partir das árvores após a leitura do catálogo,
+     *  que localizam um produto com uma única comparação. Produtos inseridos depois ficam nas árvores.
+     *  Com o argumento "bmais" na linha de comando, os dois índices passam a ser árvores B+ (ver {@link #ESTRUTURA_B_MAIS}). */
+    static IMapeamento<Integer, Produto> produtosPorId;
+    static IMapeamento<String, Produto> produtosPorNome;
+    
+    /** Identificadores dos pedidos de cada produto, indexados pelo identificador do produto e armazenados fora do heap */
+    static IntMultimapaForaDoHeap pedidosPorProduto;
+    
+    /** Pedidos gerados, indexados por seu identificador */
+    static IntTabelaHash<Pedido> pedidosPorId;
     // ... variáveis existentes ...
-static AVL<Integer, Fornecedor> fornecedoresPorId; // Árvore AVL para fornecedores
-static TabelaHash<Produto, Lista<Fornecedor>> fornecedoresDoProduto; // Hash associando Produto -> Lista de Fornecedores
+static IntTabelaHash<Fornecedor> fornecedoresPorId; // Tabela hash de fornecedores, indexada diretamente pelo documento (int)
+static Multimapa<Produto, Fornecedor> fornecedoresDoProduto; // Multimapa compacto associando Produto -> Fornecedores
     static void limparTela() {
         System.out.print("\033[H\033[2J");
         System.out.flush();
@@ -73,6 +104,11 @@ static int menu() {
     System.out.println("2 - Gravar, em arquivo, pedidos de um produto");
     System.out.println("3 - Relatório de um Fornecedor (na tela)"); 
     System.out.println("4 - Gravar, em arquivo, fornecedores de um produto"); 
+    System.out.println("5 - Procurar produto, por nome");
+    System.out.println("6 - Gravar, em arquivo, o catálogo de produtos");
+    System.out.println("7 - Recortar a lista de produtos, por nome");
+    System.out.println("8 - Recortar a lista de produtos, por id");
+    System.out.println("9 - Totalizar os produtos de uma faixa de preço");
     System.out.println("0 - Sair");
     System.out.print("Digite sua opção: ");
     try {
@@ -108,6 +144,8 @@ static int menu() {
         
         int numProdutos = Integer.parseInt(linhaQtd);
         quantosProdutos = numProdutos;
+        Produto[] produtos = new Produto[numProdutos];
+        int lidos = 0;
 
         for (int i = 0; i < numProdutos; i++) {
             // Proteção: verifica se realmente existe uma próxima linha antes de ler
@@ -119,12 +157,13 @@ static int menu() {
                 }
                 
                 if (!linha.trim().isEmpty()) {
-                    Produto produto = Produto.criarDoTexto(linha);
-                    K chave = extratorDeChave.apply(produto);
-                    produtosCadastrados.inserir(chave, produto);
+                    produtos[lidos++] = Produto.criarDoTexto(linha);
                 }
             }
         }
+
+        // Carga em lote: a árvore balanceada é montada de uma só vez, sem rotações
+        produtosCadastrados.carregar(Arrays.copyOf(produtos, lidos), extratorDeChave);
         
     } catch (IOException | NumberFormatException e) {
         System.out.println("Erro ao ler o arquivo: " + e.getMessage());
@@ -138,18 +177,14 @@ static int menu() {
     return produtosCadastrados;
 }
     
-    static <K> Produto localizarProduto(ABB<K, Produto> produtosCadastrados, K procurado) {
+    static <K> Produto localizarProduto(IMapeamento<K, Produto> produtosCadastrados, K procurado) {
     	
     	Produto produto;
     	
     	cabecalho();
     	System.out.println("Localizando um produto...");
     	
-    	try {
-    		produto = produtosCadastrados.pesquisar(procurado);
-    	} catch (NoSuchElementException excecao) {
-    		produto = null;
-    	}
+    	produto = produtosCadastrados.pesquisar(procurado, null);
     	
     	System.out.println("Número de comparações realizadas: " + produtosCadastrados.getComparacoes());
     	System.out.println("Tempo de processamento da pesquisa: " + produtosCadastrados.getTempo() + " ms");
@@ -158,18 +193,18 @@ static int menu() {
     	
     }
     
-    /** Localiza um produto na árvore de produtos organizados por id, a partir do código de produto informado pelo usuário, e o retorna. 
+    /** Localiza um produto no índice de produtos organizados por id, a partir do código de produto informado pelo usuário, e o retorna. 
      *  Em caso de não encontrar o produto, retorna null */
-    static Produto localizarProdutoID(ABB<Integer, Produto> produtosCadastrados) {
+    static Produto localizarProdutoID(IMapeamento<Integer, Produto> produtosCadastrados) {
         
         int idProduto = lerOpcao("Digite o identificador do produto desejado: ", Integer.class);
         
         return localizarProduto(produtosCadastrados, idProduto);
     }
     
-    /** Localiza um produto na árvore de produtos organizados por nome, a partir do nome de produto informado pelo usuário, e o retorna. 
-     *  A busca não é sensível ao caso. Em caso de não encontrar o produto, retorna null */
-    static Produto localizarProdutoNome(ABB<String, Produto> produtosCadastrados) {
+    /** Localiza um produto no índice de produtos organizados por nome, a partir do nome de produto informado pelo usuário, e o retorna. 
+     *  Em caso de não encontrar o produto, retorna null */
+    static Produto localizarProdutoNome(IMapeamento<String, Produto> produtosCadastrados) {
         
     	String descricao;
     	
@@ -179,6 +214,74 @@ static int menu() {
         return localizarProduto(produtosCadastrados, descricao);
     }
     
+    /** Mostra os produtos cujas chaves estão no intervalo fechado [chaveDeOnde, chaveAteOnde], em ordem de chave.
+     *  Apenas as partes da árvore que podem conter o intervalo são percorridas. */
+    static <K> void recortarProdutos(ABB<K, Produto> produtosCadastrados, K chaveDeOnde, K chaveAteOnde) {
+    	
+    	Lista<Produto> recorte;
+    	
+    	cabecalho();
+    	try {
+    		recorte = produtosCadastrados.recortar(chaveDeOnde, chaveAteOnde);
+    	} catch (IllegalArgumentException e) {
+    		System.out.println(e.getMessage());
+    		return;
+    	}
+    	
+    	System.out.print(recorte);
+    	System.out.println("Produtos no intervalo: " + recorte.tamanho());
+    	System.out.println("Número de comparações realizadas: " + produtosCadastrados.getComparacoes());
+    	System.out.println("Tempo de processamento do recorte: " + produtosCadastrados.getTempo() + " ms");
+    }
+    
+    /** Recorta os produtos organizados por nome, entre os nomes inicial e final informados pelo usuário. */
+    static void recortarProdutosNome(ABB<String, Produto> produtosCadastrados) {
+    	
+    	String nomeDeOnde, nomeAteOnde;
+    	
+    	System.out.println("Digite o nome inicial do recorte:");
+    	nomeDeOnde = teclado.nextLine();
+    	System.out.println("Digite o nome final do recorte:");
+    	nomeAteOnde = teclado.nextLine();
+    	
+    	recortarProdutos(produtosCadastrados, nomeDeOnde, nomeAteOnde);
+    }
+    
+    /** Recorta os produtos organizados por id, entre os identificadores inicial e final informados pelo usuário. */
+    static void recortarProdutosId(ABB<Integer, Produto> produtosCadastrados) {
+    	
+    	Integer idDeOnde = lerOpcao("Digite o identificador inicial do recorte: ", Integer.class);
+    	Integer idAteOnde = lerOpcao("Digite o identificador final do recorte: ", Integer.class);
+    	
+    	if (idDeOnde == null || idAteOnde == null) {
+    		System.out.println("Identificador inválido!");
+    		return;
+    	}
+    	recortarProdutos(produtosCadastrados, idDeOnde, idAteOnde);
+    }
+    
+    /** Totaliza os produtos cujo valor de venda está na faixa informada pelo usuário: quantidade, soma, mínimo, máximo e média.
+     *  Os totais vêm dos agregados guardados no índice por preço, sem visitar cada produto da faixa. */
+    static void totalizarFaixaDePreco() {
+    	
+    	Double precoDeOnde = lerOpcao("Digite o menor preço da faixa: ", Double.class);
+    	Double precoAteOnde = lerOpcao("Digite o maior preço da faixa: ", Double.class);
+    	IndiceAgregado.Agregado totais;
+    	
+    	cabecalho();
+    	if (precoDeOnde == null || precoAteOnde == null || precoDeOnde > precoAteOnde) {
+    		System.out.println("Faixa de preço inválida!");
+    		return;
+    	}
+    	
+    	totais = produtosPorPreco.agregar(precoDeOnde, precoAteOnde);
+    	System.out.println("Produtos entre " + precoDeOnde + " e " + precoAteOnde + ": " + totais);
+    	System.out.println("Número de comparações realizadas: " + produtosPorPreco.getComparacoes());
+    	System.out.println("Tempo de processamento da totalização: " + produtosPorPreco.getTempo() + " ms");
+    	if (totais.getQuantidade() > 0)
+    		System.out.println("Produto mais barato da faixa:\n" + produtosPorPreco.menorAPartirDe(precoDeOnde, true));
+    }
+    
     private static void mostrarProduto(Produto produto) {
     	
         cabecalho();
@@ -191,15 +294,69 @@ static int menu() {
         System.out.println(mensagem);
     }
     
+    /**
+     * Gera a quantidade informada de pedidos aleatórios, dividindo o trabalho em LOTES_PEDIDOS lotes, executados por
+     * até uma thread por processador. Cada lote tem sua própria semente e seu próprio bloco de identificadores, ambos fixos:
+     * os pedidos gerados são os mesmos em qualquer máquina, qualquer que seja a quantidade de threads ou a ordem de execução.
+     * As threads apenas sorteiam os pedidos e consultam o índice de produtos por id, cuja estrutura não é alterada; as métricas
+     * da última operação desse índice (comparações e tempo, de IMedicao), porém, são campos compartilhados, sem sincronização,
+     * escritos por todas as threads: logo após a geração, elas não correspondem a nenhuma pesquisa.
+     * Os pedidos são registrados em pedidosPorId e em pedidosPorProduto pela thread atual, na ordem dos lotes.
+     * @param quantidade Quantidade total de pedidos a serem gerados.
+     * @return Lista com os pedidos gerados, em ordem de identificador.
+     * @throws IllegalStateException caso a geração falhe ou a thread atual seja interrompida; nesse caso, nenhum pedido é retornado.
+     */
     private static Lista<Pedido> gerarPedidos(int quantidade) {
+        int quantasThreads = Math.min(LOTES_PEDIDOS, Runtime.getRuntime().availableProcessors());
+        ExecutorService executor = Executors.newFixedThreadPool(quantasThreads);
+        Lista<Future<Lista<Pedido>>> tarefas = new Lista<>();
+        Lista<Pedido> pedidos = new Lista<>();
+        int primeiroId = Pedido.reservarIdentificadores(quantidade);
+        int idDoLote = primeiroId;
+        
+        for (int lote = 0; lote < LOTES_PEDIDOS; lote++) {
+            int pedidosDoLote = quantidade / LOTES_PEDIDOS + ((lote < quantidade % LOTES_PEDIDOS) ? 1 : 0);
+            int primeiroIdDoLote = idDoLote;
+            Random sorteio = new Random(SEMENTE_PEDIDOS + lote);
+            tarefas.inserirFinal(executor.submit(() -> gerarPedidos(pedidosDoLote, primeiroIdDoLote, sorteio)));
+            idDoLote += pedidosDoLote;
+        }
+        
+        try {
+            Celula<Future<Lista<Pedido>>> tarefa = tarefas.getPrimeiro().getProximo();
+            while (tarefa != null) {
+                Celula<Pedido> pedido = tarefa.getItem().get().getPrimeiro().getProximo();
+                while (pedido != null) {
+                    pedidos.inserirFinal(pedido.getItem());
+                    pedidosPorId.inserir(pedido.getItem().getIdPedido(), pedido.getItem());
+                    registrarProdutos(pedido.getItem());
+                    pedido = pedido.getProximo();
+                }
+                tarefa = tarefa.getProximo();
+            }
+        } catch (InterruptedException e) {
+            // Lotes ainda em execução são cancelados: uma lista parcial de pedidos não é retornada.
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("A geração de pedidos foi interrompida.", e);
+        } catch (ExecutionException e) {
+            executor.shutdownNow();
+            throw new IllegalStateException("Erro ao gerar pedidos: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            executor.shutdown();
+        }
+        return pedidos;
+    }
+    
+    /** Gera, na thread atual, a quantidade informada de pedidos aleatórios, com identificadores consecutivos a partir de primeiroId. */
+    private static Lista<Pedido> gerarPedidos(int quantidade, int primeiroId, Random sorteio) {
         Lista<Pedido> pedidos = new Lista<>();
-        Random sorteio = new Random(42);
         int produtosPorPedido;
         int formaDePagamento;
         
         for (int i = 0; i < quantidade; i++) {
             formaDePagamento = sorteio.nextInt(2) + 1;
-            Pedido pedido = new Pedido(LocalDate.now(), formaDePagamento);
+            Pedido pedido = new Pedido(primeiroId + i, LocalDate.now(), formaDePagamento);
             
             produtosPorPedido = sorteio.nextInt(8) + 1; // 1 a 8 itens por pedido
             
@@ -208,13 +365,9 @@ static int menu() {
                 int range = (quantosProdutos > 0) ? quantosProdutos : 1; 
                 int id = sorteio.nextInt(range) + 10_000;
                 
-              
-                try {
-                    Produto produto = produtosBalanceadosPorId.pesquisar(id);
+                Produto produto = produtosPorId.pesquisar(id, null);
+                if (produto != null) {
                     pedido.incluirProduto(produto);
-                    inserirNaTabela(produto, pedido);
-                } catch (NoSuchElementException e) {
-                 
                 }
             }
             pedidos.inserirFinal(pedido);
@@ -222,34 +375,23 @@ static int menu() {
         return pedidos;
     }
 
-private static void inserirNaTabela(Produto produto, Pedido pedido) {
-    Lista<Pedido> lista = null;
-
- 
-    try {
-        lista = pedidosPorProduto.pesquisar(produto);
-    } catch (NoSuchElementException e) {
-       
-        lista = null;
-    }
-
-    if (lista == null) {
-        lista = new Lista<>();
-        pedidosPorProduto.inserir(produto, lista);
+private static void registrarProdutos(Pedido pedido) {
+    // Anexa o identificador do pedido à lista de cada um dos seus produtos, fora do heap.
+    Celula<Produto> produto = pedido.getProdutos().getPrimeiro().getProximo();
+    while (produto != null) {
+        pedidosPorProduto.anexar(produto.getItem().hashCode(), pedido.getIdPedido());
+        produto = produto.getProximo();
     }
-
-    // Insere o pedido na lista
-    lista.inserirFinal(pedido);
 }
 
-static AVL<Integer, Fornecedor> lerFornecedores(String nomeArquivo) {
-    AVL<Integer, Fornecedor> arvoreFornecedores = new AVL<>(Integer::compare); // Comparador de Inteiros para o ID
+static IntTabelaHash<Fornecedor> lerFornecedores(String nomeArquivo) {
+    IntTabelaHash<Fornecedor> tabelaFornecedores = new IntTabelaHash<>(16);
     Scanner arquivo = null;
 
     try {
         arquivo = new Scanner(new File(nomeArquivo), Charset.forName("UTF-8"));
         
-        if (!arquivo.hasNextLine()) return arvoreFornecedores;
+        if (!arquivo.hasNextLine()) return tabelaFornecedores;
 
         int qtdFornecedores = Integer.parseInt(arquivo.nextLine().trim());
         Random sorteio = new Random(123); // Seed fixa para reprodutibilidade ou sem seed para aleatório total
@@ -265,24 +407,16 @@ static AVL<Integer, Fornecedor> lerFornecedores(String nomeArquivo) {
                 for (int j = 0; j < qtdProdutos; j++) {
                     int idProd = sorteio.nextInt(quantosProdutos) + 10_000; 
                     
-                    try {
-                        Produto prod = produtosBalanceadosPorId.pesquisar(idProd);
+                    Produto prod = produtosPorId.pesquisar(idProd, null);
+                    if (prod != null) {
                         
                         novoFornecedor.adicionarProduto(prod);
                         
-                        Lista<Fornecedor> listaFornecedores = fornecedoresDoProduto.pesquisar(prod);
-                        if (listaFornecedores == null) {
-                            listaFornecedores = new Lista<>();
-                            fornecedoresDoProduto.inserir(prod, listaFornecedores);
-                        }
-                        listaFornecedores.inserirFinal(novoFornecedor);
-                        
-                    } catch (NoSuchElementException e) {
-                       
+                        fornecedoresDoProduto.anexar(prod, novoFornecedor);
                     }
                 }
                 
-                arvoreFornecedores.inserir(novoFornecedor.getDocumento(), novoFornecedor);
+                tabelaFornecedores.inserir(novoFornecedor.getDocumento(), novoFornecedor);
                 
             } catch (IllegalArgumentException e) {
                 System.out.println("Erro ao criar fornecedor '" + nome + "': " + e.getMessage());
@@ -294,7 +428,7 @@ static AVL<Integer, Fornecedor> lerFornecedores(String nomeArquivo) {
         if (arquivo != null) arquivo.close();
     }
     
-    return arvoreFornecedores;
+    return tabelaFornecedores;
 }
 /**
  * Localiza um fornecedor pelo ID e imprime seus dados (Tarefa 4) [cite: 51]
@@ -302,12 +436,12 @@ static AVL<Integer, Fornecedor> lerFornecedores(String nomeArquivo) {
 static void relatorioDeFornecedor() {
     int id = lerOpcao("Digite o documento (ID) do fornecedor: ", Integer.class);
     
-    try {
-        Fornecedor f = fornecedoresPorId.pesquisar(id);
+    Fornecedor f = fornecedoresPorId.pesquisar(id, null);
+    if (f != null) {
         cabecalho();
         System.out.println("RELATÓRIO DE FORNECEDOR");
         System.out.println(f.toString());
-    } catch (NoSuchElementException e) {
+    } else {
         System.out.println("Fornecedor não encontrado com o documento " + id);
     }
 }
@@ -317,25 +451,25 @@ static void relatorioDeFornecedor() {
  */
 static void relatorioFornecedoresDoProduto() {
  
-    Produto produto = localizarProdutoID(produtosBalanceadosPorId);
+    Produto produto = localizarProdutoID(produtosPorId);
     
     if (produto == null) {
         System.out.println("Produto não encontrado.");
         return;
     }
 
-    Lista<Fornecedor> lista = null;
-    try {
-        lista = fornecedoresDoProduto.pesquisar(produto);
-    } catch (Exception e) {
-        lista = null;
-    }
+    int quantosFornecedores = fornecedoresDoProduto.quantidade(produto);
 
-    if (lista == null) {
+    if (quantosFornecedores == 0) {
         System.out.println("Nenhum fornecedor encontrado para este produto.");
         return;
     }
 
+    // Copia as referências dos fornecedores, para gravá-los fora da ação de percurso (a escrita pode lançar IOException).
+    Fornecedor[] fornecedores = new Fornecedor[quantosFornecedores];
+    int[] lidos = { 0 };
+    fornecedoresDoProduto.paraCada(produto, f -> fornecedores[lidos[0]++] = f);
+
     String nomeArquivo = "Fornecedores_Produto_" + produto.hashCode() + ".txt";
 
     try (BufferedWriter bw = Files.newBufferedWriter(
@@ -351,16 +485,9 @@ static void relatorioFornecedoresDoProduto() {
         bw.write("==================================================");
         bw.newLine();
 
-        try {
-            Celula<Fornecedor> atual = lista.getPrimeiro();
-            while (atual != null) {
-                Fornecedor f = atual.getItem();
-                bw.write("Fornecedor: " + f.getNome() + " | Doc: " + f.getDocumento());
-                bw.newLine();
-                atual = atual.getProximo();
-            }
-        } catch (Exception e) {
-            bw.write("Erro ao iterar lista de fornecedores.");
+        for (Fornecedor f : fornecedores) {
+            bw.write("Fornecedor: " + f.getNome() + " | Doc: " + f.getDocumento());
+            bw.newLine();
         }
 
         System.out.println("Relatório gerado: " + nomeArquivo);
@@ -371,28 +498,51 @@ static void relatorioFornecedoresDoProduto() {
 }
 
     
+/**
+ * Grava, em arquivo, o catálogo completo de produtos em ordem de id.
+ * Os produtos são escritos diretamente no arquivo, um a um, sem montar o catálogo em uma string.
+ */
+static void gravarCatalogo() {
+    String nomeArquivo = "Catalogo_Produtos.txt";
+
+    try (BufferedWriter bw = Files.newBufferedWriter(
+            Path.of(nomeArquivo),
+            Charset.forName("UTF-8"),
+            StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING)) {
+
+        bw.write("CATÁLOGO DE PRODUTOS (" + produtosBalanceadosPorId.tamanho() + " produtos)");
+        bw.newLine();
+        produtosBalanceadosPorId.percorrer(bw);
+
+        System.out.println("Catálogo gravado em: " + nomeArquivo);
+
+    } catch (IllegalStateException e) {
+        System.out.println("O catálogo está vazio.");
+    } catch (IOException e) {
+        System.out.println("Erro ao gravar arquivo: " + e.getMessage());
+    }
+}
     
 static void pedidosDoProduto() {
-    Produto produto = localizarProdutoID(produtosBalanceadosPorId);
+    Produto produto = localizarProdutoID(produtosPorId);
     if (produto == null) {
         System.out.println("Produto não encontrado.");
         return;
     }
 
-    Lista<Pedido> pedidosDoProduto = null;
-    try {
-        pedidosDoProduto = pedidosPorProduto.pesquisar(produto);
-    } catch (Exception e) {
-    
-        pedidosDoProduto = null;
-    }
+    int quantosPedidos = pedidosPorProduto.quantidade(produto.hashCode());
 
-    if (pedidosDoProduto == null) {
+    if (quantosPedidos == 0) {
         System.out.println("Esse produto não possui pedidos.");
         return;
     }
 
-  
+    // Copia os identificadores dos pedidos para o heap, para gravá-los fora da trava de leitura do índice.
+    int[] idsPedidos = new int[quantosPedidos];
+    int[] lidos = { 0 };
+    pedidosPorProduto.paraCada(produto.hashCode(), idPedido -> idsPedidos[lidos[0]++] = idPedido);
+
     String nomeBase = produto.toString().replaceAll("[^a-zA-Z0-9_\\-]", "_");
     String nomeArquivo = "RelatorioProduto_" + nomeBase + ".txt";
 
@@ -407,50 +557,18 @@ static void pedidosDoProduto() {
         bw.newLine();
         bw.write("Produto: " + produto.toString());
         bw.newLine();
-        bw.write("Total de pedidos registrados nesta tabela: ");
-        // se Lista tiver getTamanho()
-        try {
-            bw.write(String.valueOf(pedidosDoProduto.getTamanho()));
-        } catch (Throwable t) {
-           
-        }
+        bw.write("Total de pedidos registrados nesta tabela: " + quantosPedidos);
         bw.newLine();
         bw.newLine();
 
-
-        try {
-            Celula<Pedido> atual = pedidosDoProduto.getPrimeiro();
-            int contador = 0;
-            while (atual != null) {
-                contador++;
-                Pedido p = atual.getItem();
-                bw.write("Pedido #" + contador);
-                bw.newLine();
-               
-                bw.write(p.toString());
-                bw.newLine();
-                bw.write("--------------------------------------------------");
-                bw.newLine();
-                atual = atual.getProximo();
-            }
-        } catch (NoSuchMethodError | NoSuchElementException | NullPointerException e) {
-           
-            try {
-                int tamanho = pedidosDoProduto.getTamanho();
-                for (int i = 0; i < tamanho; i++) {
-                    Pedido p = pedidosDoProduto.pegar(i);
-                    bw.write("Pedido #" + (i+1));
-                    bw.newLine();
-                    bw.write(p.toString());
-                    bw.newLine();
-                    bw.write("--------------------------------------------------");
-                    bw.newLine();
-                }
-            } catch (Throwable t) {
-             
-                bw.write("Não foi possível iterar os pedidos: " + t.getMessage());
-                bw.newLine();
-            }
+        for (int i = 0; i < quantosPedidos; i++) {
+            Pedido p = pedidosPorId.pesquisar(idsPedidos[i], null);
+            bw.write("Pedido #" + (i + 1));
+            bw.newLine();
+            bw.write((p != null) ? p.toString() : "Pedido " + idsPedidos[i] + " não localizado.");
+            bw.newLine();
+            bw.write("--------------------------------------------------");
+            bw.newLine();
         }
 
         System.out.println("Relatório gerado com sucesso em: " + nomeArquivo);
@@ -477,23 +595,48 @@ static void pedidosDoProduto() {
 
     // Agora é seguro criar a segunda árvore, pois sabemos que a primeira não é nula
     try {
-        produtosBalanceadosPorNome = new AVL<>(produtosBalanceadosPorId, produto -> produto.toString(), String::compareTo);
+        produtosBalanceadosPorNome = new AVL<>(produtosBalanceadosPorId, Produto::getDescricao, String::compareTo);
     } catch (Exception e) {
         System.out.println("Erro ao indexar produtos por nome: " + e.getMessage());
         produtosBalanceadosPorNome = new AVL<>(String::compareTo); // Inicia vazia para não quebrar
     }
 
-    pedidosPorProduto = new TabelaHash<>((int)(quantosProdutos * 1.25));
+    if (args.length > 0 && args[0].equalsIgnoreCase(ESTRUTURA_B_MAIS)) {
+        // Árvores B+ montadas de uma só vez a partir das árvores AVL: poucos níveis, com as chaves contíguas em cada nó.
+        produtosPorId = new ArvoreBMais<>(produtosBalanceadosPorId, Produto::hashCode, Integer::compare);
+        produtosPorNome = new ArvoreBMais<>(produtosBalanceadosPorNome, Produto::getDescricao, String::compareTo);
+        System.out.println("Índices de produtos: árvores B+ de ordem " + ArvoreBMais.ORDEM_PADRAO + ".");
+    } else {
+        // O catálogo não muda mais: índices construídos uma única vez, com as árvores como reserva.
+        // Ids inexistentes (digitados ou sorteados) são descartados pelo filtro de Bloom, sem percorrer a árvore de reserva.
+        FiltroBloom<Integer, Produto> filtroProdutos = 
+                new FiltroBloom<>(new IndicePerfeito<>(produtosBalanceadosPorId), Math.max(1, quantosProdutos), TAXA_FALSOS_POSITIVOS);
+        produtosBalanceadosPorId.paraCadaPar((id, produto) -> filtroProdutos.registrar(id));
+        produtosPorId = filtroProdutos;
+        produtosPorNome = new IndicePerfeito<>(produtosBalanceadosPorNome);
+    }
+
+    produtosPorPreco = new IndiceAgregado<>(Produto::valorDeVenda);
+    produtosBalanceadosPorId.paraCada(produto -> {
+        // produto vencido: não tem valor de venda e fica fora do índice por preço
+        if (!(produto instanceof ProdutoPerecivel perecivel && perecivel.vencido()))
+            produtosPorPreco.inserir(produto);
+    });
+
+    // Índices de pedidos: preenchidos na ordem dos lotes de gerarPedidos, depois que as threads sorteiam os pedidos.
+    pedidosPorProduto = new IntMultimapaForaDoHeap(Math.max(1, quantosProdutos));
     
     
-    fornecedoresDoProduto = new TabelaHash<>((int)(quantosProdutos * 1.5));
+    fornecedoresDoProduto = new Multimapa<>(Math.max(1, quantosProdutos));
     
    
     System.out.println("Carregando fornecedores...");
     fornecedoresPorId = lerFornecedores("fornecedores.txt");
+    fornecedoresDoProduto.compactar();
     
 
 
+    pedidosPorId = new IntTabelaHash<>(25_000);
     gerarPedidos(25_000); 
    
     int opcao = -1;
@@ -501,14 +644,20 @@ static void pedidosDoProduto() {
     do {
         opcao = menu();
         switch (opcao) {
-            case 1 -> mostrarProduto(localizarProdutoID(produtosBalanceadosPorId));
+            case 1 -> mostrarProduto(localizarProdutoID(produtosPorId));
             case 2 -> pedidosDoProduto();
             case 3 -> relatorioDeFornecedor(); 
             case 4 -> relatorioFornecedoresDoProduto();
+            case 5 -> mostrarProduto(localizarProdutoNome(produtosPorNome));
+            case 6 -> gravarCatalogo();
+            case 7 -> recortarProdutosNome(produtosBalanceadosPorNome);
+            case 8 -> recortarProdutosId(produtosBalanceadosPorId);
+            case 9 -> totalizarFaixaDePreco();
         }
         if (opcao != 0) pausa();
     } while(opcao != 0);       
 
+    pedidosPorProduto.close();
     teclado.close();    
 }
 }
\ No newline at end of file
@@ -0,0 +1,716 @@
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Árvore B+ em memória. Cada nó guarda até (ordem - 1) chaves contíguas em um vetor, pesquisadas por busca binária:
+ * com ordem 64, uma pesquisa entre alguns milhares de chaves desce apenas 2 ou 3 níveis, contra cerca de 13 nós
+ * (e 13 prováveis faltas de cache) de uma árvore binária. Os itens ficam apenas nas folhas, que são ligadas em ordem
+ * crescente de chave: o caminhamento em ordem e os recortes percorrem as folhas sequencialmente, sem voltar aos nós internos.
+ * Todo nó, exceto a raiz, fica ao menos pela metade; inserções dividem nós cheios e remoções emprestam chaves
+ * de um irmão ou juntam dois irmãos, de modo que todas as folhas permanecem na mesma profundidade.
+ */
+public class ArvoreBMais<K, V> implements IMapeamento<K, V> {
+
+	/// Ordem padrão: quantidade máxima de filhos de um nó interno (e de chaves de uma folha, mais um).
+	public static final int ORDEM_PADRAO = 64;
+
+	private abstract static class NoB {
+
+		final Object[] chaves;  /// uma posição a mais do que o máximo permitido, usada antes da divisão do nó.
+		int quantidade;
+
+		NoB(int ordem) {
+			chaves = new Object[ordem];
+		}
+	}
+
+	private static final class Folha extends NoB {
+
+		final Object[] itens;
+		Folha proxima;  /// próxima folha, em ordem crescente de chave.
+
+		Folha(int ordem) {
+			super(ordem);
+			itens = new Object[ordem];
+		}
+	}
+
+	private static final class Interno extends NoB {
+
+		/// filhos[i] guarda as chaves menores do que chaves[i] e maiores ou iguais a chaves[i - 1].
+		final NoB[] filhos;
+
+		Interno(int ordem) {
+			super(ordem);
+			filhos = new NoB[ordem + 1];
+		}
+	}
+
+	private final int ordem;
+	private final int minimoFolha;    /// quantidade mínima de chaves de uma folha que não seja a raiz.
+	private final int minimoInterno;  /// quantidade mínima de chaves de um nó interno que não seja a raiz.
+	private NoB raiz;
+	private Folha primeira;           /// folha de menores chaves, início do encadeamento das folhas.
+	private int altura;               /// quantidade de níveis de nós internos (0 quando a raiz é uma folha).
+	private int tamanho;
+	private Comparator<K> comparador;
+	private long comparacoes;
+	private long inicio;
+	private long termino;
+
+	/**
+	 * Construtor da classe, com a ordem padrão e o comparador de ordem natural.
+	 */
+	@SuppressWarnings("unchecked")
+	public ArvoreBMais() {
+		this(ORDEM_PADRAO, (Comparator<K>) Comparator.naturalOrder());
+	}
+
+	/**
+	 * Construtor da classe, com a ordem padrão.
+	 * @param comparador o comparador a ser utilizado para organizar os elementos da árvore.
+	 */
+	public ArvoreBMais(Comparator<K> comparador) {
+		this(ORDEM_PADRAO, comparador);
+	}
+
+	/**
+	 * Construtor da classe.
+	 * @param ordem quantidade máxima de filhos de um nó interno. Uma folha guarda até (ordem - 1) itens.
+	 * @param comparador o comparador a ser utilizado para organizar os elementos da árvore.
+	 * @throws IllegalArgumentException caso a ordem seja menor do que 3.
+	 */
+	public ArvoreBMais(int ordem, Comparator<K> comparador) {
+
+		if (ordem < 3)
+			throw new IllegalArgumentException("A ordem da árvore B+ não pode ser menor do que 3.");
+
+		this.ordem = ordem;
+		this.minimoFolha = ordem / 2;
+		this.minimoInterno = (ordem + 1) / 2 - 1;
+		this.comparador = comparador;
+		montar(new Object[0], new Object[0], 0);
+	}
+
+	/**
+	 * Construtor da classe, com a ordem padrão.
+	 * Cria uma nova árvore B+ com os mesmos itens de uma árvore binária de busca, mas usando uma nova chave.
+	 * @see #ArvoreBMais(ABB, Function, Comparator, int)
+	 */
+	public ArvoreBMais(ABB<?, V> original, Function<V, K> funcaoChave, Comparator<K> comparador) {
+		this(original, funcaoChave, comparador, ORDEM_PADRAO);
+	}
+
+	/**
+	 * Construtor da classe.
+	 * Cria uma nova árvore B+ com os mesmos itens de uma árvore binária de busca, mas usando uma nova chave.
+	 * A árvore é montada de uma só vez, de baixo para cima, com as folhas e os nós internos completamente preenchidos
+	 * (as chaves são ordenadas antes, caso a nova chave não siga a ordem da árvore original).
+	 * @param original a árvore binária de busca original.
+	 * @param funcaoChave a função que irá extrair a nova chave de cada item para a nova árvore.
+	 * @param comparador o comparador a ser utilizado para organizar os elementos da nova árvore.
+	 * @param ordem quantidade máxima de filhos de um nó interno.
+	 * @throws IllegalArgumentException caso a ordem seja menor do que 3 ou dois itens tenham a mesma nova chave.
+	 */
+	public ArvoreBMais(ABB<?, V> original, Function<V, K> funcaoChave, Comparator<K> comparador, int ordem) {
+
+		this(ordem, comparador);
+
+		Object[] chaves = new Object[original.tamanho()];
+		Object[] itens = new Object[original.tamanho()];
+		int[] quantidade = { 0 };
+
+		original.paraCada(item -> {
+			chaves[quantidade[0]] = funcaoChave.apply(item);
+			itens[quantidade[0]++] = item;
+		});
+		ordenar(chaves, itens, quantidade[0]);
+		montar(chaves, itens, quantidade[0]);
+	}
+
+	/**
+	 * Ordena os pares (chave, item) pela chave, caso ainda não estejam em ordem, e rejeita chaves repetidas.
+	 */
+	@SuppressWarnings("unchecked")
+	private void ordenar(Object[] chaves, Object[] itens, int quantidade) {
+
+		boolean ordenado = true;
+		Integer[] posicoes;
+		Object[] chavesOrdenadas, itensOrdenados;
+
+		for (int i = 1; i < quantidade && ordenado; i++)
+			ordenado = comparador.compare((K) chaves[i - 1], (K) chaves[i]) < 0;
+		if (ordenado)
+			return;
+
+		posicoes = new Integer[quantidade];
+		for (int i = 0; i < quantidade; i++)
+			posicoes[i] = i;
+		Arrays.sort(posicoes, (p1, p2) -> comparador.compare((K) chaves[p1], (K) chaves[p2]));
+
+		chavesOrdenadas = new Object[quantidade];
+		itensOrdenados = new Object[quantidade];
+		for (int i = 0; i < quantidade; i++) {
+			chavesOrdenadas[i] = chaves[posicoes[i]];
+			itensOrdenados[i] = itens[posicoes[i]];
+			if (i > 0 && comparador.compare((K) chavesOrdenadas[i - 1], (K) chavesOrdenadas[i]) == 0)
+				throw new IllegalArgumentException("O item já foi inserido anteriormente na árvore.");
+		}
+		System.arraycopy(chavesOrdenadas, 0, chaves, 0, quantidade);
+		System.arraycopy(itensOrdenados, 0, itens, 0, quantidade);
+	}
+
+	/**
+	 * Monta a árvore, de baixo para cima, a partir de pares (chave, item) em ordem estritamente crescente de chave.
+	 * Cada nível é dividido no menor número possível de nós, com as chaves distribuídas igualmente entre eles:
+	 * assim, todo nó fica ao menos pela metade, como exigido.
+	 */
+	private void montar(Object[] chaves, Object[] itens, int quantidade) {
+
+		int quantosNos, quantosFilhos, posicao;
+		NoB[] nivel, nivelAcima;
+		Object[] menores, menoresAcima;  /// menor chave da sub-árvore de cada nó do nível.
+		Folha folha, anterior = null;
+		Interno interno;
+
+		quantosNos = Math.max(1, (quantidade + ordem - 2) / (ordem - 1));
+		nivel = new NoB[quantosNos];
+		menores = new Object[quantosNos];
+		posicao = 0;
+		for (int i = 0; i < quantosNos; i++) {
+			folha = new Folha(ordem);
+			folha.quantidade = quantidade / quantosNos + ((i < quantidade % quantosNos) ? 1 : 0);
+			System.arraycopy(chaves, posicao, folha.chaves, 0, folha.quantidade);
+			System.arraycopy(itens, posicao, folha.itens, 0, folha.quantidade);
+			menores[i] = folha.chaves[0];
+			posicao += folha.quantidade;
+			if (anterior != null)
+				anterior.proxima = folha;
+			anterior = folha;
+			nivel[i] = folha;
+		}
+		primeira = (Folha) nivel[0];
+		altura = 0;
+
+		while (nivel.length > 1) {
+			quantosNos = (nivel.length + ordem - 1) / ordem;
+			nivelAcima = new NoB[quantosNos];
+			menoresAcima = new Object[quantosNos];
+			posicao = 0;
+			for (int i = 0; i < quantosNos; i++) {
+				interno = new Interno(ordem);
+				quantosFilhos = nivel.length / quantosNos + ((i < nivel.length % quantosNos) ? 1 : 0);
+				for (int filho = 0; filho < quantosFilhos; filho++) {
+					interno.filhos[filho] = nivel[posicao + filho];
+					if (filho > 0)
+						interno.chaves[filho - 1] = menores[posicao + filho];
+				}
+				interno.quantidade = quantosFilhos - 1;
+				menoresAcima[i] = menores[posicao];
+				posicao += quantosFilhos;
+				nivelAcima[i] = interno;
+			}
+			nivel = nivelAcima;
+			menores = menoresAcima;
+			altura++;
+		}
+		raiz = nivel[0];
+		tamanho = quantidade;
+	}
+
+	/**
+	 * Busca binária, no nó interno, do filho em que a chave deve estar: o primeiro i tal que chave < chaves[i].
+	 */
+	@SuppressWarnings("unchecked")
+	private int posicaoFilho(Interno no, K chave) {
+
+		int inicioBusca = 0, fimBusca = no.quantidade, meio;
+
+		while (inicioBusca < fimBusca) {
+			meio = (inicioBusca + fimBusca) >>> 1;
+			comparacoes++;
+			if (comparador.compare(chave, (K) no.chaves[meio]) < 0)
+				fimBusca = meio;
+			else
+				inicioBusca = meio + 1;
+		}
+		return inicioBusca;
+	}
+
+	/**
+	 * Busca binária da chave na folha.
+	 * @return a posição da chave ou, caso ela não esteja na folha, o complemento (~) da posição em que deveria ser inserida.
+	 */
+	@SuppressWarnings("unchecked")
+	private int posicaoNaFolha(Folha folha, K chave) {
+
+		int inicioBusca = 0, fimBusca = folha.quantidade - 1, meio, comparacao;
+
+		while (inicioBusca <= fimBusca) {
+			meio = (inicioBusca + fimBusca) >>> 1;
+			comparacoes++;
+			comparacao = comparador.compare(chave, (K) folha.chaves[meio]);
+			if (comparacao == 0)
+				return meio;
+			else if (comparacao < 0)
+				fimBusca = meio - 1;
+			else
+				inicioBusca = meio + 1;
+		}
+		return ~inicioBusca;
+	}
+
+	/**
+	 * Desce da raiz até a folha em que a chave está (ou deveria estar). Se o caminho for informado,
+	 * registra nele cada nó interno visitado e a posição do filho pelo qual a descida continuou.
+	 */
+	private Folha descer(K chave, Interno[] caminho, int[] posicoes) {
+
+		NoB no = raiz;
+		Interno interno;
+		int posicao;
+
+		comparacoes = 0;
+		for (int nivel = 0; nivel < altura; nivel++) {
+			interno = (Interno) no;
+			posicao = posicaoFilho(interno, chave);
+			if (caminho != null) {
+				caminho[nivel] = interno;
+				posicoes[nivel] = posicao;
+			}
+			no = interno.filhos[posicao];
+		}
+		return (Folha) no;
+	}
+
+	@SuppressWarnings("unchecked")
+	private V localizar(K chave, V valorPadrao) {
+
+		Folha folha;
+		int posicao;
+
+		inicio = System.nanoTime();
+		folha = descer(chave, null, null);
+		posicao = posicaoNaFolha(folha, chave);
+		termino = System.nanoTime();
+		return (posicao >= 0) ? (V) folha.itens[posicao] : valorPadrao;
+	}
+
+	/**
+	 * Pesquisa o item associado à chave.
+	 * @throws NoSuchElementException se a chave não for localizada na árvore.
+	 */
+	@Override
+	public V pesquisar(K chave) {
+
+		V item = localizar(chave, null);
+
+		if (item == null)
+			throw new NoSuchElementException("O item não foi localizado na árvore!");
+		return item;
+	}
+
+	@Override
+	public V pesquisar(K chave, V valorPadrao) {
+		return localizar(chave, valorPadrao);
+	}
+
+	@Override
+	public boolean contem(K chave) {
+		return (localizar(chave, null) != null);
+	}
+
+	/**
+	 * Insere um novo item na árvore.
+	 * @return a quantidade de itens da árvore após a inserção.
+	 * @throws IllegalArgumentException caso a chave já esteja presente na árvore.
+	 */
+	@Override
+	public int inserir(K chave, V item) {
+
+		Interno[] caminho = new Interno[altura];
+		int[] posicoes = new int[altura];
+		Folha folha = descer(chave, caminho, posicoes);
+		int posicao = posicaoNaFolha(folha, chave);
+
+		if (posicao >= 0)
+			throw new IllegalArgumentException("O item já foi inserido anteriormente na árvore.");
+		inserirNaFolha(folha, ~posicao, chave, item, caminho, posicoes);
+		return tamanho;
+	}
+
+	/**
+	 * Remove da árvore o item associado à chave.
+	 * @return o item removido.
+	 * @throws NoSuchElementException se a chave não for localizada na árvore.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public V remover(K chave) {
+
+		Interno[] caminho = new Interno[altura];
+		int[] posicoes = new int[altura];
+		Folha folha = descer(chave, caminho, posicoes);
+		int posicao = posicaoNaFolha(folha, chave);
+		V item;
+
+		if (posicao < 0)
+			throw new NoSuchElementException("O item a ser removido não foi localizado na árvore!");
+		item = (V) folha.itens[posicao];
+		removerDaFolha(folha, posicao, caminho, posicoes);
+		return item;
+	}
+
+	/**
+	 * Calcula o item associado a uma chave, com uma única descida: o novo item é inserido, atualizado ou,
+	 * se a função retornar null, retirado na própria folha encontrada.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public V calcular(K chave, BiFunction<? super K, ? super V, ? extends V> funcaoRemapeamento) {
+
+		Interno[] caminho = new Interno[altura];
+		int[] posicoes = new int[altura];
+		Folha folha = descer(chave, caminho, posicoes);
+		int posicao = posicaoNaFolha(folha, chave);
+		V novoItem = funcaoRemapeamento.apply(chave, (posicao >= 0) ? (V) folha.itens[posicao] : null);
+
+		if (posicao < 0) {
+			if (novoItem != null)
+				inserirNaFolha(folha, ~posicao, chave, novoItem, caminho, posicoes);
+		} else if (novoItem == null)
+			removerDaFolha(folha, posicao, caminho, posicoes);
+		else
+			folha.itens[posicao] = novoItem;
+		return novoItem;
+	}
+
+	/**
+	 * Insere o par na posição informada da folha. Se a folha ficar com "ordem" chaves, ela é dividida ao meio
+	 * e a menor chave da nova folha sobe, como separadora, para o pai.
+	 */
+	private void inserirNaFolha(Folha folha, int posicao, K chave, V item, Interno[] caminho, int[] posicoes) {
+
+		Folha nova;
+		int metade;
+
+		System.arraycopy(folha.chaves, posicao, folha.chaves, posicao + 1, folha.quantidade - posicao);
+		System.arraycopy(folha.itens, posicao, folha.itens, posicao + 1, folha.quantidade - posicao);
+		folha.chaves[posicao] = chave;
+		folha.itens[posicao] = item;
+		folha.quantidade++;
+		tamanho++;
+		if (folha.quantidade < ordem)
+			return;
+
+		nova = new Folha(ordem);
+		metade = folha.quantidade / 2;
+		nova.quantidade = folha.quantidade - metade;
+		System.arraycopy(folha.chaves, metade, nova.chaves, 0, nova.quantidade);
+		System.arraycopy(folha.itens, metade, nova.itens, 0, nova.quantidade);
+		Arrays.fill(folha.chaves, metade, folha.quantidade, null);
+		Arrays.fill(folha.itens, metade, folha.quantidade, null);
+		folha.quantidade = metade;
+		nova.proxima = folha.proxima;
+		folha.proxima = nova;
+		subirDivisao(nova.chaves[0], nova, caminho, posicoes);
+	}
+
+	/**
+	 * Insere, subindo pelo caminho, a separadora e o novo nó resultantes de uma divisão. Cada pai que ficar cheio
+	 * também é dividido: sua chave do meio sobe para o nível de cima. Se a raiz for dividida, a árvore ganha um nível.
+	 */
+	private void subirDivisao(Object separadora, NoB novo, Interno[] caminho, int[] posicoes) {
+
+		Interno pai, irmao, novaRaiz;
+		int posicao, meio;
+
+		for (int nivel = altura - 1; nivel >= 0; nivel--) {
+			pai = caminho[nivel];
+			posicao = posicoes[nivel];
+			System.arraycopy(pai.chaves, posicao, pai.chaves, posicao + 1, pai.quantidade - posicao);
+			System.arraycopy(pai.filhos, posicao + 1, pai.filhos, posicao + 2, pai.quantidade - posicao);
+			pai.chaves[posicao] = separadora;
+			pai.filhos[posicao + 1] = novo;
+			pai.quantidade++;
+			if (pai.quantidade < ordem)
+				return;
+
+			meio = pai.quantidade / 2;
+			irmao = new Interno(ordem);
+			separadora = pai.chaves[meio];
+			irmao.quantidade = pai.quantidade - meio - 1;
+			System.arraycopy(pai.chaves, meio + 1, irmao.chaves, 0, irmao.quantidade);
+			System.arraycopy(pai.filhos, meio + 1, irmao.filhos, 0, irmao.quantidade + 1);
+			Arrays.fill(pai.chaves, meio, pai.quantidade, null);
+			Arrays.fill(pai.filhos, meio + 1, pai.quantidade + 1, null);
+			pai.quantidade = meio;
+			novo = irmao;
+		}
+
+		novaRaiz = new Interno(ordem);
+		novaRaiz.chaves[0] = separadora;
+		novaRaiz.filhos[0] = raiz;
+		novaRaiz.filhos[1] = novo;
+		novaRaiz.quantidade = 1;
+		raiz = novaRaiz;
+		altura++;
+	}
+
+	/**
+	 * Retira o par da posição informada da folha. Se a folha ficar com menos chaves do que o mínimo,
+	 * toma uma chave emprestada de um irmão ou, se nenhum deles puder emprestar, junta-se a um deles.
+	 */
+	private void removerDaFolha(Folha folha, int posicao, Interno[] caminho, int[] posicoes) {
+
+		Interno pai;
+		Folha esquerda, direita;
+		int posicaoPai;
+
+		System.arraycopy(folha.chaves, posicao + 1, folha.chaves, posicao, folha.quantidade - posicao - 1);
+		System.arraycopy(folha.itens, posicao + 1, folha.itens, posicao, folha.quantidade - posicao - 1);
+		folha.quantidade--;
+		folha.chaves[folha.quantidade] = null;
+		folha.itens[folha.quantidade] = null;
+		tamanho--;
+		if (altura == 0 || folha.quantidade >= minimoFolha)
+			return;
+
+		pai = caminho[altura - 1];
+		posicaoPai = posicoes[altura - 1];
+		esquerda = (posicaoPai > 0) ? (Folha) pai.filhos[posicaoPai - 1] : null;
+		direita = (posicaoPai < pai.quantidade) ? (Folha) pai.filhos[posicaoPai + 1] : null;
+
+		if (esquerda != null && esquerda.quantidade > minimoFolha) {
+			/// A maior chave do irmão esquerdo passa a ser a menor desta folha.
+			System.arraycopy(folha.chaves, 0, folha.chaves, 1, folha.quantidade);
+			System.arraycopy(folha.itens, 0, folha.itens, 1, folha.quantidade);
+			esquerda.quantidade--;
+			folha.chaves[0] = esquerda.chaves[esquerda.quantidade];
+			folha.itens[0] = esquerda.itens[esquerda.quantidade];
+			esquerda.chaves[esquerda.quantidade] = null;
+			esquerda.itens[esquerda.quantidade] = null;
+			folha.quantidade++;
+			pai.chaves[posicaoPai - 1] = folha.chaves[0];
+		} else if (direita != null && direita.quantidade > minimoFolha) {
+			/// A menor chave do irmão direito passa a ser a maior desta folha.
+			folha.chaves[folha.quantidade] = direita.chaves[0];
+			folha.itens[folha.quantidade] = direita.itens[0];
+			folha.quantidade++;
+			direita.quantidade--;
+			System.arraycopy(direita.chaves, 1, direita.chaves, 0, direita.quantidade);
+			System.arraycopy(direita.itens, 1, direita.itens, 0, direita.quantidade);
+			direita.chaves[direita.quantidade] = null;
+			direita.itens[direita.quantidade] = null;
+			pai.chaves[posicaoPai] = direita.chaves[0];
+		} else {
+			/// A folha da direita é sempre absorvida pela da esquerda, de modo que a primeira folha nunca é descartada.
+			if (esquerda != null)
+				juntarFolhas(esquerda, folha, pai, posicaoPai - 1);
+			else
+				juntarFolhas(folha, direita, pai, posicaoPai);
+			corrigirInternos(caminho, posicoes);
+		}
+	}
+
+	private void juntarFolhas(Folha esquerda, Folha direita, Interno pai, int posicaoSeparadora) {
+
+		System.arraycopy(direita.chaves, 0, esquerda.chaves, esquerda.quantidade, direita.quantidade);
+		System.arraycopy(direita.itens, 0, esquerda.itens, esquerda.quantidade, direita.quantidade);
+		esquerda.quantidade += direita.quantidade;
+		esquerda.proxima = direita.proxima;
+		retirarSeparadora(pai, posicaoSeparadora);
+	}
+
+	/// Retira do nó interno a separadora da posição informada e o filho à sua direita.
+	private void retirarSeparadora(Interno no, int posicao) {
+
+		System.arraycopy(no.chaves, posicao + 1, no.chaves, posicao, no.quantidade - posicao - 1);
+		System.arraycopy(no.filhos, posicao + 2, no.filhos, posicao + 1, no.quantidade - posicao - 1);
+		no.quantidade--;
+		no.chaves[no.quantidade] = null;
+		no.filhos[no.quantidade + 1] = null;
+	}
+
+	/**
+	 * Sobe pelo caminho corrigindo os nós internos que perderam uma separadora: cada nó abaixo do mínimo toma uma
+	 * separadora emprestada de um irmão (por meio do pai) ou junta-se a um deles. Uma raiz sem separadoras é descartada,
+	 * e a árvore perde um nível.
+	 */
+	private void corrigirInternos(Interno[] caminho, int[] posicoes) {
+
+		Interno no, pai, esquerda, direita;
+		int posicaoPai;
+
+		for (int nivel = altura - 1; nivel >= 0; nivel--) {
+			no = caminho[nivel];
+			if (nivel == 0) {
+				if (no.quantidade == 0) {
+					raiz = no.filhos[0];
+					altura--;
+				}
+				return;
+			}
+			if (no.quantidade >= minimoInterno)
+				return;
+
+			pai = caminho[nivel - 1];
+			posicaoPai = posicoes[nivel - 1];
+			esquerda = (posicaoPai > 0) ? (Interno) pai.filhos[posicaoPai - 1] : null;
+			direita = (posicaoPai < pai.quantidade) ? (Interno) pai.filhos[posicaoPai + 1] : null;
+
+			if (esquerda != null && esquerda.quantidade > minimoInterno) {
+				/// Rotação pela direita: a separadora do pai desce para este nó e a maior chave do irmão sobe para o pai.
+				System.arraycopy(no.chaves, 0, no.chaves, 1, no.quantidade);
+				System.arraycopy(no.filhos, 0, no.filhos, 1, no.quantidade + 1);
+				no.chaves[0] = pai.chaves[posicaoPai - 1];
+				no.filhos[0] = esquerda.filhos[esquerda.quantidade];
+				no.quantidade++;
+				pai.chaves[posicaoPai - 1] = esquerda.chaves[esquerda.quantidade - 1];
+				esquerda.chaves[esquerda.quantidade - 1] = null;
+				esquerda.filhos[esquerda.quantidade] = null;
+				esquerda.quantidade--;
+				return;
+			}
+			if (direita != null && direita.quantidade > minimoInterno) {
+				/// Rotação pela esquerda: a separadora do pai desce para este nó e a menor chave do irmão sobe para o pai.
+				no.chaves[no.quantidade] = pai.chaves[posicaoPai];
+				no.filhos[no.quantidade + 1] = direita.filhos[0];
+				no.quantidade++;
+				pai.chaves[posicaoPai] = direita.chaves[0];
+				System.arraycopy(direita.chaves, 1, direita.chaves, 0, direita.quantidade - 1);
+				System.arraycopy(direita.filhos, 1, direita.filhos, 0, direita.quantidade);
+				direita.chaves[direita.quantidade - 1] = null;
+				direita.filhos[direita.quantidade] = null;
+				direita.quantidade--;
+				return;
+			}
+			if (esquerda != null)
+				juntarInternos(esquerda, no, pai, posicaoPai - 1);
+			else
+				juntarInternos(no, direita, pai, posicaoPai);
+		}
+	}
+
+	/// Junta dois nós internos irmãos, com a separadora do pai entre eles, no nó da esquerda.
+	private void juntarInternos(Interno esquerda, Interno direita, Interno pai, int posicaoSeparadora) {
+
+		esquerda.chaves[esquerda.quantidade] = pai.chaves[posicaoSeparadora];
+		System.arraycopy(direita.chaves, 0, esquerda.chaves, esquerda.quantidade + 1, direita.quantidade);
+		System.arraycopy(direita.filhos, 0, esquerda.filhos, esquerda.quantidade + 1, direita.quantidade + 1);
+		esquerda.quantidade += direita.quantidade + 1;
+		retirarSeparadora(pai, posicaoSeparadora);
+	}
+
+	/**
+	 * Recorta a árvore: retorna, em ordem crescente de chave, os itens cujas chaves estão no intervalo fechado
+	 * [chaveDeOnde, chaveAteOnde]. Desce uma única vez, até a folha da chave inicial, e segue pelas folhas encadeadas.
+	 * @return uma lista com os itens do intervalo (vazia, caso nenhum item esteja nele).
+	 * @throws IllegalArgumentException caso a chave inicial seja maior do que a chave final.
+	 */
+	@SuppressWarnings("unchecked")
+	public Lista<V> recortar(K chaveDeOnde, K chaveAteOnde) {
+
+		Lista<V> recorte = new Lista<>();
+		Folha folha;
+		int posicao;
+
+		if (comparador.compare(chaveDeOnde, chaveAteOnde) > 0)
+			throw new IllegalArgumentException("O início do intervalo não pode ser maior do que o seu fim.");
+
+		inicio = System.nanoTime();
+		folha = descer(chaveDeOnde, null, null);
+		posicao = posicaoNaFolha(folha, chaveDeOnde);
+		posicao = (posicao >= 0) ? posicao : ~posicao;
+		while (folha != null) {
+			for (; posicao < folha.quantidade; posicao++) {
+				comparacoes++;
+				if (comparador.compare((K) folha.chaves[posicao], chaveAteOnde) > 0) {
+					termino = System.nanoTime();
+					return recorte;
+				}
+				recorte.inserirFinal((V) folha.itens[posicao]);
+			}
+			folha = folha.proxima;
+			posicao = 0;
+		}
+		termino = System.nanoTime();
+		return recorte;
+	}
+
+	/**
+	 * Executa a ação informada para cada par chave/item da árvore, em ordem crescente de chave, percorrendo as folhas encadeadas.
+	 */
+	@SuppressWarnings("unchecked")
+	public void paraCadaPar(BiConsumer<? super K, ? super V> acao) {
+
+		for (Folha folha = primeira; folha != null; folha = folha.proxima) {
+			for (int i = 0; i < folha.quantidade; i++)
+				acao.accept((K) folha.chaves[i], (V) folha.itens[i]);
+		}
+	}
+
+	/**
+	 * Executa a ação informada para cada item da árvore, em ordem crescente de chave.
+	 */
+	public void paraCada(Consumer<? super V> acao) {
+		paraCadaPar((chave, item) -> acao.accept(item));
+	}
+
+	/**
+	 * Escreve os itens da árvore no destino, um por linha, em ordem crescente de chave.
+	 * @throws IllegalStateException caso a árvore esteja vazia.
+	 */
+	@Override
+	public void percorrer(Appendable destino) throws IOException {
+
+		if (vazia())
+			throw new IllegalStateException("A árvore está vazia!");
+
+		for (Folha folha = primeira; folha != null; folha = folha.proxima) {
+			for (int i = 0; i < folha.quantidade; i++)
+				destino.append(String.valueOf(folha.itens[i])).append('\n');
+		}
+	}
+
+	@Override
+	public String toString() {
+		return percorrer();
+	}
+
+	public Boolean vazia() {
+		return (tamanho == 0);
+	}
+
+	/**
+	 * Retorna a quantidade de níveis da árvore, contando o nível das folhas.
+	 */
+	public int getAltura() {
+		return altura + 1;
+	}
+
+	public int getOrdem() {
+		return ordem;
+	}
+
+	@Override
+	public int tamanho() {
+		return tamanho;
+	}
+
+	@Override
+	public long getComparacoes() {
+		return comparacoes;
+	}
+
+	@Override
+	public double getTempo() {
+		return (termino - inicio) / 1_000_000;
+	}
+}
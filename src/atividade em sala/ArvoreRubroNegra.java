@@ -0,0 +1,540 @@
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Árvore rubro-negra (conforme Cormen et al., "Algoritmos"), com a mesma interface de uso da {@link ABB}.
+ * Cada nó é vermelho ou preto; a raiz e as folhas (a sentinela) são pretas, um nó vermelho não tem filho vermelho
+ * e todos os caminhos de um nó até as folhas têm a mesma quantidade de nós pretos. Assim, a altura é no máximo 2 log(n + 1).
+ * Diferentemente da AVL, que recalcula a altura de cada ancestral e pode rotacionar O(log n) vezes em uma remoção,
+ * a árvore rubro-negra faz no máximo 2 rotações por inserção e 3 por remoção; o restante dos ajustes são recolorações.
+ * Cada nó guarda uma referência ao pai, de modo que inserção, remoção e caminhamento são feitos sem recursão e sem pilha.
+ */
+public class ArvoreRubroNegra<K, V> implements IMapeamento<K, V> {
+
+	private static final boolean VERMELHO = true;
+	private static final boolean PRETO = false;
+
+	private static final class NoRubroNegro<K, V> {
+
+		private final K chave;
+		private V item;
+		private NoRubroNegro<K, V> esquerda;
+		private NoRubroNegro<K, V> direita;
+		private NoRubroNegro<K, V> pai;
+		private boolean cor;
+
+		NoRubroNegro(K chave, V item) {
+			this.chave = chave;
+			this.item = item;
+			this.cor = PRETO;
+		}
+	}
+
+	/// Sentinela que representa todas as folhas e o pai da raiz. É sempre preta; seu pai é usado temporariamente na remoção.
+	private final NoRubroNegro<K, V> nulo = new NoRubroNegro<>(null, null);
+	private NoRubroNegro<K, V> raiz;
+	private Comparator<K> comparador;
+	private int tamanho;
+	private long rotacoes;  /// quantidade total de rotações realizadas desde a criação da árvore.
+	private long comparacoes;
+	private long inicio;
+	private long termino;
+
+	private void init(Comparator<K> comparador) {
+		raiz = nulo;
+		tamanho = 0;
+		rotacoes = 0;
+		this.comparador = comparador;
+	}
+
+	/**
+	 * Construtor da classe.
+	 * O comparador padrão de ordem natural será utilizado.
+	 */
+	@SuppressWarnings("unchecked")
+	public ArvoreRubroNegra() {
+		init((Comparator<K>) Comparator.naturalOrder());
+	}
+
+	/**
+	 * Construtor da classe.
+	 * @param comparador o comparador a ser utilizado para organizar os elementos da árvore.
+	 */
+	public ArvoreRubroNegra(Comparator<K> comparador) {
+		init(comparador);
+	}
+
+	/**
+	 * Construtor da classe.
+	 * Cria uma nova árvore rubro-negra com os mesmos itens de uma árvore binária de busca, mas usando uma nova chave.
+	 * @param original a árvore binária de busca original.
+	 * @param funcaoChave a função que irá extrair a nova chave de cada item para a nova árvore.
+	 * @param comparador o comparador a ser utilizado para organizar os elementos da nova árvore.
+	 * @throws IllegalArgumentException caso dois itens tenham a mesma nova chave.
+	 */
+	public ArvoreRubroNegra(ABB<?, V> original, Function<V, K> funcaoChave, Comparator<K> comparador) {
+		init(comparador);
+		original.paraCada(item -> inserir(funcaoChave.apply(item), item));
+	}
+
+	/**
+	 * Construtor da classe.
+	 * Cria uma nova árvore rubro-negra com os mesmos itens de outra árvore rubro-negra, mas usando uma nova chave.
+	 * @param original a árvore rubro-negra original.
+	 * @param funcaoChave a função que irá extrair a nova chave de cada item para a nova árvore.
+	 * @param comparador o comparador a ser utilizado para organizar os elementos da nova árvore.
+	 * @throws IllegalArgumentException caso dois itens tenham a mesma nova chave.
+	 */
+	public ArvoreRubroNegra(ArvoreRubroNegra<?, V> original, Function<V, K> funcaoChave, Comparator<K> comparador) {
+		init(comparador);
+		original.paraCada(item -> inserir(funcaoChave.apply(item), item));
+	}
+
+	/**
+	 * Indica se a árvore está vazia.
+	 */
+	public Boolean vazia() {
+		return (raiz == nulo);
+	}
+
+	/**
+	 * Localiza o nó que armazena a chave, contabilizando as comparações realizadas.
+	 * @return o nó que armazena a chave, ou null caso ela não esteja presente na árvore.
+	 */
+	private NoRubroNegro<K, V> descer(K chave) {
+
+		NoRubroNegro<K, V> no = raiz;
+		int comparacao;
+
+		comparacoes = 0;
+		while (no != nulo) {
+			comparacoes++;
+			comparacao = comparador.compare(chave, no.chave);
+			if (comparacao == 0)
+				return no;
+			no = (comparacao < 0) ? no.esquerda : no.direita;
+		}
+		return null;
+	}
+
+	private NoRubroNegro<K, V> localizar(K chave) {
+
+		NoRubroNegro<K, V> procurado;
+
+		inicio = System.nanoTime();
+		procurado = descer(chave);
+		termino = System.nanoTime();
+		return procurado;
+	}
+
+	/**
+	 * Pesquisa o item associado à chave.
+	 * @throws NoSuchElementException se a chave não for localizada na árvore.
+	 */
+	@Override
+	public V pesquisar(K chave) {
+
+		NoRubroNegro<K, V> procurado = localizar(chave);
+
+		if (procurado == null)
+			throw new NoSuchElementException("O item não foi localizado na árvore!");
+		return procurado.item;
+	}
+
+	@Override
+	public V pesquisar(K chave, V valorPadrao) {
+
+		NoRubroNegro<K, V> procurado = localizar(chave);
+
+		return (procurado != null) ? procurado.item : valorPadrao;
+	}
+
+	@Override
+	public boolean contem(K chave) {
+		return (localizar(chave) != null);
+	}
+
+	/**
+	 * Insere um novo item na árvore.
+	 * @return a quantidade de itens da árvore após a inserção.
+	 * @throws IllegalArgumentException caso a chave já esteja presente na árvore.
+	 */
+	@Override
+	public int inserir(K chave, V item) {
+
+		NoRubroNegro<K, V> pai = nulo;
+		NoRubroNegro<K, V> no = raiz;
+		int comparacao = 0;
+
+		while (no != nulo) {
+			pai = no;
+			comparacao = comparador.compare(chave, no.chave);
+			if (comparacao == 0)
+				throw new IllegalArgumentException("O item já foi inserido anteriormente na árvore.");
+			no = (comparacao < 0) ? no.esquerda : no.direita;
+		}
+		inserirNo(pai, comparacao, chave, item);
+		return tamanho;
+	}
+
+	/**
+	 * Liga um novo nó vermelho como filho do pai informado (à esquerda, se a comparação for negativa) e restaura as propriedades.
+	 */
+	private void inserirNo(NoRubroNegro<K, V> pai, int comparacao, K chave, V item) {
+
+		NoRubroNegro<K, V> novo = new NoRubroNegro<>(chave, item);
+
+		novo.esquerda = nulo;
+		novo.direita = nulo;
+		novo.pai = pai;
+		novo.cor = VERMELHO;
+		if (pai == nulo)
+			raiz = novo;
+		else if (comparacao < 0)
+			pai.esquerda = novo;
+		else
+			pai.direita = novo;
+		tamanho++;
+		corrigirInsercao(novo);
+	}
+
+	/**
+	 * Restaura as propriedades após a inserção de um nó vermelho, que pode ter um pai também vermelho.
+	 * Enquanto o tio for vermelho, apenas recolore e sobe dois níveis; quando for preto, uma ou duas rotações encerram a correção.
+	 */
+	private void corrigirInsercao(NoRubroNegro<K, V> no) {
+
+		NoRubroNegro<K, V> tio;
+
+		while (no.pai.cor == VERMELHO) {
+			if (no.pai == no.pai.pai.esquerda) {
+				tio = no.pai.pai.direita;
+				if (tio.cor == VERMELHO) {
+					no.pai.cor = PRETO;
+					tio.cor = PRETO;
+					no.pai.pai.cor = VERMELHO;
+					no = no.pai.pai;
+				} else {
+					if (no == no.pai.direita) {
+						no = no.pai;
+						rotacionarEsquerda(no);
+					}
+					no.pai.cor = PRETO;
+					no.pai.pai.cor = VERMELHO;
+					rotacionarDireita(no.pai.pai);
+				}
+			} else {
+				tio = no.pai.pai.esquerda;
+				if (tio.cor == VERMELHO) {
+					no.pai.cor = PRETO;
+					tio.cor = PRETO;
+					no.pai.pai.cor = VERMELHO;
+					no = no.pai.pai;
+				} else {
+					if (no == no.pai.esquerda) {
+						no = no.pai;
+						rotacionarDireita(no);
+					}
+					no.pai.cor = PRETO;
+					no.pai.pai.cor = VERMELHO;
+					rotacionarEsquerda(no.pai.pai);
+				}
+			}
+		}
+		raiz.cor = PRETO;
+	}
+
+	/**
+	 * Remove da árvore o item associado à chave.
+	 * @return o item removido.
+	 * @throws NoSuchElementException se a chave não for localizada na árvore.
+	 */
+	@Override
+	public V remover(K chave) {
+
+		NoRubroNegro<K, V> retirado = descer(chave);
+
+		if (retirado == null)
+			throw new NoSuchElementException("O item a ser removido não foi localizado na árvore!");
+		excluir(retirado);
+		return retirado.item;
+	}
+
+	/**
+	 * Desliga o nó da árvore. Se ele tiver dois filhos, seu sucessor ocupa o seu lugar (e a sua cor).
+	 * Se o nó efetivamente retirado da sua posição era preto, um caminho ficou com um nó preto a menos e é corrigido.
+	 */
+	private void excluir(NoRubroNegro<K, V> no) {
+
+		NoRubroNegro<K, V> substituto = no;
+		NoRubroNegro<K, V> filho;
+		boolean corRetirada = substituto.cor;
+
+		if (no.esquerda == nulo) {
+			filho = no.direita;
+			transplantar(no, no.direita);
+		} else if (no.direita == nulo) {
+			filho = no.esquerda;
+			transplantar(no, no.esquerda);
+		} else {
+			substituto = minimo(no.direita);
+			corRetirada = substituto.cor;
+			filho = substituto.direita;
+			if (substituto.pai == no)
+				filho.pai = substituto; /// necessário quando o filho é a sentinela.
+			else {
+				transplantar(substituto, substituto.direita);
+				substituto.direita = no.direita;
+				substituto.direita.pai = substituto;
+			}
+			transplantar(no, substituto);
+			substituto.esquerda = no.esquerda;
+			substituto.esquerda.pai = substituto;
+			substituto.cor = no.cor;
+		}
+		tamanho--;
+		if (corRetirada == PRETO)
+			corrigirRemocao(filho);
+	}
+
+	/**
+	 * Substitui, na posição ocupada pelo nó "antigo", a sub-árvore dele pela sub-árvore enraizada em "novo".
+	 */
+	private void transplantar(NoRubroNegro<K, V> antigo, NoRubroNegro<K, V> novo) {
+
+		if (antigo.pai == nulo)
+			raiz = novo;
+		else if (antigo == antigo.pai.esquerda)
+			antigo.pai.esquerda = novo;
+		else
+			antigo.pai.direita = novo;
+		novo.pai = antigo.pai;
+	}
+
+	/**
+	 * Restaura as propriedades após a retirada de um nó preto: o nó informado carrega um preto "extra".
+	 * Enquanto o irmão e seus filhos forem pretos, apenas recolore e sobe; nos demais casos, no máximo três rotações
+	 * encerram a correção.
+	 */
+	private void corrigirRemocao(NoRubroNegro<K, V> no) {
+
+		NoRubroNegro<K, V> irmao;
+
+		while (no != raiz && no.cor == PRETO) {
+			if (no == no.pai.esquerda) {
+				irmao = no.pai.direita;
+				if (irmao.cor == VERMELHO) {
+					irmao.cor = PRETO;
+					no.pai.cor = VERMELHO;
+					rotacionarEsquerda(no.pai);
+					irmao = no.pai.direita;
+				}
+				if (irmao.esquerda.cor == PRETO && irmao.direita.cor == PRETO) {
+					irmao.cor = VERMELHO;
+					no = no.pai;
+				} else {
+					if (irmao.direita.cor == PRETO) {
+						irmao.esquerda.cor = PRETO;
+						irmao.cor = VERMELHO;
+						rotacionarDireita(irmao);
+						irmao = no.pai.direita;
+					}
+					irmao.cor = no.pai.cor;
+					no.pai.cor = PRETO;
+					irmao.direita.cor = PRETO;
+					rotacionarEsquerda(no.pai);
+					no = raiz;
+				}
+			} else {
+				irmao = no.pai.esquerda;
+				if (irmao.cor == VERMELHO) {
+					irmao.cor = PRETO;
+					no.pai.cor = VERMELHO;
+					rotacionarDireita(no.pai);
+					irmao = no.pai.esquerda;
+				}
+				if (irmao.direita.cor == PRETO && irmao.esquerda.cor == PRETO) {
+					irmao.cor = VERMELHO;
+					no = no.pai;
+				} else {
+					if (irmao.esquerda.cor == PRETO) {
+						irmao.direita.cor = PRETO;
+						irmao.cor = VERMELHO;
+						rotacionarEsquerda(irmao);
+						irmao = no.pai.esquerda;
+					}
+					irmao.cor = no.pai.cor;
+					no.pai.cor = PRETO;
+					irmao.esquerda.cor = PRETO;
+					rotacionarDireita(no.pai);
+					no = raiz;
+				}
+			}
+		}
+		no.cor = PRETO;
+	}
+
+	private void rotacionarEsquerda(NoRubroNegro<K, V> p) {
+
+		NoRubroNegro<K, V> z = p.direita;
+
+		p.direita = z.esquerda;
+		if (z.esquerda != nulo)
+			z.esquerda.pai = p;
+		z.pai = p.pai;
+		if (p.pai == nulo)
+			raiz = z;
+		else if (p == p.pai.esquerda)
+			p.pai.esquerda = z;
+		else
+			p.pai.direita = z;
+		z.esquerda = p;
+		p.pai = z;
+		rotacoes++;
+	}
+
+	private void rotacionarDireita(NoRubroNegro<K, V> p) {
+
+		NoRubroNegro<K, V> u = p.esquerda;
+
+		p.esquerda = u.direita;
+		if (u.direita != nulo)
+			u.direita.pai = p;
+		u.pai = p.pai;
+		if (p.pai == nulo)
+			raiz = u;
+		else if (p == p.pai.direita)
+			p.pai.direita = u;
+		else
+			p.pai.esquerda = u;
+		u.direita = p;
+		p.pai = u;
+		rotacoes++;
+	}
+
+	/**
+	 * Calcula o item associado a uma chave, com uma única descida: o novo item é inserido, atualizado ou,
+	 * se a função retornar null, retirado a partir do próprio nó encontrado.
+	 */
+	@Override
+	public V calcular(K chave, BiFunction<? super K, ? super V, ? extends V> funcaoRemapeamento) {
+
+		NoRubroNegro<K, V> pai = nulo;
+		NoRubroNegro<K, V> no = raiz;
+		int comparacao = 0;
+		V novoItem;
+
+		while (no != nulo) {
+			comparacao = comparador.compare(chave, no.chave);
+			if (comparacao == 0)
+				break;
+			pai = no;
+			no = (comparacao < 0) ? no.esquerda : no.direita;
+		}
+
+		novoItem = funcaoRemapeamento.apply(chave, (no != nulo) ? no.item : null);
+		if (no == nulo) {
+			if (novoItem != null)
+				inserirNo(pai, comparacao, chave, novoItem);
+		} else if (novoItem == null)
+			excluir(no);
+		else
+			no.item = novoItem;
+		return novoItem;
+	}
+
+	private NoRubroNegro<K, V> minimo(NoRubroNegro<K, V> no) {
+
+		while (no.esquerda != nulo)
+			no = no.esquerda;
+		return no;
+	}
+
+	/// Nó seguinte na ordem das chaves, obtido pelas referências aos pais; a sentinela indica o fim.
+	private NoRubroNegro<K, V> sucessor(NoRubroNegro<K, V> no) {
+
+		NoRubroNegro<K, V> pai;
+
+		if (no.direita != nulo)
+			return minimo(no.direita);
+		pai = no.pai;
+		while (pai != nulo && no == pai.direita) {
+			no = pai;
+			pai = pai.pai;
+		}
+		return pai;
+	}
+
+	/**
+	 * Executa a ação informada para cada par chave/item da árvore, em ordem crescente de chave.
+	 */
+	public void paraCadaPar(BiConsumer<? super K, ? super V> acao) {
+
+		NoRubroNegro<K, V> no;
+
+		if (vazia())
+			return;
+		for (no = minimo(raiz); no != nulo; no = sucessor(no))
+			acao.accept(no.chave, no.item);
+	}
+
+	/**
+	 * Executa a ação informada para cada item da árvore, em ordem crescente de chave.
+	 */
+	public void paraCada(Consumer<? super V> acao) {
+		paraCadaPar((chave, item) -> acao.accept(item));
+	}
+
+	/**
+	 * Escreve os itens da árvore no destino, um por linha, em ordem crescente de chave.
+	 * @throws IllegalStateException caso a árvore esteja vazia.
+	 */
+	@Override
+	public void percorrer(Appendable destino) throws IOException {
+		caminhamentoEmOrdem(destino);
+	}
+
+	public String caminhamentoEmOrdem() {
+		return percorrer();
+	}
+
+	/**
+	 * Escreve os itens da árvore no destino, um por linha, em ordem crescente de chave.
+	 * @throws IllegalStateException caso a árvore esteja vazia.
+	 */
+	public void caminhamentoEmOrdem(Appendable destino) throws IOException {
+
+		if (vazia())
+			throw new IllegalStateException("A árvore está vazia!");
+
+		for (NoRubroNegro<K, V> no = minimo(raiz); no != nulo; no = sucessor(no))
+			destino.append(String.valueOf(no.item)).append('\n');
+	}
+
+	/**
+	 * Retorna a quantidade total de rotações realizadas pela árvore desde a sua criação.
+	 */
+	public long getRotacoes() {
+		return rotacoes;
+	}
+
+	@Override
+	public int tamanho() {
+		return tamanho;
+	}
+
+	@Override
+	public long getComparacoes() {
+		return comparacoes;
+	}
+
+	@Override
+	public double getTempo() {
+		return (termino - inicio) / 1_000_000;
+	}
+}
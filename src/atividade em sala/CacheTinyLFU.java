@@ -0,0 +1,487 @@
+import java.io.IOException;
+import java.util.NoSuchElementException;
+import java.util.function.BiFunction;
+
+/**
+ * Cache de tamanho limitado posicionado à frente de um mapeamento qualquer, com a política W-TinyLFU.
+ * As entradas pesquisadas com sucesso entram em uma pequena janela LRU (1% da capacidade). Quando a janela transborda,
+ * sua entrada menos recente disputa uma vaga na área principal, uma LRU segmentada (SLRU) dividida em um segmento
+ * provisório e um segmento protegido (80% da área principal): a candidata só é admitida se a frequência estimada de
+ * suas chaves for maior do que a da vítima (a entrada menos recente do segmento provisório). Um acerto no segmento
+ * provisório promove a entrada para o protegido.
+ * As frequências são estimadas por um esboço Count-Min com contadores de 4 bits, que são reduzidos à metade
+ * a cada AMOSTRAS_POR_ENTRADA * capacidade pesquisas, para que chaves antes populares possam ser esquecidas.
+ * As alterações são repassadas ao mapeamento (escrita direta) e atualizam ou descartam a entrada no cache.
+ * As entradas são localizadas por um índice próprio, com encadeamento pelos próprios nós, endereçado pelo mesmo código hash
+ * misturado que atualiza o esboço: um acerto calcula o hash da chave uma única vez e não cria nenhum objeto.
+ * Os métodos são sincronizados, de modo que o cache pode ser compartilhado por várias threads.
+ */
+public class CacheTinyLFU<K, V> implements IMapeamento<K, V> {
+
+	private static final int AMOSTRAS_POR_ENTRADA = 10;
+	private static final int CONTADOR_MAXIMO = 15;
+	private static final long METADE_CONTADORES = 0x7777_7777_7777_7777L; /// descarta o bit que desce para o contador vizinho.
+	private static final long[] SEMENTES = { 0xC3A5C85C97CB3127L, 0xB492B66FBE98F273L, 0x9AE16A3B2F90404FL, 0xCBF29CE484222325L };
+
+	private static final int JANELA = 0;
+	private static final int PROVISORIA = 1;
+	private static final int PROTEGIDA = 2;
+
+	/**
+	 * Entrada do cache: nó das listas duplamente encadeadas e circulares de cada região, ordenadas da menos
+	 * para a mais recentemente usada, e da lista simplesmente encadeada de sua posição no índice.
+	 */
+	private static class NoCache<K, V> {
+
+		private final K chave;
+		private final long hash; /// código hash misturado da chave, reaproveitado pelo esboço na disputa por uma vaga.
+		private V valor;
+		private int regiao;
+		private NoCache<K, V> anterior;
+		private NoCache<K, V> proximo;
+		private NoCache<K, V> seguinteNoIndice;
+
+		NoCache(K chave, long hash, V valor) {
+			this.chave = chave;
+			this.hash = hash;
+			this.valor = valor;
+			this.anterior = this;
+			this.proximo = this;
+		}
+	}
+
+	private final IMapeamento<K, V> mapeamento; /// mapeamento protegido pelo cache.
+	private final NoCache<K, V>[] indice; /// índice de tamanho fixo: o cache nunca passa de capacidade + 1 entradas.
+	private final int mascaraIndice;
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private final NoCache<K, V>[] regioes = new NoCache[3]; /// sentinelas das listas de cada região.
+	private final int[] tamanhos = new int[3];
+	private final int capacidadeJanela;
+	private final int capacidadePrincipal;
+	private final int capacidadeProtegida;
+
+	private final long[] esboco;    /// esboço Count-Min: 16 contadores de 4 bits por posição.
+	private final int mascaraContadores;
+	private int amostras;
+	private final int limiteAmostras;
+
+	private long acertos;
+	private long faltas;
+	private long expulsoes;
+	private long comparacoesMapeamento; /// comparações feitas pelo mapeamento nas pesquisas que o cache não atendeu.
+
+	private long comparacoesIndice; /// entradas do índice comparadas na última busca.
+	private long comparacoes;
+	private long inicio;
+	private long termino;
+
+	/**
+	 * Construtor da classe.
+	 * @param mapeamento: mapeamento a ser protegido pelo cache.
+	 * @param capacidade: quantidade máxima de entradas mantidas no cache.
+	 * @throws IllegalArgumentException caso a capacidade seja menor do que 2.
+	 */
+	public CacheTinyLFU(IMapeamento<K, V> mapeamento, int capacidade) {
+
+		if (capacidade < 2)
+			throw new IllegalArgumentException("A capacidade do cache não pode ser menor do que 2.");
+
+		int quantidadeContadores = 16;
+		int posicoesIndice = 2;
+
+		this.mapeamento = mapeamento;
+		while (posicoesIndice < 2L * capacidade && posicoesIndice < (1 << 30))
+			posicoesIndice <<= 1;
+		this.indice = criarIndice(posicoesIndice);
+		this.mascaraIndice = posicoesIndice - 1;
+		for (int i = 0; i < regioes.length; i++) {
+			regioes[i] = new NoCache<>(null, 0, null);
+			tamanhos[i] = 0;
+		}
+		this.capacidadeJanela = Math.max(1, capacidade / 100);
+		this.capacidadePrincipal = capacidade - capacidadeJanela;
+		this.capacidadeProtegida = (int) (capacidadePrincipal * 0.8);
+
+		while (quantidadeContadores < 4L * capacidade && quantidadeContadores < (1 << 30))
+			quantidadeContadores <<= 1;
+		this.esboco = new long[quantidadeContadores / 16];
+		this.mascaraContadores = quantidadeContadores - 1;
+		this.limiteAmostras = (int) Math.min(Integer.MAX_VALUE, (long) AMOSTRAS_POR_ENTRADA * capacidade);
+	}
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private static <K, V> NoCache<K, V>[] criarIndice(int posicoes) {
+		return new NoCache[posicoes];
+	}
+
+	private static long misturar(long h) {
+
+		h ^= h >>> 33;
+		h *= 0xFF51AFD7ED558CCDL;
+		h ^= h >>> 33;
+		h *= 0xC4CEB9FE1A85EC53L;
+		h ^= h >>> 33;
+		return h;
+	}
+
+	/// posição, no esboço, do contador da chave na linha informada.
+	private int contador(long hash, int linha) {
+
+		long h = (hash + SEMENTES[linha]) * SEMENTES[linha];
+
+		return (int) (h ^ (h >>> 32)) & mascaraContadores;
+	}
+
+	private int lerContador(int contador) {
+		return (int) (esboco[contador >>> 4] >>> ((contador & 15) << 2)) & CONTADOR_MAXIMO;
+	}
+
+	/**
+	 * Frequência estimada da chave com o código hash (misturado) informado: o menor de seus contadores, 
+	 * que nunca subestima a frequência real (dentro da janela de amostras).
+	 */
+	private int frequencia(long hash) {
+
+		int menor = CONTADOR_MAXIMO;
+
+		for (int linha = 0; linha < SEMENTES.length; linha++)
+			menor = Math.min(menor, lerContador(contador(hash, linha)));
+		return menor;
+	}
+
+	/**
+	 * Registra no esboço um acesso à chave com o código hash (misturado) informado. 
+	 * Ao atingir o limite de amostras, todos os contadores são reduzidos à metade.
+	 */
+	private void registrarAcesso(long hash) {
+
+		int contador;
+
+		for (int linha = 0; linha < SEMENTES.length; linha++) {
+			contador = contador(hash, linha);
+			if (lerContador(contador) < CONTADOR_MAXIMO)
+				esboco[contador >>> 4] += 1L << ((contador & 15) << 2);
+		}
+		if (++amostras >= limiteAmostras) {
+			for (int i = 0; i < esboco.length; i++)
+				esboco[i] = (esboco[i] >>> 1) & METADE_CONTADORES;
+			amostras /= 2;
+		}
+	}
+
+	/**
+	 * Localiza, no índice, a entrada da chave com o código hash (misturado) informado, registrando as entradas comparadas.
+	 * @return a entrada da chave, ou null caso ela não esteja no cache.
+	 */
+	private NoCache<K, V> buscar(K chave, long hash) {
+
+		NoCache<K, V> no = indice[(int) hash & mascaraIndice];
+
+		comparacoesIndice = 1;
+		while (no != null) {
+			comparacoesIndice++;
+			if (no.hash == hash && no.chave.equals(chave))
+				return no;
+			no = no.seguinteNoIndice;
+		}
+		return null;
+	}
+
+	private NoCache<K, V> buscar(K chave) {
+		return buscar(chave, misturar(chave.hashCode()));
+	}
+
+	private void indexar(NoCache<K, V> no) {
+
+		int posicao = (int) no.hash & mascaraIndice;
+
+		no.seguinteNoIndice = indice[posicao];
+		indice[posicao] = no;
+	}
+
+	private void desindexar(NoCache<K, V> no) {
+
+		int posicao = (int) no.hash & mascaraIndice;
+		NoCache<K, V> anterior;
+
+		if (indice[posicao] == no)
+			indice[posicao] = no.seguinteNoIndice;
+		else {
+			anterior = indice[posicao];
+			while (anterior.seguinteNoIndice != no)
+				anterior = anterior.seguinteNoIndice;
+			anterior.seguinteNoIndice = no.seguinteNoIndice;
+		}
+		no.seguinteNoIndice = null;
+	}
+
+	private void desencadear(NoCache<K, V> no) {
+
+		no.anterior.proximo = no.proximo;
+		no.proximo.anterior = no.anterior;
+		tamanhos[no.regiao]--;
+	}
+
+	/// insere o nó como o mais recentemente usado da região.
+	private void encadear(NoCache<K, V> no, int regiao) {
+
+		NoCache<K, V> sentinela = regioes[regiao];
+
+		no.regiao = regiao;
+		no.anterior = sentinela.anterior;
+		no.proximo = sentinela;
+		sentinela.anterior.proximo = no;
+		sentinela.anterior = no;
+		tamanhos[regiao]++;
+	}
+
+	/// nó menos recentemente usado da região, ou null se ela estiver vazia.
+	private NoCache<K, V> menosRecente(int regiao) {
+		return (tamanhos[regiao] == 0) ? null : regioes[regiao].proximo;
+	}
+
+	/**
+	 * Atualiza a posição da entrada acessada: na janela e no segmento protegido, ela passa a ser a mais recente;
+	 * no segmento provisório, é promovida ao protegido, que devolve ao provisório sua entrada menos recente, se transbordar.
+	 */
+	private void acessar(NoCache<K, V> no) {
+
+		NoCache<K, V> rebaixado;
+
+		desencadear(no);
+		if (no.regiao == PROVISORIA) {
+			encadear(no, PROTEGIDA);
+			if (tamanhos[PROTEGIDA] > capacidadeProtegida) {
+				rebaixado = menosRecente(PROTEGIDA);
+				desencadear(rebaixado);
+				encadear(rebaixado, PROVISORIA);
+			}
+		} else
+			encadear(no, no.regiao);
+	}
+
+	/**
+	 * Coloca no cache uma entrada obtida do mapeamento. Ela entra na janela; se a janela transbordar,
+	 * sua entrada menos recente é admitida na área principal apenas se for mais frequente do que a vítima.
+	 */
+	private void admitir(K chave, long hash, V valor) {
+
+		NoCache<K, V> no = new NoCache<>(chave, hash, valor);
+		NoCache<K, V> candidata, vitima;
+
+		indexar(no);
+		encadear(no, JANELA);
+		if (tamanhos[JANELA] <= capacidadeJanela)
+			return;
+
+		candidata = menosRecente(JANELA);
+		desencadear(candidata);
+		if (tamanhos[PROVISORIA] + tamanhos[PROTEGIDA] < capacidadePrincipal) {
+			encadear(candidata, PROVISORIA);
+			return;
+		}
+		vitima = menosRecente(PROVISORIA);
+		if (vitima == null)
+			vitima = menosRecente(PROTEGIDA);
+		if (frequencia(candidata.hash) > frequencia(vitima.hash)) {
+			desencadear(vitima);
+			descartar(vitima);
+			encadear(candidata, PROVISORIA);
+		} else
+			descartar(candidata);
+	}
+
+	/// retira do índice uma entrada já desencadeada de sua região.
+	private void descartar(NoCache<K, V> no) {
+
+		desindexar(no);
+		expulsoes++;
+	}
+
+	/**
+	 * Pesquisa a chave no cache e, se necessário, no mapeamento, admitindo no cache o item encontrado.
+	 * O código hash da chave é misturado uma única vez: o mesmo valor atualiza o esboço e acompanha a entrada admitida.
+	 * @return o item associado à chave, ou null caso a chave não esteja no mapeamento.
+	 */
+	private V localizar(K chave) {
+
+		long hash = misturar(chave.hashCode());
+		NoCache<K, V> no;
+		V item;
+
+		registrarAcesso(hash);
+		no = buscar(chave, hash);
+		comparacoes = comparacoesIndice;
+		if (no != null) {
+			acertos++;
+			acessar(no);
+			return no.valor;
+		}
+
+		faltas++;
+		item = mapeamento.pesquisar(chave, null);
+		comparacoes += mapeamento.getComparacoes();
+		comparacoesMapeamento += mapeamento.getComparacoes();
+		if (item != null)
+			admitir(chave, hash, item);
+		return item;
+	}
+
+	/**
+	 * Insere o item no mapeamento e atualiza a entrada correspondente no cache, se houver.
+	 * @return o valor retornado pela inserção no mapeamento.
+	 */
+	@Override
+	public synchronized int inserir(K chave, V item) {
+
+		int resultado = mapeamento.inserir(chave, item);
+		NoCache<K, V> no = buscar(chave);
+
+		if (no != null)
+			no.valor = item;
+		return resultado;
+	}
+
+	/**
+	 * Pesquisa o item associado à chave, consultando o mapeamento apenas se ele não estiver no cache.
+	 * @throws NoSuchElementException caso o item não seja localizado.
+	 */
+	@Override
+	public synchronized V pesquisar(K chave) {
+
+		V item;
+
+		inicio = System.nanoTime();
+		item = localizar(chave);
+		termino = System.nanoTime();
+		if (item == null)
+			throw new NoSuchElementException("O item não foi localizado!");
+		return item;
+	}
+
+	@Override
+	public synchronized V pesquisar(K chave, V valorPadrao) {
+
+		V item;
+
+		inicio = System.nanoTime();
+		item = localizar(chave);
+		termino = System.nanoTime();
+		return (item != null) ? item : valorPadrao;
+	}
+
+	@Override
+	public synchronized boolean contem(K chave) {
+		return (buscar(chave) != null) || mapeamento.contem(chave);
+	}
+
+	/**
+	 * Remove o item do mapeamento e descarta a entrada correspondente no cache, se houver.
+	 * @throws NoSuchElementException caso o item não seja localizado.
+	 */
+	@Override
+	public synchronized V remover(K chave) {
+
+		V item = mapeamento.remover(chave);
+
+		invalidar(chave);
+		return item;
+	}
+
+	/**
+	 * Calcula o item associado à chave no mapeamento e atualiza (ou descarta, se o novo item for null) a entrada no cache.
+	 */
+	@Override
+	public synchronized V calcular(K chave, BiFunction<? super K, ? super V, ? extends V> funcaoRemapeamento) {
+
+		V novoItem = mapeamento.calcular(chave, funcaoRemapeamento);
+		NoCache<K, V> no;
+
+		if (novoItem == null)
+			invalidar(chave);
+		else {
+			no = buscar(chave);
+			if (no != null)
+				no.valor = novoItem;
+		}
+		return novoItem;
+	}
+
+	/// descarta a entrada da chave no cache, se houver, sem contá-la como expulsão.
+	private void invalidar(K chave) {
+
+		NoCache<K, V> no = buscar(chave);
+
+		if (no != null) {
+			desencadear(no);
+			desindexar(no);
+		}
+	}
+
+	@Override
+	public synchronized int tamanho() {
+		return mapeamento.tamanho();
+	}
+
+	@Override
+	public synchronized void percorrer(Appendable destino) throws IOException {
+		mapeamento.percorrer(destino);
+	}
+
+	@Override
+	public String toString() {
+		return percorrer();
+	}
+
+	/**
+	 * Retorna a quantidade de entradas mantidas no cache no momento.
+	 */
+	public synchronized int getQuantidadeEmCache() {
+		return tamanhos[JANELA] + tamanhos[PROVISORIA] + tamanhos[PROTEGIDA];
+	}
+
+	/**
+	 * Retorna a fração das pesquisas atendidas pelo cache, sem consulta ao mapeamento (entre 0 e 1).
+	 */
+	public synchronized double getTaxaAcertos() {
+		return (acertos + faltas == 0) ? 0 : (double) acertos / (acertos + faltas);
+	}
+
+	/**
+	 * Retorna a quantidade de entradas expulsas do cache (ou recusadas pela admissão) por falta de espaço.
+	 */
+	public synchronized long getExpulsoes() {
+		return expulsoes;
+	}
+
+	/**
+	 * Retorna a média de comparações economizadas por pesquisa: cada acerto economiza, em média,
+	 * as comparações que o mapeamento fez nas pesquisas que o cache não atendeu.
+	 */
+	public synchronized double getMediaComparacoesEconomizadas() {
+
+		if (faltas == 0)
+			return 0;
+		return (double) acertos * comparacoesMapeamento / faltas / (acertos + faltas);
+	}
+
+	/**
+	 * Retorna o mapeamento protegido pelo cache.
+	 */
+	public IMapeamento<K, V> getMapeamento() {
+		return mapeamento;
+	}
+
+	/**
+	 * Retorna as comparações da última pesquisa: as do índice do cache, somadas às do mapeamento, se ele foi consultado.
+	 */
+	@Override
+	public synchronized long getComparacoes() {
+		return comparacoes;
+	}
+
+	@Override
+	public synchronized double getTempo() {
+		return (termino - inicio) / 1_000_000;
+	}
+}
@@ -0,0 +1,747 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Comparativos de desempenho entre as estruturas de busca do sistema.
+ * Cada comparativo executa algumas rodadas de aquecimento antes das medições, 
+ * para que os tempos reflitam o código já compilado pela JVM.
+ * Uso: java Comparativos [nome do comparativo]. Sem argumentos, executa todos os comparativos.
+ */
+public class Comparativos {
+
+	private static final int RODADAS_AQUECIMENTO = 3;
+	
+	private static final int QUANTIDADE_CHAVES = 200_000;
+	private static final int QUANTIDADE_PESQUISAS = 2_000_000;
+	private static final double EXPOENTE_ZIPF = 0.9;
+	
+	/// soma de verificação dos resultados, impede que a JVM elimine as pesquisas medidas.
+	private static long verificacao = 0;
+	
+	public static void main(String[] args) {
+		
+		String comparativo = (args.length > 0) ? args[0] : "todos";
+		
+		switch (comparativo) {
+			case "chavesInteiras" -> compararChavesInteiras();
+			case "funcoesHash" -> compararFuncoesHash();
+			case "latencias" -> compararLatencias();
+			case "cache" -> compararCache();
+			case "rubroNegra" -> compararArvoresBalanceadas();
+			case "emDisco" -> compararMultimapaEmDisco();
+			case "concorrente" -> verificarTabelaConcorrente();
+			case "iteradores" -> verificarIteradores();
+			case "todos" -> {
+				compararChavesInteiras();
+				compararFuncoesHash();
+				compararLatencias();
+				compararCache();
+				compararArvoresBalanceadas();
+				compararMultimapaEmDisco();
+				verificarTabelaConcorrente();
+				verificarIteradores();
+			}
+			default -> System.out.println("Comparativo desconhecido: " + comparativo);
+		}
+		System.out.println("(verificação: " + verificacao + ")");
+	}
+	
+	/**
+	 * Compara a tabela hash de chaves inteiras primitivas com as estruturas genéricas, 
+	 * usando chaves sequenciais a partir de 10.000 (como os identificadores de produtos).
+	 */
+	static void compararChavesInteiras() {
+		
+		System.out.println("=== Chaves inteiras: " + QUANTIDADE_CHAVES + " chaves sequenciais, " 
+				+ QUANTIDADE_PESQUISAS + " pesquisas (metade sem sucesso) ===");
+		
+		int[] pesquisas = sortearPesquisas(10_000, QUANTIDADE_CHAVES, QUANTIDADE_PESQUISAS, new Random(7));
+		
+		for (int rodada = 0; rodada <= RODADAS_AQUECIMENTO; rodada++) {
+			boolean medir = (rodada == RODADAS_AQUECIMENTO);
+			
+			medirChavesInteiras("IntTabelaHash", medir, pesquisas, n -> {
+				IntTabelaHash<String> tabela = new IntTabelaHash<>(16);
+				for (int i = 0; i < n; i++)
+					tabela.inserir(10_000 + i, "item");
+				return tabela;
+			}, (tabela, chave) -> tabela.pesquisar(chave, null) != null);
+			
+			medirChavesInteiras("TabelaHashAberta<Integer>", medir, pesquisas, n -> {
+				TabelaHashAberta<Integer, String> tabela = new TabelaHashAberta<>(16);
+				for (int i = 0; i < n; i++)
+					tabela.inserir(10_000 + i, "item");
+				return tabela;
+			}, (tabela, chave) -> tabela.pesquisar(chave, null) != null);
+			
+			medirChavesInteiras("TabelaHash<Integer>", medir, pesquisas, n -> {
+				TabelaHash<Integer, String> tabela = new TabelaHash<>(16, 0.75);
+				for (int i = 0; i < n; i++)
+					tabela.inserir(10_000 + i, "item");
+				return tabela;
+			}, (tabela, chave) -> tabela.pesquisar(chave, null) != null);
+			
+			medirChavesInteiras("AVL<Integer>", medir, pesquisas, n -> {
+				AVL<Integer, String> arvore = new AVL<>();
+				for (int i = 0; i < n; i++)
+					arvore.inserir(10_000 + i, "item");
+				return arvore;
+			}, (arvore, chave) -> arvore.pesquisar(chave, null) != null);
+		}
+	}
+	
+	/// pesquisa uma chave inteira na estrutura informada, indicando se ela foi encontrada.
+	private interface PesquisaInteira<T> {
+		boolean pesquisar(T estrutura, int chave);
+	}
+	
+	private static <T extends IMedicao> void medirChavesInteiras(String nome, boolean imprimir, int[] pesquisas, 
+			IntFunction<T> construtor, PesquisaInteira<T> pesquisa) {
+		
+		long inicio, termino;
+		long comparacoes = 0;
+		int encontrados = 0;
+		T estrutura;
+		
+		inicio = System.nanoTime();
+		estrutura = construtor.apply(QUANTIDADE_CHAVES);
+		termino = System.nanoTime();
+		double tempoInsercao = (termino - inicio) / 1_000_000.0;
+		
+		inicio = System.nanoTime();
+		for (int chave : pesquisas) {
+			if (pesquisa.pesquisar(estrutura, chave))
+				encontrados++;
+		}
+		termino = System.nanoTime();
+		double tempoPesquisa = (termino - inicio) / 1_000_000.0;
+		
+		/// as comparações são contabilizadas em uma segunda passagem, fora da medição de tempo.
+		for (int i = 0; i < pesquisas.length; i += 100) {
+			pesquisa.pesquisar(estrutura, pesquisas[i]);
+			comparacoes += estrutura.getComparacoes();
+		}
+		
+		verificacao += encontrados;
+		if (imprimir)
+			System.out.printf("%-28s inserção: %8.2f ms | pesquisas: %8.2f ms (%6.1f ns/pesquisa) | comparações médias: %.2f%n",
+					nome, tempoInsercao, tempoPesquisa, tempoPesquisa * 1_000_000 / pesquisas.length,
+					(double) comparacoes / ((pesquisas.length + 99) / 100));
+	}
+	
+	/**
+	 * Compara a distribuição do tempo de cada pesquisa (mediana, percentis 99 e 99,9 e máximo) 
+	 * entre o índice com função hash perfeita mínima, a tabela hash cuco, a tabela hash com listas encadeadas, a árvore B+ e a árvore AVL, 
+	 * usando chaves sequenciais a partir de 10.000 (como os identificadores de produtos).
+	 * Cada pesquisa é cronometrada individualmente; a resolução do relógio (dezenas de ns) limita os menores valores.
+	 */
+	static void compararLatencias() {
+		
+		System.out.println("=== Latência das pesquisas: " + QUANTIDADE_CHAVES + " chaves sequenciais, " 
+				+ QUANTIDADE_PESQUISAS + " pesquisas (metade sem sucesso) ===");
+		
+		int[] pesquisas = sortearPesquisas(10_000, QUANTIDADE_CHAVES, QUANTIDADE_PESQUISAS, new Random(13));
+		
+		for (int rodada = 0; rodada <= RODADAS_AQUECIMENTO; rodada++) {
+			boolean medir = (rodada == RODADAS_AQUECIMENTO);
+			
+			medirLatencias("IndicePerfeito<Integer>", medir, pesquisas, new IndicePerfeito<>(preencher(new AVL<>())));
+			medirLatencias("TabelaHashCuco<Integer>", medir, pesquisas, preencher(new TabelaHashCuco<>(16)));
+			medirLatencias("TabelaHash<Integer>", medir, pesquisas, preencher(new TabelaHash<>(16, 0.75)));
+			medirLatencias("ArvoreBMais<Integer>", medir, pesquisas, preencher(new ArvoreBMais<>()));
+			medirLatencias("AVL<Integer>", medir, pesquisas, preencher(new AVL<>()));
+		}
+	}
+	
+	private static void medirLatencias(String nome, boolean imprimir, int[] pesquisas, IMapeamento<Integer, String> estrutura) {
+		
+		long[] latencias = new long[pesquisas.length];
+		long inicio;
+		long maiorComparacoes = 0;
+		int encontrados = 0;
+		
+		for (int i = 0; i < pesquisas.length; i++) {
+			inicio = System.nanoTime();
+			if (estrutura.pesquisar(pesquisas[i], null) != null)
+				encontrados++;
+			latencias[i] = System.nanoTime() - inicio;
+			maiorComparacoes = Math.max(maiorComparacoes, estrutura.getComparacoes());
+		}
+		
+		verificacao += encontrados;
+		Arrays.sort(latencias);
+		if (imprimir)
+			System.out.printf("%-28s mediana: %6d ns | p99: %6d ns | p99,9: %7d ns | máximo: %9d ns | maior nº de comparações: %d%n",
+					nome, percentil(latencias, 0.5), percentil(latencias, 0.99), percentil(latencias, 0.999),
+					latencias[latencias.length - 1], maiorComparacoes);
+	}
+	
+	/**
+	 * Compara a árvore AVL sozinha e protegida por caches W-TinyLFU de capacidades diferentes, em pesquisas com
+	 * popularidade de Zipf (expoente EXPOENTE_ZIPF): poucos produtos concentram a maior parte das pesquisas.
+	 * As mesmas pesquisas são feitas com chaves inteiras (compareTo barato) e com descrições de produtos 
+	 * comparadas sem diferenciar maiúsculas e minúsculas, com um prefixo comum que encarece cada comparação da descida na AVL.
+	 */
+	static void compararCache() {
+		
+		System.out.println("=== Cache W-TinyLFU: " + QUANTIDADE_CHAVES + " chaves sequenciais, " 
+				+ QUANTIDADE_PESQUISAS + " pesquisas com popularidade de Zipf (expoente " + EXPOENTE_ZIPF + ") ===");
+		
+		int[] sorteadas = sortearPesquisasZipf(10_000, QUANTIDADE_CHAVES, QUANTIDADE_PESQUISAS, new Random(17));
+		Integer[] pesquisasInteiras = new Integer[sorteadas.length];
+		String[] pesquisasDescricoes = new String[sorteadas.length];
+		AVL<Integer, String> arvoreInteiros = preencher(new AVL<>());
+		AVL<String, String> arvoreDescricoes = new AVL<>(String.CASE_INSENSITIVE_ORDER);
+		
+		for (int i = 0; i < QUANTIDADE_CHAVES; i++)
+			arvoreDescricoes.inserir(descricao(10_000 + i), "item");
+		for (int i = 0; i < sorteadas.length; i++) {
+			pesquisasInteiras[i] = sorteadas[i];
+			pesquisasDescricoes[i] = descricao(sorteadas[i]);
+		}
+		
+		for (int rodada = 0; rodada <= RODADAS_AQUECIMENTO; rodada++) {
+			boolean medir = (rodada == RODADAS_AQUECIMENTO);
+			
+			medirCache("AVL<Integer>", medir, pesquisasInteiras, arvoreInteiros);
+			for (int capacidade : new int[] { 200, 2_000, 20_000 })
+				medirCache("W-TinyLFU(" + capacidade + ") + AVL", medir, pesquisasInteiras, new CacheTinyLFU<>(arvoreInteiros, capacidade));
+		}
+		for (int rodada = 0; rodada <= RODADAS_AQUECIMENTO; rodada++) {
+			boolean medir = (rodada == RODADAS_AQUECIMENTO);
+			
+			medirCache("AVL<String>", medir, pesquisasDescricoes, arvoreDescricoes);
+			for (int capacidade : new int[] { 200, 2_000, 20_000 })
+				medirCache("W-TinyLFU(" + capacidade + ") + AVL", medir, pesquisasDescricoes, new CacheTinyLFU<>(arvoreDescricoes, capacidade));
+		}
+	}
+	
+	/// descrição de produto usada como chave textual: todas compartilham o mesmo prefixo.
+	private static String descricao(int chave) {
+		return String.format("Produto alimentício - lote %06d", chave);
+	}
+	
+	private static <K> void medirCache(String nome, boolean imprimir, K[] pesquisas, IMapeamento<K, String> estrutura) {
+		
+		long inicio, termino;
+		long comparacoes = 0;
+		int encontrados = 0;
+		
+		inicio = System.nanoTime();
+		for (K chave : pesquisas) {
+			if (estrutura.pesquisar(chave, null) != null)
+				encontrados++;
+			comparacoes += estrutura.getComparacoes();
+		}
+		termino = System.nanoTime();
+		double tempoPesquisa = (termino - inicio) / 1_000_000.0;
+		
+		verificacao += encontrados;
+		if (!imprimir)
+			return;
+		System.out.printf("%-28s pesquisas: %8.2f ms (%6.1f ns/pesquisa) | comparações médias: %6.2f",
+				nome, tempoPesquisa, tempoPesquisa * 1_000_000 / pesquisas.length, (double) comparacoes / pesquisas.length);
+		if (estrutura instanceof CacheTinyLFU<K, String> cache)
+			System.out.printf(" | acertos: %5.1f%% | expulsões: %8d | comparações economizadas: %5.2f",
+					cache.getTaxaAcertos() * 100, cache.getExpulsoes(), cache.getMediaComparacoesEconomizadas());
+		System.out.println();
+	}
+	
+	/**
+	 * Sorteia chaves do intervalo [primeira, primeira + quantidade) com popularidade de Zipf: a i-ésima chave mais popular
+	 * é pesquisada com probabilidade proporcional a 1 / i^EXPOENTE_ZIPF. A ordem de popularidade das chaves é embaralhada.
+	 */
+	private static int[] sortearPesquisasZipf(int primeira, int quantidade, int quantasPesquisas, Random sorteio) {
+		
+		double[] acumulada = new double[quantidade];
+		int[] chavePorPosto = new int[quantidade];
+		int[] pesquisas = new int[quantasPesquisas];
+		double soma = 0;
+		int posto, troca, aux;
+		
+		for (int i = 0; i < quantidade; i++) {
+			soma += 1 / Math.pow(i + 1, EXPOENTE_ZIPF);
+			acumulada[i] = soma;
+			chavePorPosto[i] = primeira + i;
+		}
+		for (int i = quantidade - 1; i > 0; i--) {
+			troca = sorteio.nextInt(i + 1);
+			aux = chavePorPosto[i];
+			chavePorPosto[i] = chavePorPosto[troca];
+			chavePorPosto[troca] = aux;
+		}
+		for (int i = 0; i < quantasPesquisas; i++) {
+			posto = Arrays.binarySearch(acumulada, sorteio.nextDouble() * soma);
+			posto = (posto >= 0) ? posto : Math.min(quantidade - 1, ~posto);
+			pesquisas[i] = chavePorPosto[posto];
+		}
+		return pesquisas;
+	}
+	
+	/**
+	 * Compara a árvore AVL e a árvore rubro-negra em três cargas de atualização, com chaves em ordem aleatória:
+	 * apenas inserções (a partir da árvore vazia), apenas remoções (até esvaziar a árvore) e uma carga mista,
+	 * com inserções e remoções sorteadas sobre uma árvore com metade das chaves.
+	 */
+	static void compararArvoresBalanceadas() {
+		
+		System.out.println("=== Árvores balanceadas: " + QUANTIDADE_CHAVES + " inserções, " + QUANTIDADE_CHAVES 
+				+ " remoções e " + QUANTIDADE_CHAVES + " operações mistas, chaves em ordem aleatória ===");
+		
+		Random sorteio = new Random(23);
+		int[] insercoes = embaralhar(10_000, QUANTIDADE_CHAVES, sorteio);
+		int[] remocoes = embaralhar(10_000, QUANTIDADE_CHAVES, sorteio);
+		int[] mistas = sortearOperacoesMistas(insercoes, QUANTIDADE_CHAVES, sorteio);
+		
+		for (int rodada = 0; rodada <= RODADAS_AQUECIMENTO; rodada++) {
+			boolean medir = (rodada == RODADAS_AQUECIMENTO);
+			
+			medirAtualizacoes("AVL<Integer>", medir, AVL::new, insercoes, remocoes, mistas);
+			medirAtualizacoes("ArvoreRubroNegra<Integer>", medir, ArvoreRubroNegra::new, insercoes, remocoes, mistas);
+		}
+	}
+	
+	private static void medirAtualizacoes(String nome, boolean imprimir, Supplier<IMapeamento<Integer, String>> fabrica,
+			int[] insercoes, int[] remocoes, int[] mistas) {
+		
+		IMapeamento<Integer, String> estrutura = fabrica.get();
+		long inicio;
+		double tempoInsercoes, tempoRemocoes, tempoMistas;
+		long rotacoes = 0;
+		
+		inicio = System.nanoTime();
+		for (int chave : insercoes)
+			estrutura.inserir(chave, "item");
+		tempoInsercoes = (System.nanoTime() - inicio) / 1_000_000.0;
+		
+		inicio = System.nanoTime();
+		for (int chave : remocoes)
+			estrutura.remover(chave);
+		tempoRemocoes = (System.nanoTime() - inicio) / 1_000_000.0;
+		if (estrutura instanceof ArvoreRubroNegra<Integer, String> arvore)
+			rotacoes = arvore.getRotacoes();
+		
+		/// carga mista: a árvore parte da primeira metade das chaves inseridas, que não é cronometrada.
+		estrutura = fabrica.get();
+		for (int i = 0; i < insercoes.length / 2; i++)
+			estrutura.inserir(insercoes[i], "item");
+		inicio = System.nanoTime();
+		for (int operacao : mistas) {
+			if (operacao >= 0)
+				estrutura.inserir(operacao, "item");
+			else
+				estrutura.remover(~operacao);
+		}
+		tempoMistas = (System.nanoTime() - inicio) / 1_000_000.0;
+		
+		verificacao += estrutura.tamanho();
+		if (!imprimir)
+			return;
+		System.out.printf("%-28s inserções: %8.2f ms | remoções: %8.2f ms | mistas: %8.2f ms",
+				nome, tempoInsercoes, tempoRemocoes, tempoMistas);
+		if (rotacoes > 0)
+			System.out.printf(" | rotações por atualização: %4.2f", (double) rotacoes / (insercoes.length + remocoes.length));
+		System.out.println();
+	}
+	
+	/// chaves do intervalo [primeira, primeira + quantidade), em ordem aleatória.
+	private static int[] embaralhar(int primeira, int quantidade, Random sorteio) {
+		
+		int[] chaves = new int[quantidade];
+		int troca, aux;
+		
+		for (int i = 0; i < quantidade; i++)
+			chaves[i] = primeira + i;
+		for (int i = quantidade - 1; i > 0; i--) {
+			troca = sorteio.nextInt(i + 1);
+			aux = chaves[i];
+			chaves[i] = chaves[troca];
+			chaves[troca] = aux;
+		}
+		return chaves;
+	}
+	
+	/**
+	 * Sorteia operações mistas sobre uma árvore que contém a primeira metade das chaves informadas: 
+	 * cada operação insere uma chave ausente (valor positivo) ou remove uma chave presente (complemento, ~chave), 
+	 * com a mesma probabilidade.
+	 */
+	private static int[] sortearOperacoesMistas(int[] chaves, int quantasOperacoes, Random sorteio) {
+		
+		int[] presentes = new int[chaves.length];
+		int[] ausentes = new int[chaves.length];
+		int quantasPresentes = chaves.length / 2;
+		int quantasAusentes = chaves.length - quantasPresentes;
+		int[] operacoes = new int[quantasOperacoes];
+		int posicao;
+		
+		System.arraycopy(chaves, 0, presentes, 0, quantasPresentes);
+		System.arraycopy(chaves, quantasPresentes, ausentes, 0, quantasAusentes);
+		for (int i = 0; i < quantasOperacoes; i++) {
+			if (quantasPresentes == 0 || (quantasAusentes > 0 && sorteio.nextBoolean())) {
+				posicao = sorteio.nextInt(quantasAusentes);
+				operacoes[i] = ausentes[posicao];
+				presentes[quantasPresentes++] = ausentes[posicao];
+				ausentes[posicao] = ausentes[--quantasAusentes];
+			} else {
+				posicao = sorteio.nextInt(quantasPresentes);
+				operacoes[i] = ~presentes[posicao];
+				ausentes[quantasAusentes++] = presentes[posicao];
+				presentes[posicao] = presentes[--quantasPresentes];
+			}
+		}
+		return operacoes;
+	}
+	
+	/// insere as chaves sequenciais usadas nos comparativos na estrutura informada.
+	private static <T extends IMapeamento<Integer, String>> T preencher(T estrutura) {
+		
+		for (int i = 0; i < QUANTIDADE_CHAVES; i++)
+			estrutura.inserir(10_000 + i, "item");
+		return estrutura;
+	}
+	
+	/// valor do percentil informado (entre 0 e 1) em um vetor ordenado.
+	private static long percentil(long[] ordenados, double percentil) {
+		return ordenados[(int) Math.min(ordenados.length - 1, Math.ceil(percentil * ordenados.length) - 1)];
+	}
+	
+	/**
+	 * Compara as funções de transformação da tabela hash (divisão, Fibonacci, Murmur3 e Murmur3 com semente) 
+	 * em três conjuntos de chaves: sequenciais (como os identificadores de produtos), aleatórias e adversárias,
+	 * estas montadas para que todas caiam na mesma posição da função Murmur3 sem semente.
+	 * As tabelas têm capacidade fixa, para que todas as funções sejam comparadas com o mesmo fator de carga.
+	 * Posições com mais de {@link TabelaHash#LIMITE_ARVORE} itens são convertidas em árvores AVL, 
+	 * o que limita as comparações das chaves adversárias a O(log n).
+	 */
+	static void compararFuncoesHash() {
+		
+		final int quantidade = 20_000;
+		int[] sequenciais = new int[quantidade];
+		int[] aleatorias;
+		int[] adversarias = new int[quantidade];
+		Random sorteio = new Random(11);
+		IFuncaoHash[] funcoes = { new HashDivisao(), new HashFibonacci(), new HashMurmur(), HashMurmur.comSementeAleatoria() };
+		
+		aleatorias = sorteio.ints().distinct().limit(quantidade).toArray();
+		
+		System.out.println("=== Funções de transformação: " + quantidade + " chaves, fator de carga 0,75, capacidade fixa ===");
+		
+		for (int i = 0; i < quantidade; i++) {
+			sequenciais[i] = 10_000 + i;
+			/// as saídas da mistura do Murmur3 terminam com 15 bits zerados: 
+			/// a mesma posição para qualquer tabela de até 2^15 posições (a capacidade usada aqui).
+			adversarias[i] = inverterMisturaMurmur((i + 1) << 15);
+		}
+		
+		for (int rodada = 0; rodada <= RODADAS_AQUECIMENTO; rodada++) {
+			for (IFuncaoHash funcao : funcoes) {
+				medirFuncaoHash(funcao, "sequenciais", sequenciais, rodada == RODADAS_AQUECIMENTO);
+				medirFuncaoHash(funcao, "aleatórias", aleatorias, rodada == RODADAS_AQUECIMENTO);
+				medirFuncaoHash(funcao, "adversárias", adversarias, rodada == RODADAS_AQUECIMENTO);
+			}
+		}
+	}
+	
+	private static void medirFuncaoHash(IFuncaoHash funcao, String conjunto, int[] chaves, boolean imprimir) {
+		
+		TabelaHash<Integer, Integer> tabela = new TabelaHash<>((int) (chaves.length / 0.75), TabelaHash.SEM_REDIMENSIONAMENTO, funcao);
+		long inicio, termino;
+		long comparacoes = 0;
+		
+		for (int chave : chaves)
+			tabela.inserir(chave, chave);
+		
+		inicio = System.nanoTime();
+		for (int chave : chaves)
+			verificacao += tabela.pesquisar(chave, 0);
+		termino = System.nanoTime();
+		
+		for (int chave : chaves) {
+			tabela.pesquisar(chave, 0);
+			comparacoes += tabela.getComparacoes();
+		}
+		
+		if (imprimir) {
+			int ocupadas = tabela.getCapacidade() - tabela.getPosicoesVazias();
+			System.out.printf("%-20s %-12s colisões: %6d | maior posição: %6d | em árvore: %4d | comparações médias: %9.2f | %9.1f ns/pesquisa%n",
+					funcao, conjunto, chaves.length - ocupadas, tabela.getMaiorCadeia(), tabela.getPosicoesEmArvore(), 
+					(double) comparacoes / chaves.length, (termino - inicio) / (double) chaves.length);
+		}
+	}
+	
+	/**
+	 * Inverte a etapa final de mistura do Murmur3 (fmix32): retorna o código hash cuja mistura, sem semente, resulta no valor informado.
+	 */
+	private static int inverterMisturaMurmur(int h) {
+		
+		h ^= h >>> 16;
+		h *= 0x7ED1B41D; /// inverso multiplicativo de 0xC2B2AE35
+		h ^= (h >>> 13) ^ (h >>> 26);
+		h *= 0xA5CB9243; /// inverso multiplicativo de 0x85EBCA6B
+		h ^= h >>> 16;
+		return h;
+	}
+	
+	/**
+	 * Verifica o multimapa em disco como índice de pedidos por produto que sobrevive ao encerramento do programa:
+	 * anexa QUANTIDADE_CHAVES identificadores de pedidos a 10.000 produtos, fecha o arquivo, reabre-o e confere,
+	 * chave a chave, os valores lidos contra o mesmo índice montado em memória (IntMultimapaForaDoHeap).
+	 * Informa o tempo de reabertura, comparado ao de remontar o índice em memória, e as leituras por pesquisa,
+	 * que devem ser de uma única página.
+	 * @throws IllegalStateException caso algum valor lido do arquivo não corresponda ao índice em memória.
+	 * @throws UncheckedIOException caso ocorra um erro ao criar ou apagar os arquivos temporários.
+	 */
+	static void compararMultimapaEmDisco() {
+		
+		System.out.println("=== Multimapa em disco: " + QUANTIDADE_CHAVES + " pedidos anexados a 10000 produtos, arquivo reaberto ===");
+		
+		int quantidadeProdutos = 10_000;
+		int[] produtos = new int[QUANTIDADE_CHAVES];
+		Random sorteio = new Random(23);
+		Path arquivo;
+		long inicio, anexacao, reconstrucao, fechamento, reabertura;
+		long leiturasPesquisa = 0, maiorLeituraPesquisa = 0, leiturasPercurso = 0;
+		int[] divergencias = { 0 };
+		
+		for (int pedido = 0; pedido < produtos.length; pedido++)
+			produtos[pedido] = 10_000 + sorteio.nextInt(quantidadeProdutos);
+		
+		try {
+			arquivo = Files.createTempFile("pedidosPorProduto", ".dat");
+		} catch (IOException e) {
+			throw new UncheckedIOException("Erro ao criar o arquivo temporário: " + e.getMessage(), e);
+		}
+		
+		try (IntMultimapaForaDoHeap referencia = new IntMultimapaForaDoHeap(quantidadeProdutos)) {
+			inicio = System.nanoTime();
+			for (int pedido = 0; pedido < produtos.length; pedido++)
+				referencia.anexar(produtos[pedido], pedido);
+			reconstrucao = System.nanoTime() - inicio;
+			
+			IntMultimapaEmDisco emDisco = new IntMultimapaEmDisco(arquivo);
+			inicio = System.nanoTime();
+			for (int pedido = 0; pedido < produtos.length; pedido++)
+				emDisco.anexar(produtos[pedido], pedido);
+			anexacao = System.nanoTime() - inicio;
+			inicio = System.nanoTime();
+			emDisco.close();
+			fechamento = System.nanoTime() - inicio;
+			
+			inicio = System.nanoTime();
+			emDisco = new IntMultimapaEmDisco(arquivo);
+			reabertura = System.nanoTime() - inicio;
+			
+			try {
+				/// produtos com pedidos e, logo após eles, a mesma quantidade de produtos inexistentes.
+				for (int produto = 10_000; produto < 10_000 + 2 * quantidadeProdutos; produto++) {
+					int quantidade = referencia.quantidade(produto);
+					int[] esperados = new int[quantidade];
+					int[] posicao = { 0 };
+					
+					referencia.paraCada(produto, valor -> esperados[posicao[0]++] = valor);
+					if (emDisco.quantidade(produto) != quantidade)
+						divergencias[0]++;
+					leiturasPesquisa += emDisco.getLeituras();
+					maiorLeituraPesquisa = Math.max(maiorLeituraPesquisa, emDisco.getLeituras());
+					
+					posicao[0] = 0;
+					emDisco.paraCada(produto, valor -> {
+						if (posicao[0] >= esperados.length || esperados[posicao[0]++] != valor)
+							divergencias[0]++;
+					});
+					if (posicao[0] != esperados.length)
+						divergencias[0]++;
+					leiturasPercurso += emDisco.getLeituras();
+				}
+				if (divergencias[0] > 0 || emDisco.getQuantidadeValores() != produtos.length)
+					throw new IllegalStateException("O multimapa reaberto diverge do índice em memória em " + divergencias[0] + " valores.");
+				
+				System.out.printf("anexação: %7.1f ms | fechamento: %6.1f ms | reabertura: %6.1f ms | remontagem em memória: %6.1f ms%n",
+						anexacao / 1e6, fechamento / 1e6, reabertura / 1e6, reconstrucao / 1e6);
+				System.out.printf("chaves: %d | páginas: %d | profundidade global: %d | leituras por pesquisa: média %.2f, máximo %d | "
+						+ "leituras por percurso: média %.2f%n", emDisco.tamanho(), emDisco.getQuantidadePaginas(), 
+						emDisco.getProfundidadeGlobal(), (double) leiturasPesquisa / (2 * quantidadeProdutos), maiorLeituraPesquisa,
+						(double) leiturasPercurso / (2 * quantidadeProdutos));
+			} finally {
+				emDisco.close();
+			}
+		} finally {
+			try {
+				Files.deleteIfExists(arquivo);
+				Files.deleteIfExists(arquivo.resolveSibling(arquivo.getFileName() + ".dir"));
+			} catch (IOException e) {
+				System.out.println("Não foi possível apagar o arquivo temporário " + arquivo + ": " + e.getMessage());
+			}
+		}
+	}
+	
+	/**
+	 * Verifica a tabela hash concorrente contra uma execução sequencial das mesmas operações:
+	 * várias threads incrementam contadores de chaves compartilhadas com calcular (sempre sobre as mesmas chaves, 
+	 * disputando as mesmas travas) e inserem e removem chaves próprias, a partir de uma tabela pequena, 
+	 * que é redimensionada durante a execução. O resultado deve ser idêntico ao da tabela hash comum, 
+	 * preenchida por uma única thread, já que incrementos e operações sobre chaves distintas comutam.
+	 * @throws IllegalStateException caso alguma chave termine com um valor diferente do da execução sequencial.
+	 */
+	static void verificarTabelaConcorrente() {
+		
+		int quantasThreads = 8;
+		int operacoesPorThread = QUANTIDADE_CHAVES / 2;
+		int chavesCompartilhadas = 5_000;
+		int[][] sorteadas = new int[quantasThreads][operacoesPorThread];
+		TabelaHashConcorrente<Integer, Integer> concorrente = new TabelaHashConcorrente<>(16);
+		TabelaHash<Integer, Integer> sequencial = new TabelaHash<>(16, 0.75);
+		ExecutorService executor = Executors.newFixedThreadPool(quantasThreads);
+		Future<?>[] tarefas = new Future<?>[quantasThreads];
+		long inicio, tempoConcorrente, tempoSequencial;
+		int divergencias = 0;
+		
+		System.out.println("=== Tabela hash concorrente: " + quantasThreads + " threads x " + operacoesPorThread 
+				+ " operações, comparada à execução sequencial ===");
+		
+		for (int t = 0; t < quantasThreads; t++) {
+			Random sorteio = new Random(31 + t);
+			for (int i = 0; i < operacoesPorThread; i++)
+				sorteadas[t][i] = sorteio.nextInt(chavesCompartilhadas);
+		}
+		
+		inicio = System.nanoTime();
+		for (int t = 0; t < quantasThreads; t++) {
+			int thread = t;
+			tarefas[t] = executor.submit(() -> executarOperacoes(concorrente, thread, sorteadas[thread]));
+		}
+		try {
+			for (Future<?> tarefa : tarefas)
+				tarefa.get();
+		} catch (InterruptedException e) {
+			executor.shutdownNow();
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("A verificação da tabela concorrente foi interrompida.", e);
+		} catch (ExecutionException e) {
+			executor.shutdownNow();
+			throw new IllegalStateException("Erro na tabela concorrente: " + e.getCause().getMessage(), e.getCause());
+		} finally {
+			executor.shutdown();
+		}
+		tempoConcorrente = System.nanoTime() - inicio;
+		
+		inicio = System.nanoTime();
+		for (int t = 0; t < quantasThreads; t++)
+			executarOperacoes(sequencial, t, sorteadas[t]);
+		tempoSequencial = System.nanoTime() - inicio;
+		
+		for (Entrada<Integer, Integer> entrada : sequencial) {
+			if (!entrada.getValor().equals(concorrente.pesquisar(entrada.getChave(), null)))
+				divergencias++;
+		}
+		if (divergencias > 0 || concorrente.tamanho() != sequencial.tamanho())
+			throw new IllegalStateException("A tabela concorrente diverge da execução sequencial em " + divergencias 
+					+ " chaves (tamanhos " + concorrente.tamanho() + " e " + sequencial.tamanho() + ").");
+		
+		System.out.printf("chaves: %d | capacidade final: %d | concorrente: %7.1f ms | sequencial (TabelaHash): %7.1f ms%n",
+				concorrente.tamanho(), concorrente.getCapacidade(), tempoConcorrente / 1e6, tempoSequencial / 1e6);
+	}
+	
+	/**
+	 * Operações de uma thread: para cada chave sorteada, incrementa seu contador com calcular;
+	 * a cada operação, insere também uma chave própria da thread e, a cada duas, remove a anterior.
+	 */
+	private static void executarOperacoes(IMapeamento<Integer, Integer> tabela, int thread, int[] sorteadas) {
+		
+		int primeiraPropria = 1_000_000 * (thread + 1);
+		
+		for (int i = 0; i < sorteadas.length; i++) {
+			tabela.calcular(sorteadas[i], (chave, contador) -> (contador == null) ? 1 : contador + 1);
+			tabela.inserir(primeiraPropria + i, i);
+			if (i % 2 == 1)
+				tabela.remover(primeiraPropria + i - 1);
+		}
+	}
+	
+	/**
+	 * Verifica os iteradores da tabela hash criados durante um redimensionamento incremental:
+	 * a substituição do valor de uma chave existente (calcular) não pode invalidá-los, e cada entrada deve ser visitada
+	 * exatamente uma vez; já a inserção ou a remoção de uma entrada deve lançar ConcurrentModificationException.
+	 * @throws IllegalStateException caso algum iterador se comporte de outra forma.
+	 */
+	static void verificarIteradores() {
+		
+		System.out.println("=== Iteradores da tabela hash durante o redimensionamento ===");
+		
+		int[] chaves = { 8, 9, 10, 11, 12, 13, 14, 15, 16, 25, 26, 27, 28 };
+		int substituicoes = 0;
+		
+		for (int chave : chaves) {
+			TabelaHash<Integer, String> tabela = tabelaEmRedimensionamento(chaves);
+			Iterator<Entrada<Integer, String>> entradas = tabela.iterator();
+			int visitadas = 0;
+			
+			tabela.calcular(chave, (k, valor) -> "novo");
+			while (entradas.hasNext()) {
+				Entrada<Integer, String> entrada = entradas.next();
+				if ((entrada.getChave() == chave) && !entrada.getValor().equals("novo"))
+					throw new IllegalStateException("Valor substituído não foi visto pelo iterador: chave " + chave);
+				visitadas++;
+			}
+			if (visitadas != chaves.length)
+				throw new IllegalStateException("O iterador visitou " + visitadas + " de " + chaves.length + " entradas.");
+			substituicoes++;
+		}
+		
+		for (int chave : new int[] { 8, 100 }) {
+			TabelaHash<Integer, String> tabela = tabelaEmRedimensionamento(chaves);
+			Iterator<Entrada<Integer, String>> entradas = tabela.iterator();
+			
+			/// remove a chave 8, que existe, ou insere a chave 100, que não existe.
+			tabela.calcular(chave, (k, valor) -> (valor == null) ? "novo" : null);
+			try {
+				entradas.hasNext();
+				throw new IllegalStateException("Alteração da tabela não foi detectada pelo iterador: chave " + chave);
+			} catch (ConcurrentModificationException esperada) {
+				/// comportamento documentado.
+			}
+		}
+		System.out.println("substituições durante a iteração: " + substituicoes + " | inserções e remoções detectadas: 2");
+	}
+	
+	/// tabela de 16 posições cujas últimas inserções disparam um redimensionamento, que fica em andamento.
+	private static TabelaHash<Integer, String> tabelaEmRedimensionamento(int[] chaves) {
+		
+		TabelaHash<Integer, String> tabela = new TabelaHash<>(16, 0.75);
+		
+		for (int chave : chaves)
+			tabela.inserir(chave, "valor");
+		if (!tabela.redimensionando())
+			throw new IllegalStateException("A tabela deveria estar sendo redimensionada.");
+		return tabela;
+	}
+	
+	/**
+	 * Sorteia chaves para pesquisa: metade dentro do intervalo [primeira, primeira + quantidade) e metade fora dele.
+	 */
+	private static int[] sortearPesquisas(int primeira, int quantidade, int quantasPesquisas, Random sorteio) {
+		
+		int[] pesquisas = new int[quantasPesquisas];
+		
+		for (int i = 0; i < quantasPesquisas; i++) {
+			if (sorteio.nextBoolean())
+				pesquisas[i] = primeira + sorteio.nextInt(quantidade);
+			else
+				pesquisas[i] = primeira + quantidade + sorteio.nextInt(quantidade);
+		}
+		return pesquisas;
+	}
+}
@@ -0,0 +1,271 @@
+import java.io.IOException;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+
+/**
+ * Filtro de Bloom posicionado à frente de um mapeamento qualquer, para acelerar as pesquisas sem sucesso.
+ * Cada chave inserida marca "quantidadeFuncoes" bits de um vetor de bits. Se algum dos bits de uma chave pesquisada
+ * estiver desmarcado, a chave certamente não está no mapeamento: a pesquisa termina sem consultá-lo.
+ * Caso contrário, a chave provavelmente está presente e o mapeamento é consultado (com uma taxa de falsos positivos
+ * próxima da configurada, enquanto a quantidade de chaves não ultrapassar a esperada).
+ * O filtro não suporta remoção: os bits de uma chave removida permanecem marcados, o que apenas aumenta os falsos positivos.
+ * Os bits são marcados atomicamente, de modo que o filtro pode envolver um mapeamento concorrente.
+ * A contagem de pesquisas evitadas também é segura para várias threads; já as métricas de {@link IMedicao}
+ * referem-se à última pesquisa e, como em qualquer mapeamento, não são sincronizadas.
+ */
+public class FiltroBloom<K, V> implements IMapeamento<K, V> {
+
+	private final IMapeamento<K, V> mapeamento; /// mapeamento protegido pelo filtro.
+	private final AtomicLongArray bits;
+	private final long quantidadeBits;
+	private final int quantidadeFuncoes;
+	private final AtomicInteger chavesRegistradas = new AtomicInteger();
+	private final LongAdder pesquisasEvitadas = new LongAdder(); /// incrementada por várias threads, sem disputa por uma única variável.
+
+	private long comparacoes;
+	private long inicio;
+	private long termino;
+
+	/**
+	 * Construtor da classe.
+	 * O vetor de bits e a quantidade de funções hash são dimensionados para que, com a quantidade de chaves esperada,
+	 * a taxa de falsos positivos seja a informada: m = -n ln(p) / (ln 2)^2 bits e k = (m / n) ln 2 funções.
+	 * Chaves que já estejam no mapeamento devem ser registradas com {@link #registrar(Object)}.
+	 * @param mapeamento: mapeamento a ser protegido pelo filtro.
+	 * @param quantidadeEsperada: quantidade de chaves esperada.
+	 * @param taxaFalsosPositivos: taxa de falsos positivos desejada (entre 0 e 1, exclusive).
+	 * @throws IllegalArgumentException caso a quantidade esperada não seja positiva ou a taxa seja inválida.
+	 */
+	public FiltroBloom(IMapeamento<K, V> mapeamento, int quantidadeEsperada, double taxaFalsosPositivos) {
+
+		if (quantidadeEsperada < 1)
+			throw new IllegalArgumentException("A quantidade esperada de chaves não pode ser menor do que 1.");
+		if (!(taxaFalsosPositivos > 0 && taxaFalsosPositivos < 1))
+			throw new IllegalArgumentException("A taxa de falsos positivos deve estar entre 0 e 1.");
+
+		long palavras;
+
+		this.mapeamento = mapeamento;
+		palavras = (long) Math.ceil(-quantidadeEsperada * Math.log(taxaFalsosPositivos) / (Math.log(2) * Math.log(2)) / Long.SIZE);
+		palavras = Math.max(1, Math.min(Integer.MAX_VALUE, palavras));
+		this.bits = new AtomicLongArray((int) palavras);
+		this.quantidadeBits = palavras * Long.SIZE;
+		this.quantidadeFuncoes = (int) Math.max(1, Math.round((double) quantidadeBits / quantidadeEsperada * Math.log(2)));
+	}
+
+	private static long misturar(long h) {
+
+		h ^= h >>> 33;
+		h *= 0xFF51AFD7ED558CCDL;
+		h ^= h >>> 33;
+		h *= 0xC4CEB9FE1A85EC53L;
+		h ^= h >>> 33;
+		return h;
+	}
+
+	/**
+	 * Posição do i-ésimo bit da chave, por hashing duplo: h1 + i * h2, com os dois hashes extraídos de uma única mistura de 64 bits.
+	 */
+	private long posicaoBit(long hash, int i) {
+
+		int h1 = (int) hash;
+		int h2 = (int) (hash >>> 32) | 1;
+
+		return Math.floorMod((long) h1 + (long) i * h2, quantidadeBits);
+	}
+
+	/**
+	 * Indica se a chave pode estar no mapeamento. Retorna falso apenas quando ela certamente não está.
+	 */
+	public boolean podeConter(K chave) {
+
+		long hash = misturar(chave.hashCode());
+		long posicao;
+
+		for (int i = 0; i < quantidadeFuncoes; i++) {
+			posicao = posicaoBit(hash, i);
+			if ((bits.get((int) (posicao >>> 6)) & (1L << posicao)) == 0)
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Marca os bits da chave no filtro, sem alterar o mapeamento.
+	 * Deve ser usado para as chaves que já estavam no mapeamento quando ele foi envolvido pelo filtro.
+	 * @param chave: chave presente no mapeamento.
+	 */
+	public void registrar(K chave) {
+
+		long hash = misturar(chave.hashCode());
+		boolean novaChave = false; /// uma chave já registrada não marca nenhum bit novo e não é contada outra vez.
+
+		for (int i = 0; i < quantidadeFuncoes; i++) {
+			if (marcar(posicaoBit(hash, i)))
+				novaChave = true;
+		}
+		if (novaChave)
+			chavesRegistradas.incrementAndGet();
+	}
+
+	/**
+	 * Marca atomicamente o bit informado.
+	 * @return verdadeiro se o bit estava desmarcado.
+	 */
+	private boolean marcar(long posicao) {
+
+		int indice = (int) (posicao >>> 6);
+		long mascara = 1L << posicao;
+		long palavra;
+
+		do {
+			palavra = bits.get(indice);
+			if ((palavra & mascara) != 0)
+				return false;
+		} while (!bits.compareAndSet(indice, palavra, palavra | mascara));
+		return true;
+	}
+
+	/**
+	 * Insere o item no mapeamento e registra sua chave no filtro.
+	 * @return o valor retornado pela inserção no mapeamento.
+	 */
+	@Override
+	public int inserir(K chave, V item) {
+
+		int resultado = mapeamento.inserir(chave, item);
+
+		registrar(chave);
+		return resultado;
+	}
+
+	/**
+	 * Pesquisa o item associado à chave, consultando o mapeamento apenas se o filtro indicar que a chave pode estar presente.
+	 * @throws NoSuchElementException caso o item não seja localizado.
+	 */
+	@Override
+	public V pesquisar(K chave) {
+
+		V item;
+
+		inicio = System.nanoTime();
+		if (!podeConter(chave)) {
+			pesquisasEvitadas.increment();
+			comparacoes = 0;
+			termino = System.nanoTime();
+			throw new NoSuchElementException("O item não foi localizado!");
+		}
+		item = mapeamento.pesquisar(chave);
+		comparacoes = mapeamento.getComparacoes();
+		termino = System.nanoTime();
+		return item;
+	}
+
+	/**
+	 * Pesquisa o item associado à chave, retornando o valor padrão sem consultar o mapeamento
+	 * quando o filtro indicar que a chave certamente não está presente.
+	 */
+	@Override
+	public V pesquisar(K chave, V valorPadrao) {
+
+		V item;
+
+		inicio = System.nanoTime();
+		if (!podeConter(chave)) {
+			pesquisasEvitadas.increment();
+			comparacoes = 0;
+			item = valorPadrao;
+		} else {
+			item = mapeamento.pesquisar(chave, valorPadrao);
+			comparacoes = mapeamento.getComparacoes();
+		}
+		termino = System.nanoTime();
+		return item;
+	}
+
+	@Override
+	public boolean contem(K chave) {
+		return podeConter(chave) && mapeamento.contem(chave);
+	}
+
+	/**
+	 * Remove o item do mapeamento. Os bits da chave permanecem marcados no filtro.
+	 * @throws NoSuchElementException caso o item não seja localizado.
+	 */
+	@Override
+	public V remover(K chave) {
+
+		if (!podeConter(chave))
+			throw new NoSuchElementException("O item a ser removido não foi localizado!");
+		return mapeamento.remover(chave);
+	}
+
+	/**
+	 * Calcula o item associado à chave no mapeamento. Se a chave ficar associada a um item, ela é registrada no filtro.
+	 */
+	@Override
+	public V calcular(K chave, BiFunction<? super K, ? super V, ? extends V> funcaoRemapeamento) {
+
+		V novoItem = mapeamento.calcular(chave, funcaoRemapeamento);
+
+		if (novoItem != null)
+			registrar(chave);
+		return novoItem;
+	}
+
+	@Override
+	public int tamanho() {
+		return mapeamento.tamanho();
+	}
+
+	@Override
+	public void percorrer(Appendable destino) throws IOException {
+		mapeamento.percorrer(destino);
+	}
+
+	@Override
+	public String toString() {
+		return percorrer();
+	}
+
+	/**
+	 * Retorna a quantidade de pesquisas respondidas apenas pelo filtro, sem consulta ao mapeamento.
+	 */
+	public long getPesquisasEvitadas() {
+		return pesquisasEvitadas.sum();
+	}
+
+	/**
+	 * Retorna a taxa de falsos positivos estimada para a quantidade de chaves já registradas: (1 - e^(-k n / m))^k.
+	 */
+	public double getTaxaFalsosPositivosEstimada() {
+		return Math.pow(1 - Math.exp(-(double) quantidadeFuncoes * chavesRegistradas.get() / quantidadeBits), quantidadeFuncoes);
+	}
+
+	/**
+	 * Retorna a quantidade de funções hash (bits marcados por chave) do filtro.
+	 */
+	public int getQuantidadeFuncoes() {
+		return quantidadeFuncoes;
+	}
+
+	/**
+	 * Retorna o mapeamento protegido pelo filtro.
+	 */
+	public IMapeamento<K, V> getMapeamento() {
+		return mapeamento;
+	}
+
+	@Override
+	public long getComparacoes() {
+		return comparacoes;
+	}
+
+	@Override
+	public double getTempo() {
+		return (termino - inicio) / 1_000_000;
+	}
+}
@@ -1,6 +1,8 @@
+import java.util.concurrent.atomic.AtomicInteger;
+
 public class Fornecedor {
 
-    private static int ultimoID = 10000; // Contador estático conforme PDF [cite: 32]
+    private static final AtomicInteger ultimoID = new AtomicInteger(10000); // Contador estático conforme PDF [cite: 32]
     private int documento;
     private String nome;
     private Lista<Produto> produtos; // Estrutura escolhida para armazenar os produtos [cite: 33]
@@ -17,7 +19,7 @@ public class Fornecedor {
         
         this.nome = nome;
         // Gera documento sequencialmente [cite: 26]
-        this.documento = ++ultimoID; 
+        this.documento = ultimoID.incrementAndGet(); 
         this.produtos = new Lista<>();
     }
 
@@ -0,0 +1,32 @@
+/**
+ * Função de transformação pelo método da divisão: a posição é o resto da divisão do código hash pela capacidade.
+ * A capacidade é ajustada para um número primo, o que reduz as colisões de chaves com padrões regulares.
+ * Com chaves sequenciais, a distribuição é perfeita; o custo é uma divisão inteira por operação.
+ */
+public class HashDivisao implements IFuncaoHash {
+
+	@Override
+	public int ajustarCapacidade(int capacidade) {
+		
+		boolean primo;
+		
+		while (true) {
+			primo = (capacidade > 1);
+			for (int divisor = 2; primo && ((long) divisor * divisor <= capacidade); divisor++)
+				primo = (capacidade % divisor != 0);
+			if (primo)
+				return capacidade;
+			capacidade++;
+		}
+	}
+	
+	@Override
+	public int posicao(int codigoHash, int capacidade) {
+		return Math.abs(codigoHash % capacidade);
+	}
+	
+	@Override
+	public String toString() {
+		return "Divisão";
+	}
+}
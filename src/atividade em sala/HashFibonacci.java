@@ -0,0 +1,29 @@
+/**
+ * Função de transformação pelo método da multiplicação (hash de Fibonacci).
+ * O código hash é multiplicado por 2^32 dividido pela razão áurea e a posição corresponde aos bits mais significativos do produto.
+ * A capacidade é ajustada para uma potência de 2, de modo que não há divisão: apenas uma multiplicação e um deslocamento.
+ */
+public class HashFibonacci implements IFuncaoHash {
+
+	private static final int CONSTANTE_FIBONACCI = 0x9E3779B9;
+	
+	@Override
+	public int ajustarCapacidade(int capacidade) {
+		
+		int potencia = 2;
+		
+		while (potencia < capacidade)
+			potencia <<= 1;
+		return potencia;
+	}
+	
+	@Override
+	public int posicao(int codigoHash, int capacidade) {
+		return (codigoHash * CONSTANTE_FIBONACCI) >>> (32 - Integer.numberOfTrailingZeros(capacidade));
+	}
+	
+	@Override
+	public String toString() {
+		return "Fibonacci";
+	}
+}
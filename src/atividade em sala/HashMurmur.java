@@ -0,0 +1,63 @@
+import java.security.SecureRandom;
+
+/**
+ * Função de transformação baseada na etapa final de mistura do MurmurHash3 (fmix32).
+ * Todos os bits do código hash influenciam todos os bits do resultado, e a posição é obtida por máscara,
+ * já que a capacidade é ajustada para uma potência de 2.
+ * Com uma semente aleatória, a distribuição das chaves não pode ser prevista por quem as escolhe,
+ * o que protege a tabela de conjuntos de chaves montados para colidir.
+ */
+public class HashMurmur implements IFuncaoHash {
+
+	private final int semente;
+	
+	/**
+	 * Construtor da classe, sem semente.
+	 */
+	public HashMurmur() {
+		this(0);
+	}
+	
+	/**
+	 * Construtor da classe.
+	 * @param semente valor combinado ao código hash antes da mistura.
+	 */
+	public HashMurmur(int semente) {
+		this.semente = semente;
+	}
+	
+	/**
+	 * Cria uma função de transformação com uma semente sorteada de forma imprevisível.
+	 */
+	public static HashMurmur comSementeAleatoria() {
+		return new HashMurmur(new SecureRandom().nextInt());
+	}
+	
+	@Override
+	public int ajustarCapacidade(int capacidade) {
+		
+		int potencia = 2;
+		
+		while (potencia < capacidade)
+			potencia <<= 1;
+		return potencia;
+	}
+	
+	@Override
+	public int posicao(int codigoHash, int capacidade) {
+		
+		int h = codigoHash ^ semente;
+		
+		h ^= h >>> 16;
+		h *= 0x85EBCA6B;
+		h ^= h >>> 13;
+		h *= 0xC2B2AE35;
+		h ^= h >>> 16;
+		return h & (capacidade - 1);
+	}
+	
+	@Override
+	public String toString() {
+		return (semente == 0) ? "Murmur3" : "Murmur3 com semente";
+	}
+}
@@ -0,0 +1,21 @@
+/**
+ * Estratégia de transformação de uma tabela hash: converte o código hash de uma chave em uma posição da tabela.
+ * Cada estratégia também define quais capacidades aceita (por exemplo, apenas números primos ou potências de 2).
+ */
+public interface IFuncaoHash {
+
+	/**
+	 * Ajusta a capacidade desejada para a menor capacidade, maior ou igual a ela, aceita por esta função de transformação.
+	 * @param capacidade a capacidade desejada (positiva).
+	 * @return a capacidade que deve ser usada pela tabela.
+	 */
+	public int ajustarCapacidade(int capacidade);
+	
+	/**
+	 * Calcula a posição da tabela correspondente ao código hash informado.
+	 * @param codigoHash o código hash da chave.
+	 * @param capacidade a capacidade da tabela, previamente ajustada por {@link #ajustarCapacidade(int)}.
+	 * @return a posição, entre 0 e capacidade - 1.
+	 */
+	public int posicao(int codigoHash, int capacidade);
+}
@@ -1,8 +1,101 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
 public interface IMapeamento<K, V> extends IMedicao {
 
     public int inserir(K chave, V item);
     public V pesquisar(K chave);
+    /**
+     * Pesquisa o item associado à chave sem lançar exceção quando a chave não está presente.
+     * @param chave a chave do item procurado.
+     * @param valorPadrao o valor retornado caso a chave não seja localizada (pode ser null).
+     * @return o item associado à chave, ou valorPadrao caso a chave não seja localizada.
+     */
+    public V pesquisar(K chave, V valorPadrao);
+    /**
+     * Indica se existe um item associado à chave informada.
+     * @param chave a chave procurada.
+     * @return verdadeiro se a chave estiver presente; falso caso contrário.
+     */
+    public boolean contem(K chave);
     public V remover(K chave);
     public int tamanho();
-    public String percorrer();
+    
+    /**
+     * Escreve o conteúdo do mapeamento no destino informado, item a item, sem montá-lo antes em memória.
+     * O tempo é linear no tamanho do conteúdo; o destino (um Writer, por exemplo) pode gravá-lo diretamente em arquivo.
+     * @param destino onde o conteúdo será escrito.
+     * @throws IOException caso ocorra um erro de escrita no destino.
+     */
+    public void percorrer(Appendable destino) throws IOException;
+    
+    /**
+     * Retorna o conteúdo do mapeamento, em string, montado por {@link #percorrer(Appendable)} em um único StringBuilder.
+     */
+    public default String percorrer() {
+    	
+    	StringBuilder conteudo = new StringBuilder();
+    	
+    	try {
+    		percorrer(conteudo);
+    	} catch (IOException e) {
+    		throw new UncheckedIOException(e); /// não ocorre: StringBuilder não lança IOException.
+    	}
+    	return conteudo.toString();
+    }
+    
+    /**
+     * Escreve o conteúdo do mapeamento no fluxo informado, em UTF-8, com escrita bufferizada.
+     * O fluxo é descarregado (flush), mas não é fechado.
+     * @param saida fluxo onde o conteúdo será escrito.
+     * @throws IOException caso ocorra um erro de escrita no fluxo.
+     */
+    public default void percorrer(OutputStream saida) throws IOException {
+    	
+    	BufferedWriter escritor = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8));
+    	
+    	percorrer(escritor);
+    	escritor.flush();
+    }
+    
+    /**
+     * Calcula, em uma única pesquisa pela chave, o novo item associado a ela.
+     * A função recebe a chave e o item atual (ou null, caso a chave não esteja presente).
+     * Se a função retornar null, a chave é retirada do mapeamento (caso esteja presente);
+     * caso contrário, o item retornado passa a ser associado à chave.
+     * @param chave a chave cujo item será calculado.
+     * @param funcaoRemapeamento função que calcula o novo item a partir da chave e do item atual.
+     * @return o novo item associado à chave, ou null caso a chave tenha ficado sem item.
+     */
+    public V calcular(K chave, BiFunction<? super K, ? super V, ? extends V> funcaoRemapeamento);
+    
+    /**
+     * Retorna o item associado à chave; caso a chave não esteja presente, 
+     * cria o item por meio da função informada e o insere, na mesma pesquisa.
+     * @param chave a chave procurada.
+     * @param funcaoMapeamento função que cria o item a partir da chave, caso ela não esteja presente.
+     * @return o item associado à chave (o já existente ou o recém-criado).
+     */
+    public default V calcularSeAusente(K chave, Function<? super K, ? extends V> funcaoMapeamento) {
+    	return calcular(chave, (k, atual) -> (atual != null) ? atual : funcaoMapeamento.apply(k));
+    }
+    
+    /**
+     * Associa o item informado à chave, caso ela não esteja presente; 
+     * caso contrário, combina o item atual e o informado por meio da função de combinação.
+     * Se a função de combinação retornar null, a chave é retirada do mapeamento.
+     * @param chave a chave cujo item será combinado.
+     * @param item o item a ser associado ou combinado.
+     * @param funcaoCombinacao função que combina o item atual (primeiro parâmetro) e o informado (segundo parâmetro).
+     * @return o novo item associado à chave, ou null caso a chave tenha ficado sem item.
+     */
+    public default V mesclar(K chave, V item, BiFunction<? super V, ? super V, ? extends V> funcaoCombinacao) {
+    	return calcular(chave, (k, atual) -> (atual == null) ? item : funcaoCombinacao.apply(atual, item));
+    }
 }
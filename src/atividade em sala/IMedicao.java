@@ -1,3 +1,8 @@
+/**
+ * Métricas da última operação executada sobre a estrutura: quantidade de comparações e tempo, em milissegundos.
+ * As métricas não são seguras para uso concorrente: se várias threads operam sobre a mesma estrutura,
+ * os valores lidos podem misturar operações de threads diferentes.
+ */
 public interface IMedicao {
     
 	public long getComparacoes();
@@ -0,0 +1,417 @@
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Índice de itens organizado por um valor numérico extraído de cada item (por exemplo, o valor de venda de um produto).
+ * É uma árvore AVL cujos nós guardam, além do item, os agregados da sua sub-árvore: quantidade de itens,
+ * soma, menor e maior valor. Assim, perguntas sobre uma faixa de valores ("quanto somam os produtos entre R$ 5 e R$ 10?")
+ * são respondidas em O(log n), combinando os agregados de O(log n) sub-árvores, sem visitar os itens da faixa.
+ * O balanceamento é o da classe AVL: os agregados são recalculados pelos próprios nós, sempre que seus filhos mudam.
+ * Vários itens podem ter o mesmo valor: empates são desfeitos pelo comparador de desempate, que deve distinguir
+ * quaisquer dois itens diferentes.
+ */
+public class IndiceAgregado<V> implements IMedicao {
+
+	/**
+	 * Chave da árvore: o valor extraído do item, guardado no momento da inserção, e o próprio item, para o desempate.
+	 */
+	private static final class Chave<V> {
+
+		private final double valor;
+		private final V item;
+
+		Chave(double valor, V item) {
+			this.valor = valor;
+			this.item = item;
+		}
+	}
+
+	/**
+	 * Nó da árvore que mantém, além da altura e do tamanho, a soma, o menor e o maior valor da sub-árvore.
+	 * A quantidade de itens da sub-árvore é o tamanho mantido pela classe No.
+	 */
+	private static final class NoAgregado<V> extends No<Chave<V>, V> {
+
+		private double soma;     // soma dos valores da sub-árvore.
+		private double minimo;   // menor valor da sub-árvore (o do nó mais à esquerda).
+		private double maximo;   // maior valor da sub-árvore (o do nó mais à direita).
+
+		NoAgregado(Chave<V> chave, V item) {
+			super(chave, item);
+			setTamanho();
+		}
+
+		/// Recalcula o tamanho e os agregados a partir dos filhos, que já devem estar atualizados.
+		@Override
+		public void setTamanho() {
+
+			NoAgregado<V> esquerda = esquerda();
+			NoAgregado<V> direita = direita();
+
+			super.setTamanho();
+			soma = valor();
+			minimo = valor();
+			maximo = valor();
+			if (esquerda != null) {
+				soma += esquerda.soma;
+				minimo = esquerda.minimo;
+			}
+			if (direita != null) {
+				soma += direita.soma;
+				maximo = direita.maximo;
+			}
+		}
+
+		double valor() {
+			return getChave().valor;
+		}
+
+		/// Todos os nós da árvore são criados por ArvoreAgregada.criarNo: os filhos são sempre NoAgregado.
+		NoAgregado<V> esquerda() {
+			return (NoAgregado<V>) getEsquerda();
+		}
+
+		NoAgregado<V> direita() {
+			return (NoAgregado<V>) getDireita();
+		}
+	}
+
+	/**
+	 * Árvore AVL cujos nós são NoAgregado. Inserções, remoções e rotações são as da classe AVL.
+	 */
+	private static final class ArvoreAgregada<V> extends AVL<Chave<V>, V> {
+
+		ArvoreAgregada(Comparator<Chave<V>> comparador) {
+			super(comparador);
+		}
+
+		@Override
+		protected No<Chave<V>, V> criarNo(Chave<V> chave, V item) {
+			return new NoAgregado<>(chave, item);
+		}
+
+		NoAgregado<V> raiz() {
+			return (NoAgregado<V>) getRaiz();
+		}
+	}
+
+	/**
+	 * Resultado de uma agregação sobre uma faixa de valores: quantidade de itens, soma, menor e maior valor.
+	 * Para uma faixa sem itens, a quantidade e a soma são 0, e o menor e o maior valor são NaN.
+	 */
+	public static final class Agregado {
+
+		private int quantidade;
+		private double soma;
+		private double minimo = Double.NaN;
+		private double maximo = Double.NaN;
+
+		private Agregado() {
+		}
+
+		/// Acrescenta os agregados de uma sub-árvore inteira. As partes são acrescentadas em ordem crescente de valor.
+		private void acrescentar(NoAgregado<?> subarvore) {
+			if (subarvore != null)
+				acrescentar(subarvore.getTamanho(), subarvore.soma, subarvore.minimo, subarvore.maximo);
+		}
+
+		/// Acrescenta apenas o valor do nó, sem as suas sub-árvores.
+		private void acrescentarNo(NoAgregado<?> no) {
+			acrescentar(1, no.valor(), no.valor(), no.valor());
+		}
+
+		private void acrescentar(int quantidade, double soma, double minimo, double maximo) {
+			if (this.quantidade == 0)
+				this.minimo = minimo;
+			this.maximo = maximo;
+			this.quantidade += quantidade;
+			this.soma += soma;
+		}
+
+		public int getQuantidade() {
+			return quantidade;
+		}
+
+		public double getSoma() {
+			return soma;
+		}
+
+		public double getMinimo() {
+			return minimo;
+		}
+
+		public double getMaximo() {
+			return maximo;
+		}
+
+		/**
+		 * Retorna a média dos valores da faixa, ou NaN caso a faixa não tenha itens.
+		 */
+		public double getMedia() {
+			return (quantidade > 0) ? soma / quantidade : Double.NaN;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("quantidade: %d, soma: %.2f, mínimo: %.2f, máximo: %.2f, média: %.2f",
+					quantidade, soma, minimo, maximo, getMedia());
+		}
+	}
+
+	private final ArvoreAgregada<V> arvore;
+	private final ToDoubleFunction<? super V> extrator;
+
+	private long comparacoes;
+	private long inicio;
+	private long termino;
+
+	/**
+	 * Construtor da classe. Empates de valor são desfeitos pela ordem natural dos itens.
+	 * @param extrator: função que extrai, de cada item, o valor pelo qual ele é indexado.
+	 */
+	@SuppressWarnings("unchecked")
+	public IndiceAgregado(ToDoubleFunction<? super V> extrator) {
+		this(extrator, (Comparator<? super V>) Comparator.naturalOrder());
+	}
+
+	/**
+	 * Construtor da classe.
+	 * @param extrator: função que extrai, de cada item, o valor pelo qual ele é indexado.
+	 * @param desempate: comparador que ordena itens de mesmo valor. Deve retornar 0 apenas para o mesmo item.
+	 */
+	public IndiceAgregado(ToDoubleFunction<? super V> extrator, Comparator<? super V> desempate) {
+		this.extrator = extrator;
+		/// Compara primeiro pelo valor guardado na chave, depois pelo desempate; cada comparação é contabilizada.
+		this.arvore = new ArvoreAgregada<>((chave1, chave2) -> {
+			int comparacao = Double.compare(chave1.valor, chave2.valor);
+
+			comparacoes++;
+			return (comparacao != 0) ? comparacao : desempate.compare(chave1.item, chave2.item);
+		});
+	}
+
+	/**
+	 * Insere o item no índice, pelo valor extraído dele.
+	 * @param item: item a ser inserido.
+	 * @return a quantidade de itens do índice após a inserção.
+	 * @throws IllegalArgumentException caso o item seja nulo, seu valor seja NaN, ou ele já esteja no índice.
+	 */
+	public int inserir(V item) {
+
+		double valor;
+
+		if (item == null)
+			throw new IllegalArgumentException("O item não pode ser nulo.");
+		valor = extrator.applyAsDouble(item);
+		if (Double.isNaN(valor))
+			throw new IllegalArgumentException("O valor do item não pode ser NaN.");
+
+		comparacoes = 0;
+		return arvore.inserir(new Chave<>(valor, item), item);
+	}
+
+	/**
+	 * Remove o item do índice. O valor extraído do item deve ser o mesmo de quando ele foi inserido.
+	 * @param item: item a ser removido.
+	 * @return o item removido, tal como estava armazenado no índice.
+	 * @throws NoSuchElementException caso o item não esteja no índice.
+	 */
+	public V remover(V item) {
+
+		comparacoes = 0;
+		return arvore.remover(new Chave<>(extrator.applyAsDouble(item), item));
+	}
+
+	/**
+	 * Agrega (quantidade, soma, menor e maior valor) os itens cujos valores estão entre os limites informados, em O(log n).
+	 * A descida separa-se no primeiro nó da faixa: à esquerda dele, cada nó da faixa contribui com sua sub-árvore direita
+	 * inteira; à direita, com sua sub-árvore esquerda inteira. Nenhum item da faixa é visitado individualmente.
+	 * @param minimo: limite inferior da faixa (Double.NEGATIVE_INFINITY para não limitar).
+	 * @param incluirMinimo: indica se o limite inferior pertence à faixa.
+	 * @param maximo: limite superior da faixa (Double.POSITIVE_INFINITY para não limitar).
+	 * @param incluirMaximo: indica se o limite superior pertence à faixa.
+	 * @return os agregados da faixa.
+	 * @throws IllegalArgumentException caso algum limite seja NaN ou o limite inferior seja maior do que o superior.
+	 */
+	public Agregado agregar(double minimo, boolean incluirMinimo, double maximo, boolean incluirMaximo) {
+
+		Agregado agregado = new Agregado();
+		NoAgregado<V> divisao;
+		NoAgregado<V> no;
+
+		if (Double.isNaN(minimo) || Double.isNaN(maximo) || minimo > maximo)
+			throw new IllegalArgumentException("A faixa de valores informada é inválida.");
+
+		comparacoes = 0;
+		inicio = System.nanoTime();
+
+		/// Localiza o nó de divisão: o primeiro, a partir da raiz, cujo valor está dentro da faixa.
+		divisao = arvore.raiz();
+		while (divisao != null && !dentro(divisao.valor(), minimo, incluirMinimo, maximo, incluirMaximo)) {
+			if (abaixo(divisao.valor(), minimo, incluirMinimo))
+				divisao = divisao.direita();
+			else
+				divisao = divisao.esquerda();
+		}
+
+		if (divisao != null) {
+			/// Lado esquerdo: cada nó a partir do limite inferior entra com sua sub-árvore direita, e a descida segue à esquerda.
+			acrescentarEsquerda(divisao.esquerda(), minimo, incluirMinimo, agregado);
+			agregado.acrescentarNo(divisao);
+			/// Lado direito: cada nó abaixo do limite superior entra com sua sub-árvore esquerda, e a descida segue à direita.
+			for (no = divisao.direita(); no != null; ) {
+				if (acima(no.valor(), maximo, incluirMaximo))
+					no = no.esquerda();
+				else {
+					agregado.acrescentar(no.esquerda());
+					agregado.acrescentarNo(no);
+					no = no.direita();
+				}
+			}
+		}
+		termino = System.nanoTime();
+		return agregado;
+	}
+
+	/**
+	 * Acrescenta, em ordem crescente, os itens da sub-árvore cujos valores não estão abaixo do limite inferior.
+	 * A recursão segue um único caminho, de altura logarítmica; os pedaços à direita são acrescentados na volta.
+	 */
+	private void acrescentarEsquerda(NoAgregado<V> no, double minimo, boolean incluirMinimo, Agregado agregado) {
+
+		if (no == null)
+			return;
+		if (abaixo(no.valor(), minimo, incluirMinimo))
+			acrescentarEsquerda(no.direita(), minimo, incluirMinimo, agregado);
+		else {
+			acrescentarEsquerda(no.esquerda(), minimo, incluirMinimo, agregado);
+			agregado.acrescentarNo(no);
+			agregado.acrescentar(no.direita());
+		}
+	}
+
+	/**
+	 * Agrega os itens cujos valores estão na faixa fechada [minimo, maximo].
+	 */
+	public Agregado agregar(double minimo, double maximo) {
+		return agregar(minimo, true, maximo, true);
+	}
+
+	/**
+	 * Retorna a soma dos valores dos itens na faixa fechada [minimo, maximo], em O(log n).
+	 */
+	public double somar(double minimo, double maximo) {
+		return agregar(minimo, maximo).getSoma();
+	}
+
+	/**
+	 * Retorna a quantidade de itens na faixa fechada [minimo, maximo], em O(log n).
+	 */
+	public int contar(double minimo, double maximo) {
+		return agregar(minimo, maximo).getQuantidade();
+	}
+
+	private boolean abaixo(double valor, double minimo, boolean incluirMinimo) {
+		comparacoes++;
+		return (valor < minimo || (valor == minimo && !incluirMinimo));
+	}
+
+	private boolean acima(double valor, double maximo, boolean incluirMaximo) {
+		comparacoes++;
+		return (valor > maximo || (valor == maximo && !incluirMaximo));
+	}
+
+	private boolean dentro(double valor, double minimo, boolean incluirMinimo, double maximo, boolean incluirMaximo) {
+		return !abaixo(valor, minimo, incluirMinimo) && !acima(valor, maximo, incluirMaximo);
+	}
+
+	/**
+	 * Retorna o item de menor valor a partir do valor informado (por exemplo, "o produto mais barato acima de R$ 5"), em O(log n).
+	 * Entre itens de mesmo valor, retorna o primeiro pela ordem de desempate.
+	 * @param valor: valor de referência.
+	 * @param incluirValor: indica se itens com exatamente o valor de referência podem ser retornados.
+	 * @return o item encontrado, ou null caso nenhum item esteja a partir do valor.
+	 */
+	public V menorAPartirDe(double valor, boolean incluirValor) {
+
+		NoAgregado<V> no = arvore.raiz();
+		NoAgregado<V> candidato = null;
+
+		comparacoes = 0;
+		inicio = System.nanoTime();
+		while (no != null) {
+			if (abaixo(no.valor(), valor, incluirValor))
+				no = no.direita();
+			else {
+				candidato = no;
+				no = no.esquerda();
+			}
+		}
+		termino = System.nanoTime();
+		return (candidato != null) ? candidato.getItem() : null;
+	}
+
+	/**
+	 * Retorna o item de maior valor até o valor informado (por exemplo, "o produto mais caro abaixo de R$ 10"), em O(log n).
+	 * Entre itens de mesmo valor, retorna o último pela ordem de desempate.
+	 * @param valor: valor de referência.
+	 * @param incluirValor: indica se itens com exatamente o valor de referência podem ser retornados.
+	 * @return o item encontrado, ou null caso nenhum item esteja até o valor.
+	 */
+	public V maiorAte(double valor, boolean incluirValor) {
+
+		NoAgregado<V> no = arvore.raiz();
+		NoAgregado<V> candidato = null;
+
+		comparacoes = 0;
+		inicio = System.nanoTime();
+		while (no != null) {
+			if (acima(no.valor(), valor, incluirValor))
+				no = no.esquerda();
+			else {
+				candidato = no;
+				no = no.direita();
+			}
+		}
+		termino = System.nanoTime();
+		return (candidato != null) ? candidato.getItem() : null;
+	}
+
+	/**
+	 * Retorna os agregados de todo o índice, em O(1).
+	 */
+	public Agregado total() {
+
+		Agregado agregado = new Agregado();
+
+		agregado.acrescentar(arvore.raiz());
+		return agregado;
+	}
+
+	/**
+	 * Executa a ação informada para cada item do índice, em ordem crescente de valor.
+	 */
+	public void paraCada(Consumer<? super V> acao) {
+		arvore.paraCada(acao);
+	}
+
+	public int tamanho() {
+		return arvore.tamanho();
+	}
+
+	public boolean vazio() {
+		return arvore.vazia();
+	}
+
+	@Override
+	public long getComparacoes() {
+		return comparacoes;
+	}
+
+	@Override
+	public double getTempo() {
+		return (termino - inicio) / 1_000_000;
+	}
+}
@@ -0,0 +1,388 @@
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.function.BiFunction;
+
+/**
+ * Índice com função hash perfeita mínima (algoritmo CHD: "comprimir, hash e deslocar"), construído uma única vez
+ * a partir das chaves de uma árvore de busca.
+ * As n chaves são distribuídas em baldes de, em média, CHAVES_POR_BALDE chaves. Para cada balde, dos maiores para os menores,
+ * procura-se um deslocamento que leve todas as suas chaves a posições ainda livres de um vetor com exatamente n posições.
+ * Apenas os deslocamentos (16 bits por balde) compõem a função: cerca de 16 / CHAVES_POR_BALDE bits por chave.
+ * Os poucos baldes acomodados por último, quando restam poucas posições livres, podem precisar de deslocamentos maiores:
+ * esses são guardados à parte, em uma tabela hash pequena.
+ * Uma pesquisa calcula a única posição possível da chave e confirma a chave armazenada nela com uma comparação.
+ * A árvore de origem continua sendo o mapeamento completo: chaves inseridas depois da construção (ou que não puderam ser
+ * indexadas, por terem o mesmo código hash de outra) são armazenadas nela e pesquisadas nela quando a posição calculada não confirma a chave.
+ */
+public class IndicePerfeito<K, V> implements IMapeamento<K, V> {
+
+	/// Quantidade média de chaves por balde: valores maiores economizam memória e tornam a construção mais lenta.
+	private static final int CHAVES_POR_BALDE = 5;
+
+	/// Marca, no vetor de deslocamentos, um balde cujo deslocamento não cabe em 16 bits e está na tabela de deslocamentos grandes.
+	private static final char DESLOCAMENTO_GRANDE = Character.MAX_VALUE;
+
+	/// Deslocamentos testados para um balde, em múltiplos da quantidade de chaves, antes de desistir da semente.
+	private static final int TENTATIVAS_POR_CHAVE = 64;
+
+	private static final int MAXIMO_TENTATIVAS = 16;
+
+	/// Constante de Fibonacci (2^32 / razão áurea), separa as sequências de posições geradas por deslocamentos diferentes.
+	private static final int CONSTANTE_FIBONACCI = 0x9E3779B9;
+
+	private ABB<K, V> arvore;          /// mapeamento completo, consultado quando a chave não está no índice.
+	private Object[] chaves;           /// chaves indexadas, cada uma na posição dada pela função perfeita.
+	private Object[] valores;          /// valores associados às chaves, na mesma posição.
+	private char[] deslocamentos;      /// deslocamento escolhido para cada balde.
+	private TabelaHashAberta<Integer, Integer> deslocamentosGrandes; /// deslocamentos dos baldes marcados com DESLOCAMENTO_GRANDE.
+	private int semente;               /// semente das funções hash, sorteada novamente se a construção falhar.
+	private int quantidadeIndexada;    /// quantidade de chaves indexadas (e de posições dos vetores).
+
+	private long comparacoes;
+	private long inicio;
+	private long termino;
+
+	/**
+	 * Construtor da classe.
+	 * Constrói a função hash perfeita mínima com todas as chaves presentes na árvore informada,
+	 * que passa a ser usada para as chaves inseridas posteriormente.
+	 * @param arvore: árvore de busca com o mapeamento a ser indexado.
+	 * @throws IllegalStateException caso não seja encontrada uma função perfeita após MAXIMO_TENTATIVAS sementes.
+	 */
+	public IndicePerfeito(ABB<K, V> arvore) {
+
+		Object[] chavesArvore = new Object[arvore.tamanho()];
+		Object[] valoresArvore = new Object[arvore.tamanho()];
+		int[] codigosArvore = new int[arvore.tamanho()];
+		int[] quantidadeLida = { 0 };
+		int[] codigosOrdenados;
+		int[] codigos;
+		Random sorteio = new Random(arvore.tamanho());
+
+		this.arvore = arvore;
+		arvore.paraCadaPar((chave, item) -> {
+			chavesArvore[quantidadeLida[0]] = chave;
+			valoresArvore[quantidadeLida[0]] = item;
+			codigosArvore[quantidadeLida[0]++] = chave.hashCode();
+		});
+
+		/// chaves com o mesmo código hash de outra nunca podem ser separadas pela função: ficam apenas na árvore.
+		codigosOrdenados = codigosArvore.clone();
+		Arrays.sort(codigosOrdenados);
+		codigos = new int[codigosArvore.length];
+		for (int i = 0; i < codigosArvore.length; i++) {
+			if (!repetido(codigosOrdenados, codigosArvore[i])) {
+				chavesArvore[quantidadeIndexada] = chavesArvore[i];
+				valoresArvore[quantidadeIndexada] = valoresArvore[i];
+				codigos[quantidadeIndexada++] = codigosArvore[i];
+			}
+		}
+
+		for (int tentativa = 1; !construir(chavesArvore, valoresArvore, codigos, sorteio.nextInt()); tentativa++) {
+			if (tentativa == MAXIMO_TENTATIVAS)
+				throw new IllegalStateException("Não foi possível construir a função hash perfeita para as chaves da árvore.");
+		}
+	}
+
+	private static boolean repetido(int[] codigosOrdenados, int codigo) {
+
+		int posicao = Arrays.binarySearch(codigosOrdenados, codigo);
+
+		return ((posicao > 0) && (codigosOrdenados[posicao - 1] == codigo))
+				|| ((posicao < codigosOrdenados.length - 1) && (codigosOrdenados[posicao + 1] == codigo));
+	}
+
+	private static int misturar(int h) {
+
+		h ^= h >>> 16;
+		h *= 0x85EBCA6B;
+		h ^= h >>> 13;
+		h *= 0xC2B2AE35;
+		h ^= h >>> 16;
+		return h;
+	}
+
+	/// reduz o valor de 32 bits ao intervalo [0, limite) por multiplicação, sem divisão.
+	private static int reduzir(int h, int limite) {
+		return (int) (((h & 0xFFFFFFFFL) * limite) >>> 32);
+	}
+
+	private int balde(int codigoHash) {
+		return reduzir(misturar(codigoHash ^ semente), deslocamentos.length);
+	}
+
+	private int posicao(int codigoHash, int deslocamento) {
+		return reduzir(misturar((codigoHash ^ semente) + (deslocamento + 1) * CONSTANTE_FIBONACCI), quantidadeIndexada);
+	}
+
+	/**
+	 * Tenta construir a função perfeita para as "quantidadeIndexada" primeiras chaves, com a semente informada.
+	 * @return verdadeiro se todos os baldes encontraram um deslocamento; falso caso seja necessário tentar outra semente.
+	 */
+	private boolean construir(Object[] chavesIndexadas, Object[] valoresIndexados, int[] codigos, int semente) {
+
+		int quantosBaldes = Math.max(1, (quantidadeIndexada + CHAVES_POR_BALDE - 1) / CHAVES_POR_BALDE);
+		int[] inicioBalde = new int[quantosBaldes + 1]; /// chaves do balde b: membros[inicioBalde[b]] até membros[inicioBalde[b + 1] - 1].
+		int[] proximoMembro;
+		int[] membros = new int[quantidadeIndexada];
+		int[] ordemBaldes;
+		int[] posicoes = new int[0];
+		boolean[] ocupadas = new boolean[quantidadeIndexada];
+		int b, d, tamanhoBalde;
+		long maximoDeslocamento = (long) TENTATIVAS_POR_CHAVE * Math.max(quantidadeIndexada, DESLOCAMENTO_GRANDE);
+
+		this.semente = semente;
+		this.deslocamentos = new char[quantosBaldes];
+		this.deslocamentosGrandes = new TabelaHashAberta<>(1);
+
+		/// distribuição das chaves pelos baldes (contagem seguida de somas acumuladas).
+		for (int i = 0; i < quantidadeIndexada; i++)
+			inicioBalde[balde(codigos[i]) + 1]++;
+		for (b = 0; b < quantosBaldes; b++)
+			inicioBalde[b + 1] += inicioBalde[b];
+		proximoMembro = inicioBalde.clone();
+		for (int i = 0; i < quantidadeIndexada; i++)
+			membros[proximoMembro[balde(codigos[i])]++] = i;
+
+		ordemBaldes = ordenarBaldesPorTamanho(inicioBalde, quantosBaldes);
+
+		chaves = new Object[quantidadeIndexada];
+		valores = new Object[quantidadeIndexada];
+
+		/// os baldes maiores, mais difíceis de acomodar, escolhem seus deslocamentos enquanto há mais posições livres.
+		for (int ordem = 0; ordem < quantosBaldes; ordem++) {
+			b = ordemBaldes[ordem];
+			tamanhoBalde = inicioBalde[b + 1] - inicioBalde[b];
+			if (tamanhoBalde == 0)
+				break;
+			if (posicoes.length < tamanhoBalde)
+				posicoes = new int[tamanhoBalde];
+
+			for (d = 0; d < maximoDeslocamento; d++) {
+				if (posicoesLivres(codigos, membros, inicioBalde[b], tamanhoBalde, d, ocupadas, posicoes))
+					break;
+			}
+			if (d == maximoDeslocamento)
+				return false;
+
+			if (d < DESLOCAMENTO_GRANDE)
+				deslocamentos[b] = (char) d;
+			else {
+				deslocamentos[b] = DESLOCAMENTO_GRANDE;
+				deslocamentosGrandes.inserir(b, d);
+			}
+			for (int j = 0; j < tamanhoBalde; j++) {
+				chaves[posicoes[j]] = chavesIndexadas[membros[inicioBalde[b] + j]];
+				valores[posicoes[j]] = valoresIndexados[membros[inicioBalde[b] + j]];
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Calcula as posições das chaves do balde com o deslocamento d. Se todas estiverem livres e forem distintas,
+	 * elas são marcadas como ocupadas e registradas em "posicoes".
+	 * @return verdadeiro se o deslocamento d serve para o balde.
+	 */
+	private boolean posicoesLivres(int[] codigos, int[] membros, int primeiro, int tamanhoBalde, int d,
+			boolean[] ocupadas, int[] posicoes) {
+
+		int j;
+
+		for (j = 0; j < tamanhoBalde; j++) {
+			posicoes[j] = posicao(codigos[membros[primeiro + j]], d);
+			if (ocupadas[posicoes[j]])
+				break;
+			ocupadas[posicoes[j]] = true;
+		}
+		if (j == tamanhoBalde)
+			return true;
+
+		/// desfaz as marcações das chaves anteriores do balde.
+		while (--j >= 0)
+			ocupadas[posicoes[j]] = false;
+		return false;
+	}
+
+	/// ordem dos baldes, do maior para o menor (ordenação por contagem dos tamanhos).
+	private static int[] ordenarBaldesPorTamanho(int[] inicioBalde, int quantosBaldes) {
+
+		int maiorBalde = 0;
+		int[] porTamanho;
+		int[] ordem = new int[quantosBaldes];
+
+		for (int b = 0; b < quantosBaldes; b++)
+			maiorBalde = Math.max(maiorBalde, inicioBalde[b + 1] - inicioBalde[b]);
+		porTamanho = new int[maiorBalde + 2];
+		for (int b = 0; b < quantosBaldes; b++)
+			porTamanho[maiorBalde - (inicioBalde[b + 1] - inicioBalde[b]) + 1]++;
+		for (int t = 0; t <= maiorBalde; t++)
+			porTamanho[t + 1] += porTamanho[t];
+		for (int b = 0; b < quantosBaldes; b++)
+			ordem[porTamanho[maiorBalde - (inicioBalde[b + 1] - inicioBalde[b])]++] = b;
+		return ordem;
+	}
+
+	/**
+	 * Localiza a chave no índice: calcula sua única posição possível e confirma a chave armazenada nela.
+	 * @return a posição da chave, ou -1 caso ela não esteja no índice (podendo estar apenas na árvore).
+	 */
+	private int localizar(Object chave) {
+
+		int codigoHash, posicao;
+
+		if (quantidadeIndexada == 0)
+			return -1;
+		codigoHash = chave.hashCode();
+		posicao = posicao(codigoHash, deslocamento(balde(codigoHash)));
+		return chave.equals(chaves[posicao]) ? posicao : -1;
+	}
+
+	private int deslocamento(int balde) {
+		return (deslocamentos[balde] != DESLOCAMENTO_GRANDE) ? deslocamentos[balde] : deslocamentosGrandes.pesquisar(balde);
+	}
+
+	/**
+	 * Método responsável por inserir um novo item. O índice é construído uma única vez:
+	 * o item é inserido na árvore, na qual será pesquisado.
+	 * @param chave: chave do item que deve ser inserido.
+	 * @param item: referência ao item que deve ser inserido.
+	 * @return o valor retornado pela inserção na árvore.
+	 * @throws IllegalArgumentException no caso de um item, com a mesma chave, já existir.
+	 */
+	@Override
+	public int inserir(K chave, V item) {
+		return arvore.inserir(chave, item);
+	}
+
+	/**
+	 * Método responsável por localizar o item cuja chave corresponde à que foi passada como parâmetro para esse método.
+	 * Uma chave indexada é localizada com uma comparação; as demais são pesquisadas na árvore.
+	 * @param chave: chave do item que deve ser localizado.
+	 * @return uma referência ao item encontrado.
+     * @throws NoSuchElementException caso o item não seja localizado.
+	 */
+	@Override
+	public V pesquisar(K chave) {
+
+		V procurado = pesquisar(chave, null);
+
+		if ((procurado == null) && !arvore.contem(chave))
+			throw new NoSuchElementException("O item não foi localizado!");
+		return procurado;
+	}
+
+	/**
+	 * Pesquisa o item associado à chave, retornando o valor padrão informado caso a chave não seja localizada.
+	 * Uma chave indexada é localizada com uma comparação; as demais são pesquisadas na árvore.
+	 * @param chave: chave do item que deve ser localizado.
+	 * @param valorPadrao: valor retornado caso a chave não esteja presente.
+	 * @return o item associado à chave ou, caso a chave não seja localizada, valorPadrao.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public V pesquisar(K chave, V valorPadrao) {
+
+		int posicao;
+		V procurado;
+
+		inicio = System.nanoTime();
+		posicao = localizar(chave);
+		if (posicao >= 0) {
+			procurado = (V) valores[posicao];
+			comparacoes = 1;
+		} else {
+			procurado = arvore.pesquisar(chave, valorPadrao);
+			comparacoes = 1 + arvore.getComparacoes();
+		}
+		termino = System.nanoTime();
+		return procurado;
+	}
+
+	@Override
+	public boolean contem(K chave) {
+		return (localizar(chave) >= 0) || arvore.contem(chave);
+	}
+
+	/**
+	 * Método responsável por remover o item cuja chave corresponde à que foi passada como parâmetro para esse método.
+	 * O item é retirado da árvore e, se a chave estiver indexada, sua posição do índice é liberada.
+	 * @param chave: chave do item que deve ser removido.
+	 * @return uma referência ao item removido.
+	 * @throws NoSuchElementException caso o item não seja localizado.
+	 */
+	@Override
+	public V remover(K chave) {
+
+		int posicao = localizar(chave);
+
+		if (posicao >= 0) {
+			chaves[posicao] = null;
+			valores[posicao] = null;
+		}
+		return arvore.remover(chave);
+	}
+
+	/**
+	 * Calcula o item associado à chave na árvore e, se a chave estiver indexada, atualiza (ou libera) também a sua posição do índice.
+	 * @param chave: chave cujo item será calculado.
+	 * @param funcaoRemapeamento: função que calcula o novo item a partir da chave e do item atual (ou null).
+	 * @return o novo item associado à chave, ou null caso a chave tenha ficado sem item.
+	 */
+	@Override
+	public V calcular(K chave, BiFunction<? super K, ? super V, ? extends V> funcaoRemapeamento) {
+
+		int posicao = localizar(chave);
+		V novoItem = arvore.calcular(chave, funcaoRemapeamento);
+
+		if (posicao >= 0) {
+			valores[posicao] = novoItem;
+			if (novoItem == null)
+				chaves[posicao] = null;
+		}
+		return novoItem;
+	}
+
+	@Override
+	public int tamanho() {
+		return arvore.tamanho();
+	}
+
+	@Override
+	public void percorrer(Appendable destino) throws IOException {
+		arvore.percorrer(destino);
+	}
+
+	@Override
+	public String toString() {
+		return percorrer();
+	}
+
+	/**
+	 * Retorna a quantidade de chaves localizadas pela função perfeita, sem consulta à árvore.
+	 */
+	public int getQuantidadeIndexada() {
+		return quantidadeIndexada;
+	}
+
+	/**
+	 * Retorna a quantidade de bits usada pela função perfeita por chave indexada: 
+	 * os deslocamentos dos baldes, mais uma chave e um deslocamento de 32 bits para cada deslocamento grande.
+	 */
+	public double getBitsPorChave() {
+		return (quantidadeIndexada == 0) ? 0 
+				: (Character.SIZE * deslocamentos.length + 2.0 * Integer.SIZE * deslocamentosGrandes.tamanho()) / quantidadeIndexada;
+	}
+
+	@Override
+	public long getComparacoes() {
+		return comparacoes;
+	}
+
+	@Override
+	public double getTempo() {
+		return (termino - inicio) / 1_000_000;
+	}
+}
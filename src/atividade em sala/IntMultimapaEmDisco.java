@@ -0,0 +1,534 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Multimapa de chaves inteiras para listas de valores inteiros (por exemplo, identificador do produto para identificadores de pedidos),
+ * armazenado em arquivo com hashing extensível, de modo que o índice sobrevive ao encerramento do programa
+ * e pode ser maior do que o heap.
+ * O arquivo de dados é formado por páginas de TAMANHO_PAGINA bytes, lidas e gravadas por um FileChannel. Há dois tipos de página:
+ * <ul>
+ * <li>baldes: profundidade local, quantidade de chaves e até CHAVES_POR_BALDE registros
+ * (chave, quantidade de valores, primeiro e último bloco de valores);</li>
+ * <li>páginas de blocos: BLOCOS_POR_PAGINA blocos de BYTES_BLOCO bytes, cada um com o próximo bloco da lista,
+ * a quantidade de valores usados e até VALORES_POR_BLOCO valores.</li>
+ * </ul>
+ * O diretório (2^profundidadeGlobal números de balde) fica em memória e é gravado, com o cabeçalho, no arquivo ".dir"
+ * por {@link #sincronizar()} e {@link #close()}. Assim, a pesquisa de uma chave lê uma única página (o balde);
+ * percorrer seus valores lê, além dele, um bloco a cada VALORES_POR_BLOCO valores.
+ * Quando um balde enche, ele é dividido; se sua profundidade local já for a global, o diretório é dobrado antes.
+ * O arquivo só é consistente após sincronizar() ou close(): uma interrupção entre eles pode deixá-lo inutilizável.
+ * Os métodos são sincronizados, de modo que o multimapa pode ser compartilhado por várias threads.
+ */
+public class IntMultimapaEmDisco implements IMedicao, AutoCloseable {
+
+	private static final int MAGICO = 0x4D554C54; /// "MULT": identifica o arquivo de diretório.
+	private static final int PROFUNDIDADE_MAXIMA = 26;
+
+	private static final int TAMANHO_PAGINA = 4096;
+
+	/// Estrutura de um balde: profundidade local, quantidade de chaves e os registros das chaves.
+	private static final int PROFUNDIDADE_LOCAL = 0;
+	private static final int QUANTIDADE_CHAVES = 4;
+	private static final int REGISTROS = 8;
+	private static final int BYTES_REGISTRO = 16;
+	private static final int CHAVE = 0;
+	private static final int QUANTIDADE = 4;
+	private static final int PRIMEIRO_BLOCO = 8;
+	private static final int ULTIMO_BLOCO = 12;
+	private static final int CHAVES_POR_BALDE = (TAMANHO_PAGINA - REGISTROS) / BYTES_REGISTRO;
+
+	/// Estrutura de um bloco de valores: próximo bloco, valores usados e VALORES_POR_BLOCO valores.
+	private static final int BYTES_BLOCO = 64;
+	private static final int PROXIMO = 0;
+	private static final int USADOS = 4;
+	private static final int VALORES = 8;
+	private static final int VALORES_POR_BLOCO = (BYTES_BLOCO - VALORES) / Integer.BYTES;
+	private static final int BLOCOS_POR_PAGINA = TAMANHO_PAGINA / BYTES_BLOCO;
+	private static final int SEM_BLOCO = -1;
+
+	/// Estrutura do cabeçalho do arquivo de diretório, seguido pelo diretório.
+	private static final int BYTES_CABECALHO = 36;
+
+	private final Path arquivoDados;
+	private final Path arquivoDiretorio;
+	private FileChannel canal;
+
+	private int[] diretorio;         /// diretorio[i]: página do balde das chaves cujo hash termina com os bits de i.
+	private int profundidadeGlobal;
+	private int quantidadePaginas;
+	private int paginaBlocos;        /// página de blocos em preenchimento (-1, se nenhuma).
+	private int blocosNaPagina;      /// quantidade de blocos já usados na página de blocos em preenchimento.
+	private int quantidadeChaves;
+	private long quantidadeValores;
+
+	private final ByteBuffer balde = ByteBuffer.allocate(TAMANHO_PAGINA).order(ByteOrder.LITTLE_ENDIAN);
+	private final ByteBuffer outroBalde = ByteBuffer.allocate(TAMANHO_PAGINA).order(ByteOrder.LITTLE_ENDIAN);
+	private final ByteBuffer bloco = ByteBuffer.allocate(BYTES_BLOCO).order(ByteOrder.LITTLE_ENDIAN);
+
+	private long comparacoes;    // quantidade de chaves comparadas na última pesquisa.
+	private long leituras;       // quantidade de páginas e blocos lidos na última operação.
+	private long inicio;
+	private long termino;
+
+	/**
+	 * Abre o multimapa armazenado no arquivo informado, ou cria um multimapa vazio, caso o arquivo não exista ou esteja vazio.
+	 * O diretório é lido do arquivo de mesmo nome, acrescido de ".dir".
+	 * @param arquivo: caminho do arquivo de dados.
+	 * @throws IllegalStateException caso o arquivo de dados exista, mas o diretório esteja ausente ou não corresponda a ele.
+	 * @throws UncheckedIOException caso ocorra um erro de leitura ou escrita.
+	 */
+	public IntMultimapaEmDisco(Path arquivo) {
+
+		this.arquivoDados = arquivo;
+		this.arquivoDiretorio = arquivo.resolveSibling(arquivo.getFileName() + ".dir");
+		try {
+			canal = FileChannel.open(arquivoDados, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+			if (canal.size() == 0)
+				criar();
+			else
+				carregarDiretorio();
+		} catch (IOException e) {
+			fecharCanal();
+			throw new UncheckedIOException("Erro ao abrir o multimapa " + arquivo + ": " + e.getMessage(), e);
+		} catch (RuntimeException e) {
+			fecharCanal();
+			throw e;
+		}
+	}
+
+	/// cria um multimapa vazio: um único balde, de profundidade 0, apontado pelo diretório de uma posição.
+	private void criar() throws IOException {
+
+		profundidadeGlobal = 0;
+		quantidadePaginas = 0;
+		paginaBlocos = -1;
+		blocosNaPagina = 0;
+		quantidadeChaves = 0;
+		quantidadeValores = 0;
+		diretorio = new int[] { novaPagina() };
+		limparBalde(balde, 0);
+		gravarPagina(diretorio[0], balde);
+		gravarDiretorio();
+	}
+
+	private void carregarDiretorio() throws IOException {
+
+		ByteBuffer conteudo;
+
+		if (!Files.exists(arquivoDiretorio))
+			throw new IllegalStateException("O diretório " + arquivoDiretorio + " não foi encontrado.");
+
+		conteudo = ByteBuffer.wrap(Files.readAllBytes(arquivoDiretorio)).order(ByteOrder.LITTLE_ENDIAN);
+		if (conteudo.remaining() < BYTES_CABECALHO || conteudo.getInt() != MAGICO || conteudo.getInt() != TAMANHO_PAGINA)
+			throw new IllegalStateException("O arquivo " + arquivoDiretorio + " não é um diretório de multimapa válido.");
+
+		profundidadeGlobal = conteudo.getInt();
+		quantidadePaginas = conteudo.getInt();
+		paginaBlocos = conteudo.getInt();
+		blocosNaPagina = conteudo.getInt();
+		quantidadeChaves = conteudo.getInt();
+		quantidadeValores = conteudo.getLong();
+		if (profundidadeGlobal < 0 || profundidadeGlobal > PROFUNDIDADE_MAXIMA
+				|| conteudo.remaining() != (Integer.BYTES << profundidadeGlobal)
+				|| canal.size() > (long) quantidadePaginas * TAMANHO_PAGINA)
+			throw new IllegalStateException("O diretório " + arquivoDiretorio + " não corresponde ao arquivo de dados.");
+
+		diretorio = new int[1 << profundidadeGlobal];
+		conteudo.asIntBuffer().get(diretorio);
+	}
+
+	private void gravarDiretorio() throws IOException {
+
+		ByteBuffer conteudo = ByteBuffer.allocate(BYTES_CABECALHO + Integer.BYTES * diretorio.length).order(ByteOrder.LITTLE_ENDIAN);
+
+		conteudo.putInt(MAGICO).putInt(TAMANHO_PAGINA).putInt(profundidadeGlobal).putInt(quantidadePaginas)
+				.putInt(paginaBlocos).putInt(blocosNaPagina).putInt(quantidadeChaves).putLong(quantidadeValores);
+		conteudo.asIntBuffer().put(diretorio);
+		Files.write(arquivoDiretorio, conteudo.array());
+	}
+
+	/**
+	 * Etapa final de mistura do MurmurHash3 (fmix32): uma bijeção, de modo que chaves distintas têm hashes distintos
+	 * e qualquer balde pode ser dividido até separar suas chaves.
+	 */
+	private static int misturar(int h) {
+
+		h ^= h >>> 16;
+		h *= 0x85EBCA6B;
+		h ^= h >>> 13;
+		h *= 0xC2B2AE35;
+		h ^= h >>> 16;
+		return h;
+	}
+
+	private int posicaoDiretorio(int chave) {
+		return misturar(chave) & (diretorio.length - 1);
+	}
+
+	private int novaPagina() {
+		return quantidadePaginas++;
+	}
+
+	private static void limparBalde(ByteBuffer pagina, int profundidadeLocal) {
+
+		Arrays.fill(pagina.array(), (byte) 0);
+		pagina.putInt(PROFUNDIDADE_LOCAL, profundidadeLocal);
+		pagina.putInt(QUANTIDADE_CHAVES, 0);
+	}
+
+	private void lerPagina(int pagina, ByteBuffer destino) throws IOException {
+		ler((long) pagina * TAMANHO_PAGINA, destino);
+	}
+
+	private void gravarPagina(int pagina, ByteBuffer origem) throws IOException {
+		gravar((long) pagina * TAMANHO_PAGINA, origem);
+	}
+
+	/// lê o conteúdo completo do buffer a partir da posição informada; o que estiver além do fim do arquivo é lido como zeros.
+	private void ler(long posicao, ByteBuffer destino) throws IOException {
+
+		int lidos;
+
+		leituras++;
+		destino.clear();
+		while (destino.hasRemaining()) {
+			lidos = canal.read(destino, posicao + destino.position());
+			if (lidos < 0) {
+				Arrays.fill(destino.array(), destino.position(), destino.limit(), (byte) 0);
+				break;
+			}
+		}
+		destino.clear();
+	}
+
+	private void gravar(long posicao, ByteBuffer origem) throws IOException {
+
+		origem.clear();
+		while (origem.hasRemaining())
+			canal.write(origem, posicao + origem.position());
+		origem.clear();
+	}
+
+	private static long posicaoBloco(int numeroBloco) {
+		return (long) (numeroBloco / BLOCOS_POR_PAGINA) * TAMANHO_PAGINA + (long) (numeroBloco % BLOCOS_POR_PAGINA) * BYTES_BLOCO;
+	}
+
+	/**
+	 * Reserva um bloco na página de blocos em preenchimento, reservando uma nova página quando ela estiver cheia.
+	 * O conteúdo do bloco não é alterado: ele deve ser preparado com {@link #limparBloco()} e gravado por quem o reservou.
+	 * @return o número do bloco (página * BLOCOS_POR_PAGINA + posição na página).
+	 */
+	private int novoBloco() throws IOException {
+
+		int numeroBloco;
+
+		if (paginaBlocos < 0 || blocosNaPagina == BLOCOS_POR_PAGINA) {
+			if ((long) quantidadePaginas * BLOCOS_POR_PAGINA > Integer.MAX_VALUE - BLOCOS_POR_PAGINA)
+				throw new IllegalStateException("O arquivo do multimapa atingiu o tamanho máximo.");
+			paginaBlocos = novaPagina();
+			blocosNaPagina = 0;
+		}
+		numeroBloco = paginaBlocos * BLOCOS_POR_PAGINA + blocosNaPagina++;
+		return numeroBloco;
+	}
+
+	/// prepara, no buffer de bloco, um bloco vazio e sem sucessor.
+	private void limparBloco() {
+
+		Arrays.fill(bloco.array(), (byte) 0);
+		bloco.putInt(PROXIMO, SEM_BLOCO);
+		bloco.putInt(USADOS, 0);
+	}
+
+	/**
+	 * Procura a chave no balde carregado, contabilizando as comparações realizadas.
+	 * @return o deslocamento do registro da chave no balde, ou -1 caso ela não esteja no balde.
+	 */
+	private int localizarNoBalde(ByteBuffer pagina, int chave) {
+
+		int quantidade = pagina.getInt(QUANTIDADE_CHAVES);
+		int registro;
+
+		comparacoes = 0;
+		for (int i = 0; i < quantidade; i++) {
+			comparacoes++;
+			registro = REGISTROS + i * BYTES_REGISTRO;
+			if (pagina.getInt(registro + CHAVE) == chave)
+				return registro;
+		}
+		return -1;
+	}
+
+	/**
+	 * Anexa o valor ao final da lista de valores da chave, criando a lista caso a chave ainda não exista.
+	 * @param chave: chave à qual o valor será associado.
+	 * @param valor: valor a ser anexado.
+	 * @throws IllegalStateException caso o multimapa já tenha sido fechado ou o diretório tenha atingido a profundidade máxima.
+	 * @throws UncheckedIOException caso ocorra um erro de leitura ou escrita.
+	 */
+	public synchronized void anexar(int chave, int valor) {
+
+		int pagina, registro, numeroBloco, usados, anterior;
+
+		verificarAberto();
+		try {
+			leituras = 0;
+			pagina = diretorio[posicaoDiretorio(chave)];
+			lerPagina(pagina, balde);
+			registro = localizarNoBalde(balde, chave);
+			while (registro < 0 && balde.getInt(QUANTIDADE_CHAVES) == CHAVES_POR_BALDE) {
+				/// balde cheio: ele é dividido até que a chave caiba no balde correspondente a ela.
+				dividir(pagina);
+				pagina = diretorio[posicaoDiretorio(chave)];
+				lerPagina(pagina, balde);
+			}
+			if (registro < 0) {
+				registro = REGISTROS + balde.getInt(QUANTIDADE_CHAVES) * BYTES_REGISTRO;
+				numeroBloco = novoBloco();
+				limparBloco();
+				balde.putInt(registro + CHAVE, chave);
+				balde.putInt(registro + QUANTIDADE, 0);
+				balde.putInt(registro + PRIMEIRO_BLOCO, numeroBloco);
+				balde.putInt(registro + ULTIMO_BLOCO, numeroBloco);
+				balde.putInt(QUANTIDADE_CHAVES, balde.getInt(QUANTIDADE_CHAVES) + 1);
+				quantidadeChaves++;
+			} else {
+				numeroBloco = balde.getInt(registro + ULTIMO_BLOCO);
+				ler(posicaoBloco(numeroBloco), bloco);
+			}
+
+			usados = bloco.getInt(USADOS);
+			if (usados == VALORES_POR_BLOCO) {
+				/// o último bloco está cheio: um novo bloco é encadeado ao final da lista da chave.
+				anterior = numeroBloco;
+				numeroBloco = novoBloco();
+				bloco.putInt(PROXIMO, numeroBloco);
+				gravar(posicaoBloco(anterior), bloco);
+				limparBloco();
+				balde.putInt(registro + ULTIMO_BLOCO, numeroBloco);
+				usados = 0;
+			}
+			bloco.putInt(VALORES + usados * Integer.BYTES, valor);
+			bloco.putInt(USADOS, usados + 1);
+			gravar(posicaoBloco(numeroBloco), bloco);
+
+			balde.putInt(registro + QUANTIDADE, balde.getInt(registro + QUANTIDADE) + 1);
+			gravarPagina(pagina, balde);
+			quantidadeValores++;
+		} catch (IOException e) {
+			throw new UncheckedIOException("Erro ao gravar no multimapa " + arquivoDados + ": " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Divide o balde da página informada (já carregado em "balde") em dois, pelo próximo bit do hash das chaves,
+	 * dobrando o diretório antes, caso a profundidade local do balde já seja a global.
+	 */
+	private void dividir(int pagina) throws IOException {
+
+		int profundidadeLocal = balde.getInt(PROFUNDIDADE_LOCAL);
+		int bit = 1 << profundidadeLocal;
+		int novaPagina, quantidade, registro, destino;
+		int ficam = 0, saem = 0;
+
+		if (profundidadeLocal == profundidadeGlobal) {
+			if (profundidadeGlobal == PROFUNDIDADE_MAXIMA)
+				throw new IllegalStateException("O diretório do multimapa atingiu a profundidade máxima.");
+			diretorio = Arrays.copyOf(diretorio, 2 * diretorio.length);
+			System.arraycopy(diretorio, 0, diretorio, diretorio.length / 2, diretorio.length / 2);
+			profundidadeGlobal++;
+		}
+
+		novaPagina = novaPagina();
+		limparBalde(outroBalde, profundidadeLocal + 1);
+		quantidade = balde.getInt(QUANTIDADE_CHAVES);
+		for (int i = 0; i < quantidade; i++) {
+			registro = REGISTROS + i * BYTES_REGISTRO;
+			if ((misturar(balde.getInt(registro + CHAVE)) & bit) != 0) {
+				destino = REGISTROS + (saem++) * BYTES_REGISTRO;
+				outroBalde.put(destino, balde, registro, BYTES_REGISTRO);
+			} else {
+				destino = REGISTROS + (ficam++) * BYTES_REGISTRO;
+				if (destino != registro)
+					balde.put(destino, balde, registro, BYTES_REGISTRO);
+			}
+		}
+		balde.putInt(PROFUNDIDADE_LOCAL, profundidadeLocal + 1);
+		balde.putInt(QUANTIDADE_CHAVES, ficam);
+		outroBalde.putInt(QUANTIDADE_CHAVES, saem);
+		gravarPagina(novaPagina, outroBalde);
+		gravarPagina(pagina, balde);
+
+		for (int i = 0; i < diretorio.length; i++) {
+			if (diretorio[i] == pagina && (i & bit) != 0)
+				diretorio[i] = novaPagina;
+		}
+	}
+
+	/**
+	 * Retorna a quantidade de valores associados à chave, com a leitura de uma única página.
+	 * @param chave: chave procurada.
+	 * @return a quantidade de valores da chave, ou 0 caso a chave não exista.
+	 * @throws UncheckedIOException caso ocorra um erro de leitura.
+	 */
+	public synchronized int quantidade(int chave) {
+
+		int registro;
+
+		verificarAberto();
+		try {
+			inicio = System.nanoTime();
+			leituras = 0;
+			lerPagina(diretorio[posicaoDiretorio(chave)], balde);
+			registro = localizarNoBalde(balde, chave);
+			termino = System.nanoTime();
+			return (registro >= 0) ? balde.getInt(registro + QUANTIDADE) : 0;
+		} catch (IOException e) {
+			throw new UncheckedIOException("Erro ao ler o multimapa " + arquivoDados + ": " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Indica se existe ao menos um valor associado à chave.
+	 */
+	public boolean contem(int chave) {
+		return (quantidade(chave) > 0);
+	}
+
+	/**
+	 * Executa a ação informada para cada valor associado à chave, na ordem em que os valores foram anexados.
+	 * Nenhum valor pode ser anexado ao multimapa enquanto a ação estiver sendo executada.
+	 * @param chave: chave cujos valores serão percorridos.
+	 * @param acao: ação a ser executada sobre cada valor.
+	 * @return a quantidade de valores percorridos (0, caso a chave não exista).
+	 * @throws UncheckedIOException caso ocorra um erro de leitura.
+	 */
+	public synchronized int paraCada(int chave, IntConsumer acao) {
+
+		int registro, numeroBloco, usados;
+
+		verificarAberto();
+		try {
+			inicio = System.nanoTime();
+			leituras = 0;
+			lerPagina(diretorio[posicaoDiretorio(chave)], balde);
+			registro = localizarNoBalde(balde, chave);
+			termino = System.nanoTime();
+			if (registro < 0)
+				return 0;
+
+			numeroBloco = balde.getInt(registro + PRIMEIRO_BLOCO);
+			while (numeroBloco != SEM_BLOCO) {
+				ler(posicaoBloco(numeroBloco), bloco);
+				usados = bloco.getInt(USADOS);
+				for (int i = 0; i < usados; i++)
+					acao.accept(bloco.getInt(VALORES + i * Integer.BYTES));
+				numeroBloco = bloco.getInt(PROXIMO);
+			}
+			return balde.getInt(registro + QUANTIDADE);
+		} catch (IOException e) {
+			throw new UncheckedIOException("Erro ao ler o multimapa " + arquivoDados + ": " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Grava o diretório e força a gravação das páginas alteradas no dispositivo.
+	 * Após o retorno, o multimapa pode ser reaberto, mesmo que o programa seja interrompido.
+	 * @throws UncheckedIOException caso ocorra um erro de escrita.
+	 */
+	public synchronized void sincronizar() {
+
+		verificarAberto();
+		try {
+			canal.force(false);
+			gravarDiretorio();
+		} catch (IOException e) {
+			throw new UncheckedIOException("Erro ao sincronizar o multimapa " + arquivoDados + ": " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Retorna a quantidade de chaves armazenadas.
+	 */
+	public synchronized int tamanho() {
+		return quantidadeChaves;
+	}
+
+	/**
+	 * Retorna a quantidade total de valores armazenados, somando todas as chaves.
+	 */
+	public synchronized long getQuantidadeValores() {
+		return quantidadeValores;
+	}
+
+	/**
+	 * Retorna a profundidade global do diretório: ele tem 2^profundidade posições.
+	 */
+	public synchronized int getProfundidadeGlobal() {
+		return profundidadeGlobal;
+	}
+
+	/**
+	 * Retorna a quantidade de páginas (baldes e páginas de blocos) do arquivo de dados.
+	 */
+	public synchronized int getQuantidadePaginas() {
+		return quantidadePaginas;
+	}
+
+	/**
+	 * Retorna a quantidade de leituras (de páginas e de blocos) feitas na última operação.
+	 */
+	public synchronized long getLeituras() {
+		return leituras;
+	}
+
+	private void verificarAberto() {
+		if (canal == null)
+			throw new IllegalStateException("O multimapa já foi fechado.");
+	}
+
+	private void fecharCanal() {
+
+		try {
+			if (canal != null)
+				canal.close();
+		} catch (IOException e) {
+			/// o erro original, que levou ao fechamento, é o que interessa a quem chamou.
+		}
+		canal = null;
+	}
+
+	/**
+	 * Sincroniza e fecha o multimapa. Chamadas repetidas não têm efeito.
+	 * @throws UncheckedIOException caso ocorra um erro de escrita.
+	 */
+	@Override
+	public synchronized void close() {
+
+		if (canal == null)
+			return;
+		try {
+			sincronizar();
+		} finally {
+			fecharCanal();
+		}
+	}
+
+	@Override
+	public synchronized long getComparacoes() {
+		return comparacoes;
+	}
+
+	@Override
+	public synchronized double getTempo() {
+		return (termino - inicio) / 1_000_000;
+	}
+}
@@ -0,0 +1,345 @@
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntConsumer;
+
+/**
+ * Multimapa de chaves inteiras para listas de valores inteiros (por exemplo, identificador do produto para identificadores de pedidos),
+ * armazenado fora do heap, em buffers diretos: nenhuma chave, valor ou nó de lista é um objeto Java,
+ * de modo que milhões de valores não aumentam o trabalho do coletor de lixo.
+ * As chaves ficam em uma tabela hash com endereçamento aberto e sondagem linear; cada posição ocupa BYTES_POSICAO bytes
+ * (chave, quantidade de valores, primeiro e último bloco). Os valores de cada chave ficam em uma lista encadeada de blocos
+ * de tamanho fixo, alocados sequencialmente em uma área de dados, na ordem em que foram anexados.
+ * Os métodos podem ser chamados por várias threads ao mesmo tempo: as pesquisas compartilham uma trava de leitura
+ * e as alterações usam a trava de escrita. As métricas de {@link IMedicao} são mantidas por thread:
+ * referem-se à última operação executada pela própria thread que as consulta.
+ * Após {@link #close()}, os buffers são liberados e qualquer operação lança IllegalStateException.
+ */
+public class IntMultimapaForaDoHeap implements IMedicao, AutoCloseable {
+
+	/// Hash multiplicativo de Fibonacci, que espalha as chaves sequenciais por uma tabela cuja capacidade é potência de 2.
+	private static final IFuncaoHash FUNCAO_HASH = new HashFibonacci();
+
+	private static final double FATOR_CARGA_MAXIMO = 0.75;
+	private static final int CAPACIDADE_MAXIMA = 1 << 26;
+
+	/// Estrutura de uma posição da tabela de chaves.
+	private static final int BYTES_POSICAO = 16;
+	private static final int CHAVE = 0;
+	private static final int QUANTIDADE = 4;     /// 0 indica posição livre: toda chave presente tem ao menos um valor.
+	private static final int PRIMEIRO_BLOCO = 8;
+	private static final int ULTIMO_BLOCO = 12;
+
+	/// Estrutura de um bloco da área de dados: próximo bloco, valores usados e VALORES_POR_BLOCO valores.
+	private static final int BYTES_BLOCO = 64;
+	private static final int PROXIMO = 0;
+	private static final int USADOS = 4;
+	private static final int VALORES = 8;
+	private static final int VALORES_POR_BLOCO = (BYTES_BLOCO - VALORES) / Integer.BYTES;
+	private static final int SEM_BLOCO = -1;
+	private static final int MAXIMO_BLOCOS = Integer.MAX_VALUE / BYTES_BLOCO;
+
+	private ByteBuffer posicoes; /// tabela de chaves.
+	private ByteBuffer dados;    /// área de dados, com os blocos de valores.
+
+	private int capacidade;      /// quantidade de posições da tabela de chaves (potência de 2).
+	private int quantidadeChaves;
+	private long quantidadeValores;
+	private int blocosUsados;
+
+	private final ReentrantReadWriteLock trava = new ReentrantReadWriteLock();
+
+	/// Métricas da última operação de uma thread. Como as pesquisas compartilham a trava de leitura,
+	/// cada thread escreve apenas nas suas próprias métricas.
+	private static final class Medicao {
+		private long comparacoes; // quantidade de posições sondadas na última pesquisa.
+		private long inicio;
+		private long termino;
+	}
+
+	private final ThreadLocal<Medicao> medicao = ThreadLocal.withInitial(Medicao::new);
+
+	/**
+	 * Construtor da classe.
+	 * @param capacidade: quantidade de chaves esperada.
+	 * @throws IllegalArgumentException caso a capacidade não seja positiva.
+	 */
+	public IntMultimapaForaDoHeap(int capacidade) {
+
+		if (capacidade < 1)
+			throw new IllegalArgumentException("A capacidade do multimapa não pode ser menor do que 1.");
+
+		this.quantidadeChaves = 0;
+		this.quantidadeValores = 0;
+		this.blocosUsados = 0;
+		alocarPosicoes(FUNCAO_HASH.ajustarCapacidade((int) Math.min(CAPACIDADE_MAXIMA, Math.ceil(capacidade / FATOR_CARGA_MAXIMO))));
+		this.dados = alocar((long) capacidade * BYTES_BLOCO);
+	}
+
+	private static ByteBuffer alocar(long bytes) {
+		return ByteBuffer.allocateDirect((int) Math.min(Integer.MAX_VALUE, bytes)).order(ByteOrder.nativeOrder());
+	}
+
+	private void alocarPosicoes(int capacidade) {
+
+		this.capacidade = capacidade;
+		this.posicoes = alocar((long) capacidade * BYTES_POSICAO);
+	}
+
+	/**
+	 * Função de transformação: hash multiplicativo de Fibonacci sobre a própria chave.
+	 */
+	private int funcaoHash(int chave) {
+		return FUNCAO_HASH.posicao(chave, capacidade);
+	}
+
+	private int proxima(int posicao) {
+		return (posicao + 1) & (capacidade - 1);
+	}
+
+	private void verificarAberto() {
+		if (posicoes == null)
+			throw new IllegalStateException("O multimapa já foi fechado.");
+	}
+
+	/**
+	 * Localiza a posição da chave na tabela de chaves, contabilizando as posições sondadas.
+	 * @return a posição em que a chave está armazenada ou, caso não esteja,
+	 * o complemento (~) da posição livre em que deveria ser inserida.
+	 */
+	private int localizar(int chave, Medicao medicao) {
+
+		int posicao = funcaoHash(chave);
+		int endereco;
+
+		medicao.comparacoes = 0;
+		while (true) {
+			medicao.comparacoes++;
+			endereco = posicao * BYTES_POSICAO;
+			if (posicoes.getInt(endereco + QUANTIDADE) == 0)
+				return ~posicao;
+			if (posicoes.getInt(endereco + CHAVE) == chave)
+				return posicao;
+			posicao = proxima(posicao);
+		}
+	}
+
+	/**
+	 * Anexa o valor ao final da lista de valores da chave, criando a lista caso a chave ainda não exista.
+	 * @param chave: chave à qual o valor será associado.
+	 * @param valor: valor a ser anexado.
+	 * @throws IllegalStateException caso o multimapa já tenha sido fechado ou a área de dados tenha atingido 2 GB.
+	 */
+	public void anexar(int chave, int valor) {
+
+		int posicao, endereco, bloco, usados;
+		Medicao medicao = this.medicao.get();
+
+		trava.writeLock().lock();
+		try {
+			verificarAberto();
+			posicao = localizar(chave, medicao);
+			if (posicao < 0) {
+				if (quantidadeChaves + 1 > capacidade * FATOR_CARGA_MAXIMO && capacidade < CAPACIDADE_MAXIMA) {
+					redimensionarPosicoes(2 * capacidade);
+					posicao = localizar(chave, medicao);
+				}
+				endereco = ~posicao * BYTES_POSICAO;
+				bloco = novoBloco();
+				posicoes.putInt(endereco + CHAVE, chave);
+				posicoes.putInt(endereco + QUANTIDADE, 0);
+				posicoes.putInt(endereco + PRIMEIRO_BLOCO, bloco);
+				posicoes.putInt(endereco + ULTIMO_BLOCO, bloco);
+				quantidadeChaves++;
+			} else
+				endereco = posicao * BYTES_POSICAO;
+
+			bloco = posicoes.getInt(endereco + ULTIMO_BLOCO);
+			usados = dados.getInt(bloco * BYTES_BLOCO + USADOS);
+			if (usados == VALORES_POR_BLOCO) {
+				/// o último bloco está cheio: um novo bloco é encadeado ao final da lista da chave.
+				usados = bloco;
+				bloco = novoBloco();
+				dados.putInt(usados * BYTES_BLOCO + PROXIMO, bloco);
+				posicoes.putInt(endereco + ULTIMO_BLOCO, bloco);
+				usados = 0;
+			}
+			dados.putInt(bloco * BYTES_BLOCO + VALORES + usados * Integer.BYTES, valor);
+			dados.putInt(bloco * BYTES_BLOCO + USADOS, usados + 1);
+			posicoes.putInt(endereco + QUANTIDADE, posicoes.getInt(endereco + QUANTIDADE) + 1);
+			quantidadeValores++;
+		} finally {
+			trava.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Aloca um bloco vazio no final da área de dados, dobrando a área quando necessário.
+	 * @return o número do bloco alocado.
+	 */
+	private int novoBloco() {
+
+		ByteBuffer novosDados;
+		int bloco;
+
+		if (blocosUsados == MAXIMO_BLOCOS)
+			throw new IllegalStateException("A área de dados do multimapa atingiu o tamanho máximo.");
+
+		if ((long) (blocosUsados + 1) * BYTES_BLOCO > dados.capacity()) {
+			novosDados = alocar(2L * dados.capacity());
+			dados.clear();
+			novosDados.put(dados);
+			dados = novosDados;
+		}
+		bloco = blocosUsados++;
+		dados.putInt(bloco * BYTES_BLOCO + PROXIMO, SEM_BLOCO);
+		dados.putInt(bloco * BYTES_BLOCO + USADOS, 0);
+		return bloco;
+	}
+
+	/**
+	 * Redistribui as chaves em uma nova tabela com a capacidade informada. Os blocos de valores não são movidos.
+	 */
+	private void redimensionarPosicoes(int novaCapacidade) {
+
+		ByteBuffer antigas = posicoes;
+		int capacidadeAntiga = capacidade;
+		int origem, destino;
+
+		alocarPosicoes(novaCapacidade);
+		for (int i = 0; i < capacidadeAntiga; i++) {
+			origem = i * BYTES_POSICAO;
+			if (antigas.getInt(origem + QUANTIDADE) != 0) {
+				destino = funcaoHash(antigas.getInt(origem + CHAVE));
+				while (posicoes.getInt(destino * BYTES_POSICAO + QUANTIDADE) != 0)
+					destino = proxima(destino);
+				for (int campo = 0; campo < BYTES_POSICAO; campo += Integer.BYTES)
+					posicoes.putInt(destino * BYTES_POSICAO + campo, antigas.getInt(origem + campo));
+			}
+		}
+	}
+
+	/**
+	 * Retorna a quantidade de valores associados à chave.
+	 * @param chave: chave procurada.
+	 * @return a quantidade de valores da chave, ou 0 caso a chave não exista.
+	 */
+	public int quantidade(int chave) {
+
+		int posicao;
+		Medicao medicao = this.medicao.get();
+
+		trava.readLock().lock();
+		try {
+			verificarAberto();
+			medicao.inicio = System.nanoTime();
+			posicao = localizar(chave, medicao);
+			medicao.termino = System.nanoTime();
+			return (posicao >= 0) ? posicoes.getInt(posicao * BYTES_POSICAO + QUANTIDADE) : 0;
+		} finally {
+			trava.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Indica se existe ao menos um valor associado à chave.
+	 */
+	public boolean contem(int chave) {
+		return (quantidade(chave) > 0);
+	}
+
+	/**
+	 * Executa a ação informada para cada valor associado à chave, na ordem em que os valores foram anexados.
+	 * Os valores são lidos diretamente dos blocos; nenhuma lista é criada no heap.
+	 * Nenhum valor pode ser anexado ao multimapa enquanto a ação estiver sendo executada.
+	 * @param chave: chave cujos valores serão percorridos.
+	 * @param acao: ação a ser executada sobre cada valor.
+	 * @return a quantidade de valores percorridos (0, caso a chave não exista).
+	 */
+	public int paraCada(int chave, IntConsumer acao) {
+
+		int posicao, bloco, usados;
+		Medicao medicao = this.medicao.get();
+
+		trava.readLock().lock();
+		try {
+			verificarAberto();
+			medicao.inicio = System.nanoTime();
+			posicao = localizar(chave, medicao);
+			medicao.termino = System.nanoTime();
+			if (posicao < 0)
+				return 0;
+
+			bloco = posicoes.getInt(posicao * BYTES_POSICAO + PRIMEIRO_BLOCO);
+			while (bloco != SEM_BLOCO) {
+				usados = dados.getInt(bloco * BYTES_BLOCO + USADOS);
+				for (int i = 0; i < usados; i++)
+					acao.accept(dados.getInt(bloco * BYTES_BLOCO + VALORES + i * Integer.BYTES));
+				bloco = dados.getInt(bloco * BYTES_BLOCO + PROXIMO);
+			}
+			return posicoes.getInt(posicao * BYTES_POSICAO + QUANTIDADE);
+		} finally {
+			trava.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Retorna a quantidade de chaves armazenadas.
+	 */
+	public int tamanho() {
+		return quantidadeChaves;
+	}
+
+	/**
+	 * Retorna a quantidade total de valores armazenados, somando todas as chaves.
+	 */
+	public long getQuantidadeValores() {
+		return quantidadeValores;
+	}
+
+	/**
+	 * Retorna a quantidade de bytes reservados fora do heap (tabela de chaves e área de dados), ou 0 após o fechamento.
+	 */
+	public long getBytesForaDoHeap() {
+
+		trava.readLock().lock();
+		try {
+			return (posicoes == null) ? 0 : (long) posicoes.capacity() + dados.capacity();
+		} finally {
+			trava.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Fecha o multimapa, descartando seus buffers. A memória fora do heap é devolvida quando os buffers são coletados,
+	 * já que buffers diretos não podem ser liberados explicitamente no Java 17.
+	 * Chamadas repetidas não têm efeito.
+	 */
+	@Override
+	public void close() {
+
+		trava.writeLock().lock();
+		try {
+			posicoes = null;
+			dados = null;
+			quantidadeChaves = 0;
+			quantidadeValores = 0;
+			blocosUsados = 0;
+		} finally {
+			trava.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public long getComparacoes() {
+		return medicao.get().comparacoes;
+	}
+
+	@Override
+	public double getTempo() {
+		
+		Medicao medicao = this.medicao.get();
+		
+		return (medicao.termino - medicao.inicio) / 1_000_000;
+	}
+}
@@ -0,0 +1,310 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.NoSuchElementException;
+import java.util.function.IntFunction;
+
+/**
+ * Tabela hash especializada para chaves inteiras primitivas (identificadores de produtos, documentos de fornecedores etc.).
+ * Usa endereçamento aberto com sondagem linear sobre um vetor de int para as chaves e um vetor paralelo para os valores:
+ * nenhuma operação cria objetos Integer ou Entrada. Uma posição está livre quando seu valor é null;
+ * por isso, não é permitido associar o valor null a uma chave.
+ * A remoção é feita por deslocamento para trás, sem marcadores de posição removida.
+ */
+public class IntTabelaHash<V> implements IMedicao {
+
+	/// Constante de Fibonacci (2^32 / razão áurea), usada para espalhar as chaves sequenciais pela tabela.
+	private static final int CONSTANTE_FIBONACCI = 0x9E3779B9;
+	
+	private static final int CAPACIDADE_MAXIMA = 1 << 30;
+	
+	private int[] chaves;
+	private Object[] valores; /// valores associados às chaves, na mesma posição. null indica posição livre.
+	
+	private int capacidade;   /// quantidade de posições da tabela (potência de 2).
+	private int deslocamento; /// quantidade de bits descartados pela função hash (32 - log2(capacidade)).
+	private int quantidade;
+	private double fatorCargaMaximo;
+	
+	private long comparacoes; // quantidade de posições sondadas na última pesquisa.
+	private long inicio;
+	private long termino;
+	
+	/**
+	 * Construtor da classe.
+	 * @param capacidade: quantidade de itens esperada.
+	 * @param fatorCargaMaximo: fator de carga (entre 0 e 1, exclusive) a partir do qual a tabela é redimensionada.
+	 * @throws IllegalArgumentException caso a capacidade não seja positiva ou o fator de carga seja inválido.
+	 */
+	public IntTabelaHash(int capacidade, double fatorCargaMaximo) {
+		
+		if (capacidade < 1)
+			throw new IllegalArgumentException("A capacidade da tabela hash não pode ser menor do que 1.");
+		if (!(fatorCargaMaximo > 0 && fatorCargaMaximo < 1))
+			throw new IllegalArgumentException("O fator de carga máximo deve estar entre 0 e 1.");
+		
+		this.fatorCargaMaximo = fatorCargaMaximo;
+		this.quantidade = 0;
+		alocar(potenciaDeDois((int) Math.min(CAPACIDADE_MAXIMA, Math.ceil(capacidade / fatorCargaMaximo))));
+	}
+	
+	/**
+	 * Construtor da classe, com fator de carga máximo de 0,75.
+	 * @param capacidade: quantidade de itens esperada.
+	 */
+	public IntTabelaHash(int capacidade) {
+		this(capacidade, 0.75);
+	}
+	
+	private void alocar(int capacidade) {
+		
+		this.capacidade = capacidade;
+		this.deslocamento = 32 - Integer.numberOfTrailingZeros(capacidade);
+		this.chaves = new int[capacidade];
+		this.valores = new Object[capacidade];
+	}
+	
+	private static int potenciaDeDois(int numero) {
+		
+		int potencia = 2;
+		
+		while (potencia < numero)
+			potencia <<= 1;
+		return potencia;
+	}
+	
+	/**
+	 * Função de transformação: hash multiplicativo de Fibonacci sobre a própria chave.
+	 */
+	private int funcaoHash(int chave) {
+		return (chave * CONSTANTE_FIBONACCI) >>> deslocamento;
+	}
+	
+	private int proxima(int posicao) {
+		return (posicao + 1) & (capacidade - 1);
+	}
+	
+	/**
+	 * Localiza a posição da chave na tabela, contabilizando as posições sondadas.
+	 * @return a posição em que a chave está armazenada ou, caso não esteja, 
+	 * o complemento (~) da posição livre em que deveria ser inserida.
+	 */
+	private int localizar(int chave) {
+		
+		int posicao = funcaoHash(chave);
+		
+		comparacoes = 0;
+		while (true) {
+			comparacoes++;
+			if (valores[posicao] == null)
+				return ~posicao;
+			if (chaves[posicao] == chave)
+				return posicao;
+			posicao = proxima(posicao);
+		}
+	}
+	
+	/**
+	 * Insere um novo item na tabela, associado à chave informada.
+	 * @param chave: chave do item.
+	 * @param item: item a ser inserido (não pode ser null).
+	 * @return a posição da tabela em que o item foi inserido.
+	 * @throws IllegalArgumentException caso o item seja null ou um item com a mesma chave já exista na tabela.
+	 */
+	public int inserir(int chave, V item) {
+		
+		int posicao;
+		
+		if (item == null)
+			throw new IllegalArgumentException("Não é possível inserir um item nulo na tabela hash.");
+		
+		posicao = localizar(chave);
+		if (posicao >= 0)
+			throw new IllegalArgumentException("O item já havia sido inserido anteriormente na tabela hash!");
+		
+		return gravar(~posicao, chave, item);
+	}
+	
+	/**
+	 * Grava o item na posição livre informada, redimensionando a tabela antes, se necessário.
+	 * @return a posição em que o item foi gravado.
+	 */
+	private int gravar(int posicaoLivre, int chave, Object item) {
+		
+		if (quantidade + 1 > capacidade * fatorCargaMaximo && capacidade < CAPACIDADE_MAXIMA) {
+			redimensionar(capacidade * 2);
+			posicaoLivre = ~localizar(chave);
+		}
+		chaves[posicaoLivre] = chave;
+		valores[posicaoLivre] = item;
+		quantidade++;
+		return posicaoLivre;
+	}
+	
+	private void redimensionar(int novaCapacidade) {
+		
+		int[] chavesAntigas = chaves;
+		Object[] valoresAntigos = valores;
+		int posicao;
+		
+		alocar(novaCapacidade);
+		for (int i = 0; i < chavesAntigas.length; i++) {
+			if (valoresAntigos[i] != null) {
+				posicao = funcaoHash(chavesAntigas[i]);
+				while (valores[posicao] != null)
+					posicao = proxima(posicao);
+				chaves[posicao] = chavesAntigas[i];
+				valores[posicao] = valoresAntigos[i];
+			}
+		}
+	}
+	
+	/**
+	 * Localiza o item associado à chave informada.
+	 * @param chave: chave do item procurado.
+	 * @return o item associado à chave.
+	 * @throws NoSuchElementException caso a chave não esteja presente na tabela.
+	 */
+	@SuppressWarnings("unchecked")
+	public V pesquisar(int chave) {
+		
+		int posicao;
+		
+		inicio = System.nanoTime();
+		posicao = localizar(chave);
+		termino = System.nanoTime();
+		
+		if (posicao < 0)
+			throw new NoSuchElementException("O item não foi localizado na tabela hash!");
+		return (V) valores[posicao];
+	}
+	
+	/**
+	 * Localiza o item associado à chave informada, sem lançar exceção caso a chave não esteja presente.
+	 * @param chave: chave do item procurado.
+	 * @param valorPadrao: valor retornado caso a chave não esteja presente na tabela.
+	 * @return o item associado à chave ou, caso a chave não seja localizada, valorPadrao.
+	 */
+	@SuppressWarnings("unchecked")
+	public V pesquisar(int chave, V valorPadrao) {
+		
+		int posicao;
+		
+		inicio = System.nanoTime();
+		posicao = localizar(chave);
+		termino = System.nanoTime();
+		
+		return (posicao >= 0) ? (V) valores[posicao] : valorPadrao;
+	}
+	
+	public boolean contem(int chave) {
+		return (localizar(chave) >= 0);
+	}
+	
+	/**
+	 * Retorna o item associado à chave; caso a chave não esteja presente, 
+	 * cria o item por meio da função informada e o insere, com uma única sondagem da tabela.
+	 * @param chave: chave procurada.
+	 * @param funcaoMapeamento: função que cria o item a partir da chave (não pode retornar null).
+	 * @return o item associado à chave (o já existente ou o recém-criado).
+	 */
+	@SuppressWarnings("unchecked")
+	public V calcularSeAusente(int chave, IntFunction<? extends V> funcaoMapeamento) {
+		
+		int posicao = localizar(chave);
+		V novoItem;
+		
+		if (posicao >= 0)
+			return (V) valores[posicao];
+		
+		novoItem = funcaoMapeamento.apply(chave);
+		if (novoItem == null)
+			throw new IllegalArgumentException("Não é possível inserir um item nulo na tabela hash.");
+		gravar(~posicao, chave, novoItem);
+		return novoItem;
+	}
+	
+	/**
+	 * Remove, da tabela, o item associado à chave informada.
+	 * Os itens seguintes do mesmo agrupamento são deslocados para trás.
+	 * @param chave: chave do item a ser removido.
+	 * @return o item removido.
+	 * @throws NoSuchElementException caso a chave não esteja presente na tabela.
+	 */
+	@SuppressWarnings("unchecked")
+	public V remover(int chave) {
+		
+		int livre, atual, ideal;
+		V removido;
+		
+		livre = localizar(chave);
+		if (livre < 0)
+			throw new NoSuchElementException("O item a ser removido não foi localizado na tabela hash!");
+		
+		removido = (V) valores[livre];
+		
+		atual = proxima(livre);
+		while (valores[atual] != null) {
+			ideal = funcaoHash(chaves[atual]);
+			if (((atual - ideal) & (capacidade - 1)) >= ((atual - livre) & (capacidade - 1))) {
+				chaves[livre] = chaves[atual];
+				valores[livre] = valores[atual];
+				livre = atual;
+			}
+			atual = proxima(atual);
+		}
+		valores[livre] = null;
+		quantidade--;
+		return removido;
+	}
+	
+	public int tamanho() {
+		return quantidade;
+	}
+	
+	public int getCapacidade() {
+		return capacidade;
+	}
+	
+	@Override
+	public String toString() {
+		return percorrer();
+	}
+	
+	/**
+	 * Retorna a representação, em string, das posições ocupadas da tabela.
+	 */
+	public String percorrer() {
+		
+		StringBuilder conteudo = new StringBuilder();
+		
+		try {
+			percorrer(conteudo);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e); /// não ocorre: StringBuilder não lança IOException.
+		}
+		return conteudo.toString();
+	}
+	
+	/**
+	 * Escreve a representação das posições ocupadas da tabela no destino, sem montá-la antes em memória.
+	 * @throws IOException caso ocorra um erro de escrita no destino.
+	 */
+	public void percorrer(Appendable destino) throws IOException {
+		
+		destino.append("Tabela com " + capacidade + " posições e " + quantidade + " itens\n");
+		for (int i = 0; i < capacidade; i++) {
+			if (valores[i] != null)
+				destino.append("Posição[" + i + "]: " + chaves[i] + "-->" + valores[i] + "\n");
+		}
+	}
+	
+	@Override
+	public long getComparacoes() {
+		return comparacoes;
+	}
+
+	@Override
+	public double getTempo() {
+		return (termino - inicio) / 1_000_000;
+	}
+}
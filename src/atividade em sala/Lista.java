@@ -1,3 +1,5 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.NoSuchElementException;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -138,6 +140,36 @@ public class Lista<E> implements IMedicao {
 	
 	public E pesquisar(E procurado) {
 		
+		Celula<E> celula = localizar(procurado);
+		
+		if (celula == null)
+			throw new NoSuchElementException("Item não encontrado!");
+		return celula.getItem();
+	}
+	
+	/**
+	 * Pesquisa um item igual ao informado, retornando o valor padrão caso ele não esteja na lista.
+	 * Nenhuma exceção é lançada quando o item não é localizado.
+	 * @param procurado item a ser procurado (comparado por equals).
+	 * @param valorPadrao valor retornado caso o item não seja localizado.
+	 * @return o item da lista igual ao procurado ou, caso não exista, valorPadrao.
+	 */
+	public E pesquisar(E procurado, E valorPadrao) {
+		
+		Celula<E> celula = localizar(procurado);
+		
+		return (celula != null) ? celula.getItem() : valorPadrao;
+	}
+	
+	/**
+	 * Indica se a lista contém um item igual ao informado (comparado por equals).
+	 */
+	public boolean contem(E procurado) {
+		return (localizar(procurado) != null);
+	}
+	
+	private Celula<E> localizar(E procurado) {
+		
 		Celula<E> aux;
 		comparacoes = 0;
 		inicio = System.nanoTime();
@@ -148,31 +180,47 @@ public class Lista<E> implements IMedicao {
 			comparacoes++;
 			if (aux.getItem().equals(procurado)) {
 				termino = System.nanoTime();
-				return aux.getItem();
+				return aux;
 			}
 			aux = aux.getProximo();
 		}
 		
-		throw new NoSuchElementException("Item não encontrado!");
+		termino = System.nanoTime();
+		return null;
 	}
 	
 	@Override
 	public String toString() {
 		
-		Celula<E> aux;
-		String listaString = "A lista está vazia!\n";
+		StringBuilder listaString = new StringBuilder();
 		
-		if (!vazia()) {
-			listaString = "";
+		try {
+			escrever(listaString);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e); /// não ocorre: StringBuilder não lança IOException.
+		}
+		return listaString.toString();
+	}
+	
+	/**
+	 * Escreve os itens da lista no destino informado, um por linha, sem montar uma string intermediária.
+	 * @param destino onde os itens serão escritos (um StringBuilder ou um Writer, por exemplo).
+	 * @throws IOException caso ocorra um erro de escrita no destino.
+	 */
+	public void escrever(Appendable destino) throws IOException {
+		
+		Celula<E> aux;
 		
+		if (vazia())
+			destino.append("A lista está vazia!\n");
+		else {
 			aux = this.primeiro.getProximo();
 		
 			while (aux != null) {
-				listaString += aux.getItem() + "\n";
+				destino.append(String.valueOf(aux.getItem())).append('\n');
 				aux = aux.getProximo();
 			}
 		}
-		return listaString;
 	}
 	
 	/**
@@ -0,0 +1,306 @@
+import java.util.Arrays;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Multimapa compacto: associa cada chave a uma sequência de valores (por exemplo, produto para seus fornecedores).
+ * As chaves ficam em uma tabela hash com endereçamento aberto e sondagem linear. Os valores de cada chave ficam em
+ * um vetor próprio, que cresce 50% quando fica cheio, e sua quantidade é mantida em um vetor de inteiros.
+ * Assim, cada valor custa apenas uma referência no vetor da chave, sem célula, sentinela ou lista por chave.
+ * Os valores de uma chave são mantidos na ordem em que foram anexados. Não há remoção de chaves nem de valores.
+ * A classe não é sincronizada: anexações concorrentes devem ser feitas em multimapas separados e reunidas com
+ * {@link #anexarTodos(Multimapa)}.
+ */
+public class Multimapa<K, V> implements IMedicao {
+
+	/// Hash multiplicativo de Fibonacci, que espalha os códigos hash por uma tabela cuja capacidade é potência de 2.
+	private static final IFuncaoHash FUNCAO_HASH = new HashFibonacci();
+
+	private static final double FATOR_CARGA_MAXIMO = 0.75;
+	private static final int CAPACIDADE_MAXIMA = 1 << 30;
+	private static final int CAPACIDADE_INICIAL_VALORES = 4;
+
+	private Object[] chaves;
+	private Object[][] valores;  /// valores[i]: valores da chave armazenada na posição i.
+	private int[] quantidades;   /// quantidades[i]: quantidade de valores usados em valores[i] (0 indica posição livre).
+
+	private int capacidade;      /// quantidade de posições da tabela de chaves (potência de 2).
+	private int quantidadeChaves;
+	private long quantidadeValores;
+
+	private long comparacoes; // quantidade de chaves comparadas na última pesquisa.
+	private long inicio;
+	private long termino;
+
+	/**
+	 * Construtor da classe.
+	 * @param capacidade: quantidade de chaves esperada.
+	 * @throws IllegalArgumentException caso a capacidade não seja positiva.
+	 */
+	public Multimapa(int capacidade) {
+
+		if (capacidade < 1)
+			throw new IllegalArgumentException("A capacidade do multimapa não pode ser menor do que 1.");
+
+		this.quantidadeChaves = 0;
+		this.quantidadeValores = 0;
+		alocar(FUNCAO_HASH.ajustarCapacidade((int) Math.min(CAPACIDADE_MAXIMA, Math.ceil(capacidade / FATOR_CARGA_MAXIMO))));
+	}
+
+	private void alocar(int capacidade) {
+
+		this.capacidade = capacidade;
+		this.chaves = new Object[capacidade];
+		this.valores = new Object[capacidade][];
+		this.quantidades = new int[capacidade];
+	}
+
+	/**
+	 * Função de transformação: hash multiplicativo de Fibonacci sobre o código hash da chave.
+	 */
+	private int funcaoHash(Object chave) {
+		return FUNCAO_HASH.posicao(chave.hashCode(), capacidade);
+	}
+
+	private int proxima(int posicao) {
+		return (posicao + 1) & (capacidade - 1);
+	}
+
+	/**
+	 * Localiza a posição da chave na tabela, contabilizando as comparações realizadas.
+	 * @return a posição em que a chave está armazenada ou, caso não esteja,
+	 * o complemento (~) da posição livre em que deveria ser inserida.
+	 */
+	private int localizar(K chave) {
+
+		int posicao = funcaoHash(chave);
+
+		comparacoes = 0;
+		while (quantidades[posicao] != 0) {
+			comparacoes++;
+			if (chaves[posicao].equals(chave))
+				return posicao;
+			posicao = proxima(posicao);
+		}
+		return ~posicao;
+	}
+
+	/**
+	 * Retorna a posição da chave, inserindo-a (sem valores) caso ainda não exista.
+	 * O vetor de valores da chave é criado com pelo menos a quantidade de valores informada.
+	 */
+	private int posicaoParaAnexar(K chave, int valoresEsperados) {
+
+		int posicao = localizar(chave);
+
+		if (posicao < 0) {
+			if (quantidadeChaves + 1 > capacidade * FATOR_CARGA_MAXIMO && capacidade < CAPACIDADE_MAXIMA) {
+				redimensionar(2 * capacidade);
+				posicao = localizar(chave);
+			}
+			posicao = ~posicao;
+			chaves[posicao] = chave;
+			valores[posicao] = new Object[Math.max(CAPACIDADE_INICIAL_VALORES, valoresEsperados)];
+			quantidadeChaves++;
+		}
+		return posicao;
+	}
+
+	/**
+	 * Garante espaço, no vetor de valores da posição, para mais "adicionais" valores.
+	 */
+	private void garantirEspaco(int posicao, int adicionais) {
+
+		int necessario = quantidades[posicao] + adicionais;
+		int tamanhoAtual = valores[posicao].length;
+
+		if (necessario > tamanhoAtual)
+			valores[posicao] = Arrays.copyOf(valores[posicao], Math.max(necessario, tamanhoAtual + (tamanhoAtual >> 1)));
+	}
+
+	/**
+	 * Redistribui as chaves em uma nova tabela com a capacidade informada. Os vetores de valores não são copiados.
+	 */
+	private void redimensionar(int novaCapacidade) {
+
+		Object[] chavesAntigas = chaves;
+		Object[][] valoresAntigos = valores;
+		int[] quantidadesAntigas = quantidades;
+		int destino;
+
+		alocar(novaCapacidade);
+		for (int i = 0; i < chavesAntigas.length; i++) {
+			if (quantidadesAntigas[i] != 0) {
+				destino = funcaoHash(chavesAntigas[i]);
+				while (quantidades[destino] != 0)
+					destino = proxima(destino);
+				chaves[destino] = chavesAntigas[i];
+				valores[destino] = valoresAntigos[i];
+				quantidades[destino] = quantidadesAntigas[i];
+			}
+		}
+	}
+
+	/**
+	 * Anexa o valor ao final da sequência de valores da chave, criando a sequência caso a chave ainda não exista.
+	 * @param chave: chave à qual o valor será associado.
+	 * @param valor: valor a ser anexado.
+	 * @throws IllegalArgumentException caso a chave ou o valor sejam nulos.
+	 */
+	public void anexar(K chave, V valor) {
+
+		int posicao;
+
+		if (chave == null || valor == null)
+			throw new IllegalArgumentException("A chave e o valor não podem ser nulos.");
+
+		posicao = posicaoParaAnexar(chave, 1);
+		garantirEspaco(posicao, 1);
+		valores[posicao][quantidades[posicao]++] = valor;
+		quantidadeValores++;
+	}
+
+	/**
+	 * Anexa, de uma só vez, os valores informados ao final da sequência de valores da chave.
+	 * O vetor da chave cresce no máximo uma vez, e os valores são copiados em bloco.
+	 * @param chave: chave à qual os valores serão associados.
+	 * @param novosValores: valores a serem anexados, na ordem em que serão mantidos.
+	 * @throws IllegalArgumentException caso a chave ou algum dos valores sejam nulos.
+	 */
+	@SafeVarargs
+	@SuppressWarnings("varargs") /// o vetor é repassado ao método privado abaixo, que apenas lê seus itens.
+	public final void anexarTodos(K chave, V... novosValores) {
+		anexarTodos(chave, novosValores, novosValores.length);
+	}
+
+	private void anexarTodos(K chave, Object[] novosValores, int quantidade) {
+
+		int posicao;
+
+		if (chave == null)
+			throw new IllegalArgumentException("A chave não pode ser nula.");
+		for (int i = 0; i < quantidade; i++) {
+			if (novosValores[i] == null)
+				throw new IllegalArgumentException("Os valores não podem ser nulos.");
+		}
+		if (quantidade == 0)
+			return;
+
+		posicao = posicaoParaAnexar(chave, quantidade);
+		garantirEspaco(posicao, quantidade);
+		System.arraycopy(novosValores, 0, valores[posicao], quantidades[posicao], quantidade);
+		quantidades[posicao] += quantidade;
+		quantidadeValores += quantidade;
+	}
+
+	/**
+	 * Anexa a este multimapa todos os valores do multimapa informado, chave a chave, em bloco.
+	 * Permite que várias threads preencham multimapas separados, reunidos depois em uma única thread.
+	 * @param outro: multimapa cujos valores serão anexados. Ele não é alterado.
+	 */
+	@SuppressWarnings("unchecked")
+	public void anexarTodos(Multimapa<? extends K, ? extends V> outro) {
+
+		for (int i = 0; i < outro.capacidade; i++) {
+			if (outro.quantidades[i] != 0)
+				anexarTodos((K) outro.chaves[i], outro.valores[i], outro.quantidades[i]);
+		}
+	}
+
+	/**
+	 * Retorna a quantidade de valores associados à chave, sem percorrê-los.
+	 * @param chave: chave procurada.
+	 * @return a quantidade de valores da chave, ou 0 caso a chave não exista.
+	 */
+	public int quantidade(K chave) {
+
+		int posicao;
+
+		inicio = System.nanoTime();
+		posicao = localizar(chave);
+		termino = System.nanoTime();
+		return (posicao >= 0) ? quantidades[posicao] : 0;
+	}
+
+	/**
+	 * Indica se existe ao menos um valor associado à chave.
+	 */
+	public boolean contem(K chave) {
+		return (quantidade(chave) > 0);
+	}
+
+	/**
+	 * Executa a ação informada para cada valor associado à chave, na ordem em que os valores foram anexados.
+	 * Os valores são lidos diretamente do vetor da chave; nenhuma cópia é criada.
+	 * @param chave: chave cujos valores serão percorridos.
+	 * @param acao: ação a ser executada sobre cada valor.
+	 * @return a quantidade de valores percorridos (0, caso a chave não exista).
+	 */
+	@SuppressWarnings("unchecked")
+	public int paraCada(K chave, Consumer<? super V> acao) {
+
+		int posicao;
+		Object[] valoresChave;
+
+		inicio = System.nanoTime();
+		posicao = localizar(chave);
+		termino = System.nanoTime();
+		if (posicao < 0)
+			return 0;
+
+		valoresChave = valores[posicao];
+		for (int i = 0; i < quantidades[posicao]; i++)
+			acao.accept((V) valoresChave[i]);
+		return quantidades[posicao];
+	}
+
+	/**
+	 * Executa a ação informada para cada par chave/valor do multimapa.
+	 * As chaves são visitadas na ordem da tabela; os valores de cada chave, na ordem em que foram anexados.
+	 * @param acao: ação a ser executada sobre cada chave e cada um de seus valores.
+	 */
+	@SuppressWarnings("unchecked")
+	public void paraCadaPar(BiConsumer<? super K, ? super V> acao) {
+
+		for (int i = 0; i < capacidade; i++) {
+			for (int j = 0; j < quantidades[i]; j++)
+				acao.accept((K) chaves[i], (V) valores[i][j]);
+		}
+	}
+
+	/**
+	 * Reduz o vetor de valores de cada chave à sua quantidade de valores, eliminando o espaço reservado para crescimento.
+	 * Indicado após a carga, quando não houver mais anexações.
+	 */
+	public void compactar() {
+
+		for (int i = 0; i < capacidade; i++) {
+			if (quantidades[i] != 0 && quantidades[i] < valores[i].length)
+				valores[i] = Arrays.copyOf(valores[i], quantidades[i]);
+		}
+	}
+
+	/**
+	 * Retorna a quantidade de chaves armazenadas.
+	 */
+	public int tamanho() {
+		return quantidadeChaves;
+	}
+
+	/**
+	 * Retorna a quantidade total de valores armazenados, somando todas as chaves.
+	 */
+	public long getQuantidadeValores() {
+		return quantidadeValores;
+	}
+
+	@Override
+	public long getComparacoes() {
+		return comparacoes;
+	}
+
+	@Override
+	public double getTempo() {
+		return (termino - inicio) / 1_000_000;
+	}
+}
@@ -5,6 +5,7 @@ public class No<K, V> {
 	private No<K, V> direita;    // referência ao nodo armazenado, na árvore, à direita do nó em questão.
 	private No<K, V> esquerda;   // referência ao nodo armazenado, na árvore, à esquerda do nó em questão.
 	private int altura;
+	private int tamanho;   // quantidade de nodos da sub-árvore enraizada neste nodo, incluindo ele próprio.
 	
 	public No(K chave, V item) {
 		setChave(chave);
@@ -12,6 +13,7 @@ public class No<K, V> {
 	    setDireita(null);
 	    setEsquerda(null);
 	    altura = 0;
+	    tamanho = 1;
 	}
 
 	public V getItem() {
@@ -71,6 +73,27 @@ public class No<K, V> {
 			altura = alturaDireita + 1;
 	}
 	
+	private int getTamanho(No<K, V> no) {
+		
+		if (no != null)
+			return no.getTamanho();
+		else
+			return 0;
+	}
+	
+	public int getTamanho() {
+		return this.tamanho;
+	}
+	
+	/**
+	 * Recalcula o tamanho da sub-árvore a partir dos tamanhos, já atualizados, das sub-árvores esquerda e direita.
+	 * É chamado sempre que os filhos do nó mudam (na subida de inserções e remoções, nas rotações e na carga em lote);
+	 * subclasses podem estendê-lo para recalcular, também, outros agregados da sub-árvore.
+	 */
+	public void setTamanho() {
+		tamanho = getTamanho(esquerda) + getTamanho(direita) + 1;
+	}
+	
 	public int getFatorBalanceamento() {
 		
 		int alturaEsquerda, alturaDireita;
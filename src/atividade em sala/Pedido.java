@@ -2,11 +2,13 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
 
 public class Pedido implements Comparable<Pedido>{
 
-	private static int ultimoID = 1;
+	/** Próximo identificador de pedido. Atômico, pois pedidos podem ser criados por várias threads ao mesmo tempo */
+	private static final AtomicInteger ultimoID = new AtomicInteger(1);
 	
 	private int idPedido;
 	
@@ -31,13 +33,34 @@ public class Pedido implements Comparable<Pedido>{
 	 */  
 	public Pedido(LocalDate dataPedido, int formaDePagamento) {
 		
-		idPedido = ultimoID++;
+		idPedido = ultimoID.getAndIncrement();
 		produtos = new Lista<Produto>();
 		quantProdutos = 0;
 		this.dataPedido = dataPedido;
 		this.formaDePagamento = formaDePagamento;
 	}
 	
+	/** Construtor do pedido com um identificador previamente reservado por {@link #reservarIdentificadores(int)}.
+	 *  Permite que pedidos sejam criados por várias threads com identificadores que não dependem da ordem de execução.
+	 */
+	public Pedido(int idPedido, LocalDate dataPedido, int formaDePagamento) {
+		
+		this.idPedido = idPedido;
+		produtos = new Lista<Produto>();
+		quantProdutos = 0;
+		this.dataPedido = dataPedido;
+		this.formaDePagamento = formaDePagamento;
+	}
+	
+	/**
+	 * Reserva um bloco de identificadores consecutivos, que não serão atribuídos a nenhum outro pedido.
+	 * @param quantidade Quantidade de identificadores a serem reservados.
+	 * @return O primeiro identificador do bloco.
+	 */
+	public static int reservarIdentificadores(int quantidade) {
+		return ultimoID.getAndAdd(quantidade);
+	}
+	
 	/**
      * Inclui um produto neste pedido e aumenta a quantidade de produtos armazenados no pedido até o momento.
      * @param novo O produto a ser incluído no pedido
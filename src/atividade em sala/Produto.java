@@ -81,6 +81,14 @@ public abstract class Produto implements Comparable<Produto>{
         return idProduto;
     }
 
+    /**
+     * Retorna a descrição (nome) do produto.
+     * @return String com a descrição do produto.
+     */
+    public String getDescricao() {
+        return descricao;
+    }
+
     /**
      * Igualdade de produtos: caso possuam o mesmo código. 
      * @param obj Outro produto a ser comparado 
@@ -48,6 +48,15 @@ public class ProdutoPerecivel extends Produto{
 		dataDeValidade = validade;
 	}
 
+	/**
+     * Indica se o produto está vencido, isto é, se sua data de validade é anterior ao dia de hoje.
+     * Um produto vencido não tem valor de venda.
+     * @return Verdadeiro se a data de validade já passou.
+     */
+	public boolean vencido() {
+		return dataDeValidade.isBefore(LocalDate.now());
+	}
+	
 	/**
      * Retorna o valor de venda do produto, considerando seu preço de custo, margem de lucro e
      * dias de validade. Se o prazo de validade estiver a menos de 7 dias, será concedido desconto de 25%.
@@ -58,7 +67,7 @@ public class ProdutoPerecivel extends Produto{
 		
 		double precoVenda;
 		
-		if (dataDeValidade.isBefore(LocalDate.now())) {
+		if (vencido()) {
 			throw new IllegalArgumentException("Data de validade do produto é anterior ao dia de hoje!");
 		}
 		
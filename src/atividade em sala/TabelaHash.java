@@ -1,13 +1,55 @@
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
-public class TabelaHash<K, V> implements IMapeamento<K, V> {
+public class TabelaHash<K, V> implements IMapeamento<K, V>, Iterable<Entrada<K, V>> {
+
+	/// Valor do fator de carga máximo que indica que a tabela não deve ser redimensionada automaticamente.
+	public static final double SEM_REDIMENSIONAMENTO = 0.0;
+	
+	/// Quantidade de posições da tabela antiga que são migradas, para a nova tabela, a cada operação de inserção ou remoção.
+	private static final int POSICOES_MIGRADAS_POR_OPERACAO = 4;
+	
+	/// Comprimento acima do qual a lista encadeada de uma posição é convertida em uma árvore AVL.
+	public static final int LIMITE_ARVORE = 8;
+	
+	/// Quantidade de itens a partir da qual (inclusive), após uma remoção, a árvore AVL de uma posição volta a ser uma lista encadeada.
+	public static final int LIMITE_LISTA = 6;
 
 	private Lista<Entrada<K, V>>[] tabelaHash; /// tabela que referenciará todas as listas lineares encadeadas.
 								      /// Nesse caso, estamos utilizando uma tabela hash com endereçamento em separado,
 								      /// ou seja, os itens são armazenados em listas lineares encadeadas.
 
 	private int capacidade; /// tamanho da tabela hash.
-	                        /// deve ser um número primo grande para diminuirmos a probabilidade de colisões.
+	                        /// é ajustado pela função de transformação (por exemplo, para um número primo ou uma potência de 2).
+	
+	private IFuncaoHash estrategiaHash; /// função de transformação que converte o código hash da chave em uma posição.
+	
+	private AVL<K, Entrada<K, V>>[] arvores; /// arvores[i] != null indica que os itens da posição i estão armazenados nessa árvore
+	                                         /// (e não na lista encadeada), por terem ultrapassado LIMITE_ARVORE.
+	private AVL<K, Entrada<K, V>>[] arvoresAntigas; /// árvores das posições da tabela antiga, durante um redimensionamento.
+	private Comparator<K> comparadorChaves; /// comparador das chaves nas árvores. null: ordem natural, se as chaves forem Comparable.
+	private int posicoesEmArvore;           /// quantidade de posições cujos itens estão armazenados em árvores.
+	private int modificacoes;               /// quantidade de inserções e remoções de entradas: invalida os iteradores em andamento.
+	
+	private Lista<Entrada<K, V>>[] tabelaAntiga; /// tabela anterior ao redimensionamento, enquanto ainda houver posições a migrar.
+	                                             /// null quando não há redimensionamento em andamento.
+	private int capacidadeAntiga;
+	private int proximaPosicaoMigrada; /// posições da tabela antiga menores do que este índice já foram migradas.
+	
+	private double fatorCargaMaximo; /// fator de carga a partir do qual a tabela é redimensionada.
+	private int quantidade;          /// quantidade de itens armazenados na tabela (em ambas as tabelas, durante a migração).
+	
+	private int[] histogramaCadeias; /// histogramaCadeias[n]: quantidade de posições que armazenam n itens (em lista ou árvore).
+	                                 /// Considera todas as posições em uso, inclusive as da tabela antiga ainda não migradas.
+	private int maiorCadeia;         /// quantidade de itens da posição mais carregada da tabela.
 
 	private int comparacoes;		// contador de operacoes para busca
 	private long inicio;
@@ -19,32 +61,335 @@ public class TabelaHash<K, V> implements IMapeamento<K, V> {
 	 * Assim, esse método atribui, ao atributo "capacidade", dessa classe, o valor passado por meio do parâmetro "capacidade".
 	 * Esse método também cria um vetor, de tamanho "capacidade", de listas lineares; e o atribui ao atributo "tabelaHash".
 	 * Adicionalmente, cada posição do vetor é inicializada com uma lista encadeada vazia.
+	 * A tabela criada por esse construtor não é redimensionada automaticamente e usa o método da divisão.
+	 * A capacidade informada é usada exatamente como foi passada, sem ser ajustada para um número primo.
 	 * @param capacidade: quantidade de posições da tabela hash. Cada posição é uma lista encadeada. 
 	 * @throws IllegalArgumentException caso a capacidade seja um número não positivo.
 	 */
-	@SuppressWarnings("unchecked")
 	public TabelaHash(int capacidade) {
+		this(capacidade, SEM_REDIMENSIONAMENTO);
+	}
+	
+	/**
+	 * Construtor da classe, com redimensionamento automático e função de transformação pelo método da divisão.
+	 * A capacidade inicial é usada exatamente como foi passada; apenas as capacidades escolhidas
+	 * nos redimensionamentos são ajustadas para números primos.
+	 * @param capacidade: quantidade inicial de posições da tabela hash.
+	 * @param fatorCargaMaximo: fator de carga que dispara o redimensionamento. 
+	 * Use {@link #SEM_REDIMENSIONAMENTO} para uma tabela de capacidade fixa.
+	 */
+	public TabelaHash(int capacidade, double fatorCargaMaximo) {
+		this(capacidade, fatorCargaMaximo, new HashDivisao(), null, false);
+	}
+	
+	/**
+	 * Construtor da classe.
+	 * Cria uma tabela hash que é redimensionada automaticamente sempre que seu fator de carga 
+	 * (quantidade de itens / capacidade) ultrapassar o fator de carga máximo informado.
+	 * O redimensionamento é incremental: a nova tabela é criada com aproximadamente o dobro da capacidade
+	 * e as listas da tabela antiga são migradas aos poucos, algumas posições a cada inserção ou remoção.
+	 * Dessa forma, nenhuma operação isolada paga o custo de redistribuir todos os itens da tabela.
+	 * A capacidade informada é ajustada pela função de transformação (por exemplo, para uma potência de 2).
+	 * @param capacidade: quantidade inicial de posições da tabela hash.
+	 * @param fatorCargaMaximo: fator de carga que dispara o redimensionamento. 
+	 * Use {@link #SEM_REDIMENSIONAMENTO} para uma tabela de capacidade fixa.
+	 * @param estrategiaHash: função de transformação das chaves em posições da tabela.
+	 * @throws IllegalArgumentException caso a capacidade seja um número não positivo ou o fator de carga seja negativo.
+	 */
+	public TabelaHash(int capacidade, double fatorCargaMaximo, IFuncaoHash estrategiaHash) {
+		this(capacidade, fatorCargaMaximo, estrategiaHash, null);
+	}
+	
+	/**
+	 * Construtor da classe.
+	 * Além das opções do construtor anterior, recebe o comparador usado para organizar as chaves 
+	 * das posições convertidas em árvores AVL, quando sua lista ultrapassa {@link #LIMITE_ARVORE} itens.
+	 * Com o comparador null, as chaves são comparadas por sua ordem natural, se forem Comparable; 
+	 * caso contrário, as posições permanecem como listas encadeadas.
+	 * @param capacidade: quantidade inicial de posições da tabela hash.
+	 * @param fatorCargaMaximo: fator de carga que dispara o redimensionamento. 
+	 * @param estrategiaHash: função de transformação das chaves em posições da tabela.
+	 * @param comparadorChaves: comparador das chaves nas posições convertidas em árvores (pode ser null).
+	 */
+	public TabelaHash(int capacidade, double fatorCargaMaximo, IFuncaoHash estrategiaHash, Comparator<K> comparadorChaves) {
+		this(capacidade, fatorCargaMaximo, estrategiaHash, comparadorChaves, true);
+	}
+	
+	/// Os construtores antigos, anteriores às funções de transformação plugáveis, preservam a capacidade inicial pedida.
+	private TabelaHash(int capacidade, double fatorCargaMaximo, IFuncaoHash estrategiaHash, Comparator<K> comparadorChaves,
+			boolean ajustarCapacidadeInicial) {
 		
 		if (capacidade < 1) {
 			throw new IllegalStateException("A capacidade da tabela hash não pode ser menor do que 1.");
 		}
-		this.capacidade = capacidade;
-		tabelaHash = (Lista<Entrada<K, V>>[]) new Lista[capacidade]; 
+		if (fatorCargaMaximo < 0 || Double.isNaN(fatorCargaMaximo)) {
+			throw new IllegalArgumentException("O fator de carga máximo da tabela hash não pode ser negativo.");
+		}
+		this.estrategiaHash = estrategiaHash;
+		this.comparadorChaves = comparadorChaves;
+		this.posicoesEmArvore = 0;
+		this.capacidade = ajustarCapacidadeInicial ? estrategiaHash.ajustarCapacidade(capacidade) : capacidade;
+		this.fatorCargaMaximo = fatorCargaMaximo;
+		this.quantidade = 0;
+		this.histogramaCadeias = new int[8];
+		this.maiorCadeia = 0;
+		tabelaHash = criarTabela(this.capacidade);
+		arvores = criarArvores(this.capacidade);
+	}
+	
+	@SuppressWarnings("unchecked")
+	private Lista<Entrada<K, V>>[] criarTabela(int capacidade) {
+		
+		Lista<Entrada<K, V>>[] tabela = (Lista<Entrada<K, V>>[]) new Lista[capacidade]; 
 		
 		for (int i = 0; i < capacidade; i++)
-			tabelaHash[i] = new Lista<>();
+			tabela[i] = new Lista<>();
+		histogramaCadeias[0] += capacidade;
+		return tabela;
+	}
+	
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private AVL<K, Entrada<K, V>>[] criarArvores(int capacidade) {
+		return (AVL<K, Entrada<K, V>>[]) new AVL[capacidade];
 	}
 	
 	/**
 	 *  Esse método implementa a função de transformação da tabela hash, 
 	 * ou seja, calcula a posição, na tabela hash, em que o item,
 	 * que possui a chave informada por meio do parâmetro "chave", deve ser encontrado.
-	 * A função de transformação utilizada corresponde ao resto da divisão do hashCode de "chave" pelo tamanho da tabela hash.
+	 * O cálculo é delegado à estratégia de transformação da tabela, a partir do hashCode de "chave".
 	 * @param chave: chave da qual desejamos saber a posição na tabela hash.
+	 * @param capacidade: tamanho da tabela hash considerada (a atual ou a antiga, durante um redimensionamento).
 	 * @return a posição que o item, cuja chave corresponde a que foi passada como parâmetro para esse método, deve ocupar na tabela hash.
 	 */
-	private int funcaoHash(K chave) {
-		return Math.abs(chave.hashCode() % capacidade);
+	private int funcaoHash(K chave, int capacidade) {
+		return estrategiaHash.posicao(chave.hashCode(), capacidade);
+	}
+	
+	/**
+	 * Retorna a posição em que a chave informada está, ou deverá ser, armazenada.
+	 * Durante um redimensionamento, se a posição correspondente da tabela antiga ainda não foi migrada, 
+	 * é essa posição antiga que contém a chave: nesse caso, o valor retornado é o complemento (~) da posição na tabela antiga.
+	 */
+	private int posicaoDaChave(K chave) {
+		
+		int posicaoAntiga;
+		
+		if (tabelaAntiga != null) {
+			posicaoAntiga = funcaoHash(chave, capacidadeAntiga);
+			if (posicaoAntiga >= proximaPosicaoMigrada)
+				return ~posicaoAntiga;
+		}
+		return funcaoHash(chave, capacidade);
+	}
+	
+	/// lista encadeada da posição retornada por posicaoDaChave (da tabela atual ou da antiga).
+	private Lista<Entrada<K, V>> lista(int posicao) {
+		return (posicao >= 0) ? tabelaHash[posicao] : tabelaAntiga[~posicao];
+	}
+	
+	/// árvore da posição retornada por posicaoDaChave, ou null caso os itens dessa posição estejam na lista encadeada.
+	private AVL<K, Entrada<K, V>> arvore(int posicao) {
+		return (posicao >= 0) ? arvores[posicao] : arvoresAntigas[~posicao];
+	}
+	
+	/// quantidade de itens armazenados na posição (em sua lista ou em sua árvore).
+	private int tamanhoPosicao(int posicao) {
+		
+		AVL<K, Entrada<K, V>> arvore = arvore(posicao);
+		
+		return (arvore != null) ? arvore.tamanho() : lista(posicao).tamanho();
+	}
+	
+	/**
+	 * Localiza a entrada que armazena a chave, na lista ou na árvore da posição informada.
+	 * O número de comparações (cálculo da posição + chaves comparadas) é registrado.
+	 * @return a entrada que armazena a chave, ou null caso a chave não esteja presente.
+	 */
+	private Entrada<K, V> localizar(int posicao, K chave) {
+		
+		AVL<K, Entrada<K, V>> arvore = arvore(posicao);
+		Entrada<K, V> entrada;
+		
+		if (arvore == null)
+			return localizar(lista(posicao), chave);
+		if (!comparaveis(chave, arvore))
+			return percorrer(arvore, chave);
+		
+		/// a ordem da árvore só orienta a descida: a chave encontrada ainda precisa ser igual (equals) à procurada.
+		entrada = arvore.pesquisar(chave, null);
+		comparacoes = 1 + (int) arvore.getComparacoes();
+		return ((entrada != null) && entrada.getChave().equals(chave)) ? entrada : null;
+	}
+	
+	/**
+	 * Procura a chave comparando-a, por equals, com cada entrada da árvore.
+	 * Usado quando a chave não pode ser comparada às chaves da árvore (por exemplo, por ser de outra classe).
+	 */
+	private Entrada<K, V> percorrer(AVL<K, Entrada<K, V>> arvore, K chave) {
+		
+		Lista<Entrada<K, V>> encontradas = new Lista<>();
+		
+		arvore.paraCada(entrada -> {
+			if (entrada.getChave().equals(chave))
+				encontradas.inserirFinal(entrada);
+		});
+		comparacoes = 1 + arvore.tamanho();
+		return encontradas.vazia() ? null : encontradas.getPrimeiro().getProximo().getItem();
+	}
+	
+	/**
+	 * Armazena a entrada na posição informada. 
+	 * Se a lista encadeada da posição ultrapassar LIMITE_ARVORE itens, ela é convertida em uma árvore AVL,
+	 * desde que todas as suas chaves possam ser comparadas entre si.
+	 * Uma chave que não pode ser comparada às chaves de uma árvore, ou que empata (mesmo hashCode e compareTo igual a 0)
+	 * com uma chave diferente já armazenada, faz a posição voltar a ser uma lista encadeada.
+	 */
+	private void inserirEntrada(int posicao, Entrada<K, V> entrada) {
+		
+		AVL<K, Entrada<K, V>> arvore = arvore(posicao);
+		Lista<Entrada<K, V>> lista;
+		int comprimentoAnterior = tamanhoPosicao(posicao);
+		
+		modificacoes++;
+		if ((arvore != null) && comparaveis(entrada.getChave(), arvore) && !arvore.contem(entrada.getChave()))
+			arvore.inserir(entrada.getChave(), entrada);
+		else {
+			if (arvore != null)
+				converterEmLista(posicao);
+			lista = lista(posicao);
+			lista.inserirFinal(entrada);
+			if ((arvore == null) && (lista.tamanho() > LIMITE_ARVORE) && podeUsarArvore(lista))
+				converterEmArvore(posicao);
+		}
+		registrarAlteracaoCadeia(comprimentoAnterior, comprimentoAnterior + 1);
+	}
+	
+	/**
+	 * Retira a entrada da posição informada. 
+	 * Se a posição estiver organizada como árvore e ficar com LIMITE_LISTA itens ou menos, ela volta a ser uma lista encadeada.
+	 */
+	private void removerEntrada(int posicao, Entrada<K, V> entrada) {
+		
+		AVL<K, Entrada<K, V>> arvore = arvore(posicao);
+		int comprimentoAnterior = tamanhoPosicao(posicao);
+		
+		modificacoes++;
+		if (arvore == null)
+			lista(posicao).remover(entrada);
+		else {
+			arvore.remover(entrada.getChave());
+			if (arvore.tamanho() <= LIMITE_LISTA)
+				converterEmLista(posicao);
+		}
+		registrarAlteracaoCadeia(comprimentoAnterior, comprimentoAnterior - 1);
+	}
+	
+	/**
+	 * Verifica se as chaves da lista podem ser organizadas em uma árvore: com um comparador informado, sempre;
+	 * pela ordem natural, apenas se todas forem Comparable e da mesma classe (compareTo entre classes diferentes 
+	 * lançaria ClassCastException).
+	 */
+	private boolean podeUsarArvore(Lista<Entrada<K, V>> lista) {
+		
+		Celula<Entrada<K, V>> aux = lista.getPrimeiro().getProximo();
+		K primeira = aux.getItem().getChave();
+		
+		while (aux != null) {
+			if (!comparaveis(aux.getItem().getChave(), primeira))
+				return false;
+			aux = aux.getProximo();
+		}
+		return true;
+	}
+	
+	/// indica se as duas chaves podem ser comparadas pelo comparador das árvores.
+	private boolean comparaveis(K chave, K outra) {
+		return (comparadorChaves != null) || ((chave instanceof Comparable) && (chave.getClass() == outra.getClass()));
+	}
+	
+	/// indica se a chave pode ser comparada às chaves da árvore (que são todas comparáveis entre si).
+	private boolean comparaveis(K chave, AVL<K, Entrada<K, V>> arvore) {
+		return comparaveis(chave, arvore.getRaiz().getChave());
+	}
+	
+	/**
+	 * Comparador das chaves nas árvores. Assim como nas listas, a identidade das chaves é definida por hashCode e equals: 
+	 * as chaves são ordenadas pelo hashCode, e o comparador informado (ou a ordem natural) apenas desempata 
+	 * chaves com o mesmo hashCode. Chaves que o comparador considera iguais, como os BigDecimal 1 e 1.0, 
+	 * continuam distintas se equals as diferenciar.
+	 */
+	@SuppressWarnings("unchecked")
+	private Comparator<K> comparador() {
+		
+		Comparator<K> desempate = (comparadorChaves != null) ? comparadorChaves : (Comparator<K>) Comparator.naturalOrder();
+		
+		return Comparator.<K>comparingInt(Object::hashCode).thenComparing(desempate);
+	}
+	
+	/**
+	 * Move os itens da lista encadeada da posição informada para uma nova árvore AVL, 
+	 * de modo que as pesquisas nessa posição passem a realizar O(log n) comparações.
+	 * Se duas chaves diferentes empatarem na ordem da árvore, a árvore não as distinguiria: a posição permanece uma lista.
+	 */
+	private void converterEmArvore(int posicao) {
+		
+		AVL<K, Entrada<K, V>> arvore = new AVL<>(comparador());
+		Celula<Entrada<K, V>> aux = lista(posicao).getPrimeiro().getProximo();
+		
+		while (aux != null) {
+			if (arvore.contem(aux.getItem().getChave()))
+				return;
+			arvore.inserir(aux.getItem().getChave(), aux.getItem());
+			aux = aux.getProximo();
+		}
+		definirPosicao(posicao, new Lista<>(), arvore);
+		posicoesEmArvore++;
+	}
+	
+	/**
+	 * Move os itens da árvore AVL da posição informada de volta para a sua lista encadeada.
+	 */
+	private void converterEmLista(int posicao) {
+		
+		Lista<Entrada<K, V>> lista = new Lista<>();
+		
+		arvore(posicao).paraCada(lista::inserirFinal);
+		definirPosicao(posicao, lista, null);
+		posicoesEmArvore--;
+	}
+	
+	private void definirPosicao(int posicao, Lista<Entrada<K, V>> lista, AVL<K, Entrada<K, V>> arvore) {
+		
+		if (posicao >= 0) {
+			tabelaHash[posicao] = lista;
+			arvores[posicao] = arvore;
+		} else {
+			tabelaAntiga[~posicao] = lista;
+			arvoresAntigas[~posicao] = arvore;
+		}
+	}
+	
+	/**
+	 * Localiza, na lista encadeada associada à chave, a entrada que a armazena.
+	 * As chaves são comparadas diretamente, sem a criação de uma entrada auxiliar para a pesquisa.
+	 * O número de comparações (cálculo da posição + chaves comparadas) é registrado.
+	 * @param lista: lista encadeada em que a chave deve estar armazenada.
+	 * @param chave: chave procurada.
+	 * @return a entrada que armazena a chave, ou null caso a chave não esteja presente.
+	 */
+	private Entrada<K, V> localizar(Lista<Entrada<K, V>> lista, K chave) {
+		
+		Celula<Entrada<K, V>> aux = lista.getPrimeiro().getProximo();
+		
+		comparacoes = 1;
+		while (aux != null) {
+			comparacoes++;
+			if (aux.getItem().getChave().equals(chave))
+				return aux.getItem();
+			aux = aux.getProximo();
+		}
+		return null;
 	}
 	
 	/**
@@ -52,29 +397,29 @@ public class TabelaHash<K, V> implements IMapeamento<K, V> {
 	 * Não é permitido inserir, nessa tabela hash, mais de um item com uma mesma chave. 
 	 * @param chave: chave do item que deve ser inserido na tabela hash.
 	 * @param item: referência ao item que deve ser inserido na tabela hash.
-	 * @return a posição na tabela hash em que o novo item foi inserido.
+	 * @return a posição na tabela hash (atual) em que o novo item foi, ou será após a migração, inserido.
 	 * @throws IllegalArgumentException no caso de um item, com a mesma chave, já existir na tabela.
 	 */
 	@Override
 	public int inserir(K chave, V item) {
 		
-		/// cálculo da posição da tabela hash em que o novo item deverá ser armazenado.
-		int posicao = funcaoHash(chave);
+		int posicao;
 		
-		Entrada<K, V> entrada = new Entrada<>(chave, item);
+		migrarPosicoes(POSICOES_MIGRADAS_POR_OPERACAO);
 		
-		/// pesquisa o item, passado como parâmetro para esse método, na lista encadeada 
-		/// associada à posição, da tabela hash, em que esse novo item deverá ser adicionado.
-		/// Se o item não for localizado, 
-		/// ele é inserido no final da lista encadeada 
-		/// associada à posição, da tabela hash, em que esse novo item será localizado. 
-		try {
-			tabelaHash[posicao].pesquisar(entrada);
+		/// pesquisa a chave na posição em que ela deveria estar armazenada 
+		/// (da tabela antiga, se essa posição ainda não foi migrada).
+		/// Se a chave não for localizada, o novo item é inserido nessa posição.
+		posicao = posicaoDaChave(chave);
+		if (localizar(posicao, chave) != null)
 			throw new IllegalArgumentException("O item já havia sido inserido anteriormente na tabela hash!");
-		} catch (NoSuchElementException excecao) {
-			tabelaHash[posicao].inserirFinal(entrada);
-			return posicao;
-		}
+		
+		inserirEntrada(posicao, new Entrada<>(chave, item));
+		quantidade++;
+		
+		if (deveRedimensionar())
+			iniciarRedimensionamento();
+		return funcaoHash(chave, capacidade);
 	}
 	
 	/**
@@ -87,67 +432,252 @@ public class TabelaHash<K, V> implements IMapeamento<K, V> {
 	@Override
 	public V pesquisar(K chave) {
 		
-		/// cálculo da posição da tabela hash em que o item deve estar armazenado.
-		int posicao = funcaoHash(chave);
-		
-		comparacoes = 1;
-		
-		Entrada<K, V> procurado = new Entrada<>(chave, null);
+		Entrada<K, V> procurado;
 		
 		inicio = System.nanoTime();
 		/// pesquisa o item, cuja chave foi passada como parâmetro para esse método,
-		/// na lista encadeada associada à posição, da tabela hash, em que esse item deve estar armazenado.
-		procurado = tabelaHash[posicao].pesquisar(procurado);
-		comparacoes += tabelaHash[posicao].getComparacoes();
+		/// na lista encadeada (ou árvore) associada à posição, da tabela hash, em que esse item deve estar armazenado.
+		procurado = localizar(posicaoDaChave(chave), chave);
 		termino = System.nanoTime();
+		
+		if (procurado == null)
+			throw new NoSuchElementException("O item não foi localizado na tabela hash!");
 		return procurado.getValor();
 	}
 	
+	/**
+	 * Pesquisa o item associado à chave, retornando o valor padrão informado caso a chave não seja localizada.
+	 * Nenhuma exceção é lançada e nenhum objeto é criado durante a pesquisa.
+	 * @param chave: chave do item que deve ser localizado na tabela hash.
+	 * @param valorPadrao: valor retornado caso a chave não esteja presente na tabela.
+	 * @return o item associado à chave ou, caso a chave não seja localizada, valorPadrao.
+	 */
+	@Override
+	public V pesquisar(K chave, V valorPadrao) {
+		
+		Entrada<K, V> procurado;
+		
+		inicio = System.nanoTime();
+		procurado = localizar(posicaoDaChave(chave), chave);
+		termino = System.nanoTime();
+		
+		return (procurado != null) ? procurado.getValor() : valorPadrao;
+	}
+	
+	@Override
+	public boolean contem(K chave) {
+		return (localizar(posicaoDaChave(chave), chave) != null);
+	}
+	
 	/**
 	 * Método responsável por remover, da tabela hash, o item
 	 * cuja chave corresponde à que foi passada como parâmetro para esse método. 
 	 * @param chave: chave do item que deve ser removido da tabela hash.
 	 * @return uma referência ao item removido.
-	 * O método lança uma exceção caso o item não tenha sido localizado na tabela hash.
+	 * @throws NoSuchElementException caso o item não seja localizado na tabela hash.
 	 */
 	@Override
 	public V remover(K chave) {
 		
-		/// cálculo da posição da tabela hash em que o item deve estar armazenado.
-		int posicao = funcaoHash(chave);
+		int posicao;
+		Entrada<K, V> procurado;
 		
-		Entrada<K, V> procurado = new Entrada<>(chave, null);
+		migrarPosicoes(POSICOES_MIGRADAS_POR_OPERACAO);
 		
 		/// remove o item, cuja chave foi passada como parâmetro para esse método,
-		/// da lista encadeada associada à posição, da tabela hash, em que esse item deve estar armazenado.	
-		procurado = tabelaHash[posicao].remover(procurado);
+		/// da lista encadeada (ou árvore) associada à posição, da tabela hash, em que esse item deve estar armazenado.	
+		posicao = posicaoDaChave(chave);
+		procurado = localizar(posicao, chave);
+		if (procurado == null)
+			throw new NoSuchElementException("O item a ser removido não foi localizado na tabela hash!");
+		
+		removerEntrada(posicao, procurado);
+		quantidade--;
 		return procurado.getValor();
 	}
 	
+	/**
+	 * Calcula o item associado à chave percorrendo uma única vez a lista encadeada (ou árvore) em que ela deve estar armazenada.
+	 * Se a chave não estiver presente e a função retornar um item, ele é inserido nessa posição;
+	 * se a chave estiver presente, seu item é substituído pelo calculado ou, se a função retornar null, a entrada é removida.
+	 * Durante um redimensionamento, posições da tabela antiga só são migradas quando uma entrada é inserida ou removida:
+	 * a simples substituição de um item não altera a estrutura da tabela e não invalida os iteradores em andamento.
+	 * @param chave: chave cujo item será calculado.
+	 * @param funcaoRemapeamento: função que calcula o novo item a partir da chave e do item atual (ou null).
+	 * @return o novo item associado à chave, ou null caso a chave tenha ficado sem item.
+	 */
+	@Override
+	public V calcular(K chave, BiFunction<? super K, ? super V, ? extends V> funcaoRemapeamento) {
+		
+		int posicao;
+		Entrada<K, V> entrada;
+		V novoItem;
+		
+		posicao = posicaoDaChave(chave);
+		entrada = localizar(posicao, chave);
+		
+		if (entrada == null) {
+			novoItem = funcaoRemapeamento.apply(chave, null);
+			if (novoItem != null) {
+				/// a migração pode mover a posição da chave para a tabela atual: a posição é calculada novamente.
+				migrarPosicoes(POSICOES_MIGRADAS_POR_OPERACAO);
+				inserirEntrada(posicaoDaChave(chave), new Entrada<>(chave, novoItem));
+				quantidade++;
+				if (deveRedimensionar())
+					iniciarRedimensionamento();
+			}
+		} else {
+			novoItem = funcaoRemapeamento.apply(chave, entrada.getValor());
+			if (novoItem != null)
+				entrada.setValor(novoItem);
+			else {
+				migrarPosicoes(POSICOES_MIGRADAS_POR_OPERACAO);
+				removerEntrada(posicaoDaChave(chave), entrada);
+				quantidade--;
+			}
+		}
+		return novoItem;
+	}
+	
+	private boolean deveRedimensionar() {
+		return (fatorCargaMaximo > 0) && (tabelaAntiga == null) && (getFatorCarga() > fatorCargaMaximo);
+	}
+	
+	/**
+	 * Inicia o redimensionamento incremental da tabela hash.
+	 * A tabela atual passa a ser a tabela antiga e uma nova tabela, com aproximadamente o dobro da capacidade
+	 * (ajustada pela função de transformação), é criada.
+	 * Nenhum item é movido neste momento: as posições da tabela antiga são migradas aos poucos por {@link #migrarPosicoes(int)}.
+	 */
+	private void iniciarRedimensionamento() {
+		
+		tabelaAntiga = tabelaHash;
+		arvoresAntigas = arvores;
+		capacidadeAntiga = capacidade;
+		proximaPosicaoMigrada = 0;
+		
+		capacidade = estrategiaHash.ajustarCapacidade(2 * capacidade);
+		tabelaHash = criarTabela(capacidade);
+		arvores = criarArvores(capacidade);
+	}
+	
+	/**
+	 * Migra, da tabela antiga para a tabela atual, os itens de até "quantasPosicoes" posições.
+	 * Os itens de uma posição antiga organizada como árvore são redistribuídos normalmente pelas posições da nova tabela, 
+	 * que só se tornam árvores se ultrapassarem LIMITE_ARVORE itens.
+	 * Quando todas as posições da tabela antiga tiverem sido migradas, o redimensionamento é concluído.
+	 * @param quantasPosicoes: quantidade máxima de posições da tabela antiga que serão migradas.
+	 */
+	private void migrarPosicoes(int quantasPosicoes) {
+		
+		Celula<Entrada<K, V>> aux;
+		AVL<K, Entrada<K, V>> arvore;
+		
+		if (tabelaAntiga == null)
+			return;
+		
+		/// posições antigas deixam de existir (mesmo as vazias): os iteradores em andamento são invalidados.
+		modificacoes++;
+		for (int i = 0; (i < quantasPosicoes) && (proximaPosicaoMigrada < capacidadeAntiga); i++) {
+			/// a posição da tabela antiga deixa de existir: é retirada do histograma.
+			histogramaCadeias[tamanhoPosicao(~proximaPosicaoMigrada)]--;
+			arvore = arvoresAntigas[proximaPosicaoMigrada];
+			if (arvore != null) {
+				arvore.paraCada(this::migrarEntrada);
+				posicoesEmArvore--;
+			} else {
+				aux = tabelaAntiga[proximaPosicaoMigrada].getPrimeiro().getProximo();
+				while (aux != null) {
+					migrarEntrada(aux.getItem());
+					aux = aux.getProximo();
+				}
+			}
+			tabelaAntiga[proximaPosicaoMigrada] = null;
+			arvoresAntigas[proximaPosicaoMigrada] = null;
+			proximaPosicaoMigrada++;
+		}
+		
+		if (proximaPosicaoMigrada == capacidadeAntiga) {
+			tabelaAntiga = null;
+			arvoresAntigas = null;
+		}
+		
+		while ((maiorCadeia > 0) && (histogramaCadeias[maiorCadeia] == 0))
+			maiorCadeia--;
+	}
+	
+	private void migrarEntrada(Entrada<K, V> entrada) {
+		inserirEntrada(funcaoHash(entrada.getChave(), capacidade), entrada);
+	}
+	
+	/**
+	 * Atualiza as estatísticas das listas encadeadas após uma lista passar de um comprimento para outro.
+	 * @param comprimentoAnterior: quantidade de itens da lista antes da alteração.
+	 * @param comprimentoAtual: quantidade de itens da lista após a alteração.
+	 */
+	private void registrarAlteracaoCadeia(int comprimentoAnterior, int comprimentoAtual) {
+		
+		int[] novoHistograma;
+		
+		if (comprimentoAtual >= histogramaCadeias.length) {
+			novoHistograma = new int[2 * histogramaCadeias.length];
+			System.arraycopy(histogramaCadeias, 0, novoHistograma, 0, histogramaCadeias.length);
+			histogramaCadeias = novoHistograma;
+		}
+		histogramaCadeias[comprimentoAnterior]--;
+		histogramaCadeias[comprimentoAtual]++;
+		
+		if (comprimentoAtual > maiorCadeia)
+			maiorCadeia = comprimentoAtual;
+		while ((maiorCadeia > 0) && (histogramaCadeias[maiorCadeia] == 0))
+			maiorCadeia--;
+	}
+	
 	@Override
 	public String toString(){
 		return percorrer();
 	}
 	
 	/**
-	 * Método responsável por percorrer todo o conteúdo da tabela hash e retornar sua representação, em string.
-	 * A string inclui o índice da tabela hash e seu correspondente conteúdo.
+	 * Método responsável por percorrer todo o conteúdo da tabela hash e escrever sua representação no destino.
+	 * A representação inclui o índice da tabela hash e seu correspondente conteúdo.
 	 * Se a posição da tabela hash estiver vazia, é incluída uma mensagem explicativa.
 	 * Caso contrário, para todos os itens, armazenados na lista encadeada 
 	 * associada a uma posição da tabela hash, são incluídos seus dados, sempre usando
 	 * o polimorfismo do toString.
+	 * Posições organizadas como árvores têm seus itens listados em ordem crescente de chave.
+	 * Durante um redimensionamento, as posições ainda não migradas da tabela antiga são listadas antes da tabela atual.
 	 */
 	@Override
-	public String percorrer() {
-		String conteudo = "Tabela com " + capacidade + " posições e " + tamanho() + " itens\n";
+	public void percorrer(Appendable destino) throws IOException {
+		destino.append("Tabela com " + capacidade + " posições e " + tamanho() + " itens\n");
+		if (tabelaAntiga != null) {
+			for (int i = proximaPosicaoMigrada; i < capacidadeAntiga; i++) {
+				if (tamanhoPosicao(~i) > 0) {
+					destino.append("Posição antiga[" + i + "]: ");
+					escreverPosicao(~i, destino);
+				}
+			}
+		}
 		for (int i = 0; i < capacidade; i++) {
-			conteudo += "Posição[" + i + "]: ";
-			if (tabelaHash[i].vazia())
-				conteudo += "vazia\n";
+			destino.append("Posição[" + i + "]: ");
+			if (tamanhoPosicao(i) == 0)
+				destino.append("vazia\n");
 			else
-				conteudo += tabelaHash[i].toString() + "\n";
+				escreverPosicao(i, destino);
 		}
-		return conteudo;
+	}
+	
+	private void escreverPosicao(int posicao, Appendable destino) throws IOException {
+		
+		AVL<K, Entrada<K, V>> arvore = arvore(posicao);
+		
+		if (arvore != null) {
+			destino.append("(árvore)\n");
+			arvore.percorrer(destino);
+		} else
+			lista(posicao).escrever(destino);
+		destino.append('\n');
 	}
 
 	/**
@@ -156,14 +686,96 @@ public class TabelaHash<K, V> implements IMapeamento<K, V> {
 	 * capacidade inicial, dado o tratamento de colisões por lista encadeada.
 	 * @return Inteiro, não negativo, com a quantidade de itens armazenados na tabela.
 	 */
-	
 	@Override
 	public int tamanho() {
-		int tamanho = 0;
-		for (int i = 0; i < capacidade; i++) {
-			tamanho += tabelaHash[i].tamanho();
-		}
-		return tamanho;
+		return quantidade;
+	}
+	
+	/**
+	 * Retorna a capacidade atual da tabela hash, ou seja, a quantidade de posições da tabela em uso.
+	 * Durante um redimensionamento, corresponde à capacidade da nova tabela.
+	 * @return Inteiro positivo com a quantidade de posições da tabela hash.
+	 */
+	public int getCapacidade() {
+		return capacidade;
+	}
+	
+	/**
+	 * Retorna o fator de carga atual da tabela hash: a razão entre a quantidade de itens armazenados e a capacidade.
+	 * @return o fator de carga da tabela hash (não negativo).
+	 */
+	public double getFatorCarga() {
+		return (double) quantidade / capacidade;
+	}
+	
+	/**
+	 * Retorna a quantidade de posições da tabela cujas listas encadeadas estão vazias.
+	 * Durante um redimensionamento, as posições da tabela antiga ainda não migradas também são consideradas.
+	 */
+	public int getPosicoesVazias() {
+		return histogramaCadeias[0];
+	}
+	
+	/**
+	 * Retorna a quantidade de itens da posição mais carregada da tabela. 
+	 * Enquanto essa posição for uma lista encadeada, corresponde ao número máximo de itens examinados em uma pesquisa;
+	 * posições convertidas em árvores examinam O(log n) itens.
+	 */
+	public int getMaiorCadeia() {
+		return maiorCadeia;
+	}
+	
+	/**
+	 * Retorna o comprimento médio das listas encadeadas não vazias, ou seja,
+	 * o número médio de itens examinados em uma pesquisa por uma chave presente, no pior caso.
+	 * @return o comprimento médio das listas não vazias, ou 0 se a tabela estiver vazia.
+	 */
+	public double getComprimentoMedioCadeias() {
+		
+		int posicoesOcupadas = quantidadePosicoes() - histogramaCadeias[0];
+		
+		return (posicoesOcupadas == 0) ? 0 : (double) quantidade / posicoesOcupadas;
+	}
+	
+	/**
+	 * Retorna o histograma dos comprimentos das listas encadeadas: 
+	 * a posição n do vetor retornado contém a quantidade de posições da tabela cujas listas possuem n itens.
+	 * O vetor retornado é uma cópia, com tamanho igual ao comprimento da maior lista mais 1.
+	 */
+	public int[] getHistogramaCadeias() {
+		
+		int[] copia = new int[maiorCadeia + 1];
+		
+		System.arraycopy(histogramaCadeias, 0, copia, 0, copia.length);
+		return copia;
+	}
+	
+	/**
+	 * Retorna a quantidade de posições da tabela cujos itens, por terem ultrapassado {@link #LIMITE_ARVORE}, 
+	 * estão organizados em árvores AVL. Em uma tabela com boa função de transformação, esse valor deve ser 0.
+	 */
+	public int getPosicoesEmArvore() {
+		return posicoesEmArvore;
+	}
+	
+	/// quantidade de posições em uso: as da tabela atual e, durante um redimensionamento, as da tabela antiga ainda não migradas.
+	private int quantidadePosicoes() {
+		return (tabelaAntiga == null) ? capacidade : capacidade + (capacidadeAntiga - proximaPosicaoMigrada);
+	}
+	
+	/**
+	 * Retorna a função de transformação usada pela tabela.
+	 */
+	public IFuncaoHash getEstrategiaHash() {
+		return estrategiaHash;
+	}
+	
+	/**
+	 * Indica se há um redimensionamento incremental em andamento, 
+	 * ou seja, se ainda existem posições da tabela antiga a serem migradas.
+	 */
+	public boolean redimensionando() {
+		return (tabelaAntiga != null);
 	}
 
 	@Override
@@ -175,4 +787,166 @@ public class TabelaHash<K, V> implements IMapeamento<K, V> {
 	public double getTempo() {
 		return (termino - inicio) / 1_000_000;
 	}
+
+	/**
+	 * Retorna um iterador sobre as entradas (pares chave/valor) da tabela, posição por posição.
+	 * Durante um redimensionamento, as posições ainda não migradas da tabela antiga são visitadas antes da tabela atual.
+	 * O iterador falha (ConcurrentModificationException) se a tabela receber ou perder entradas durante a iteração,
+	 * o que inclui a migração de posições de um redimensionamento em andamento, feita apenas por inserções e remoções.
+	 * A substituição do valor de uma entrada já existente (por {@link #calcular}, por exemplo) é permitida.
+	 */
+	@Override
+	public Iterator<Entrada<K, V>> iterator() {
+		return new CursorEntradas(0, quantidadePosicoes());
+	}
+	
+	/**
+	 * Retorna um divisor (Spliterator) sobre as entradas da tabela, que se divide ao meio pelo intervalo de posições.
+	 * Cada parte percorre suas posições diretamente, sem copiar as listas encadeadas.
+	 */
+	@Override
+	public Spliterator<Entrada<K, V>> spliterator() {
+		return new CursorEntradas(0, quantidadePosicoes());
+	}
+	
+	/**
+	 * Retorna um fluxo sequencial sobre as entradas da tabela. Use {@code stream().parallel()} para processá-las em paralelo.
+	 */
+	public Stream<Entrada<K, V>> stream() {
+		return StreamSupport.stream(spliterator(), false);
+	}
+	
+	/**
+	 * Percorre as entradas de um intervalo de posições da tabela, como iterador ou como divisor.
+	 * As posições são numeradas a partir das posições antigas ainda não migradas, seguidas pelas posições da tabela atual.
+	 * Posições organizadas como árvores têm suas entradas copiadas para um vetor ao serem alcançadas (em ordem de chave),
+	 * já que a árvore não oferece um iterador; essas posições são raras e pequenas.
+	 */
+	private class CursorEntradas implements Iterator<Entrada<K, V>>, Spliterator<Entrada<K, V>> {
+		
+		private int proximaPosicao;  /// próxima posição, ainda não visitada, do intervalo.
+		private int fim;             /// posição final do intervalo (exclusive).
+		private final int posicoesAntigas;       /// posições antigas não migradas quando a iteração começou.
+		private final int primeiraAntiga;
+		private final int modificacoesEsperadas;
+		
+		private Celula<Entrada<K, V>> celula;  /// próxima célula da lista encadeada em visita.
+		private Object[] entradasArvore;        /// entradas da árvore em visita.
+		private int proximaEntradaArvore;
+		
+		CursorEntradas(int inicio, int fim) {
+			this.proximaPosicao = inicio;
+			this.fim = fim;
+			this.posicoesAntigas = (tabelaAntiga == null) ? 0 : capacidadeAntiga - proximaPosicaoMigrada;
+			this.primeiraAntiga = proximaPosicaoMigrada;
+			this.modificacoesEsperadas = modificacoes;
+		}
+		
+		/// cursor para a segunda metade do intervalo de outro cursor: a numeração das posições é a mesma do original.
+		private CursorEntradas(CursorEntradas original, int inicio, int fim) {
+			this.proximaPosicao = inicio;
+			this.fim = fim;
+			this.posicoesAntigas = original.posicoesAntigas;
+			this.primeiraAntiga = original.primeiraAntiga;
+			this.modificacoesEsperadas = original.modificacoesEsperadas;
+		}
+		
+		/// converte o número de uma posição do intervalo na posição codificada usada por lista(int) e arvore(int).
+		private int posicaoReal(int numero) {
+			return (numero < posicoesAntigas) ? ~(primeiraAntiga + numero) : numero - posicoesAntigas;
+		}
+		
+		private boolean posicaoEmAndamento() {
+			return (celula != null) || ((entradasArvore != null) && (proximaEntradaArvore < entradasArvore.length));
+		}
+		
+		@Override
+		public boolean hasNext() {
+			
+			int posicao;
+			AVL<K, Entrada<K, V>> arvore;
+			int[] copiadas = { 0 };
+			
+			if (modificacoes != modificacoesEsperadas)
+				throw new ConcurrentModificationException("A tabela hash foi alterada durante a iteração.");
+			
+			while (!posicaoEmAndamento() && (proximaPosicao < fim)) {
+				posicao = posicaoReal(proximaPosicao++);
+				arvore = arvore(posicao);
+				entradasArvore = null;
+				if (arvore == null)
+					celula = lista(posicao).getPrimeiro().getProximo();
+				else {
+					entradasArvore = new Object[arvore.tamanho()];
+					proximaEntradaArvore = 0;
+					copiadas[0] = 0;
+					arvore.paraCada(entrada -> entradasArvore[copiadas[0]++] = entrada);
+				}
+			}
+			return posicaoEmAndamento();
+		}
+		
+		@Override
+		@SuppressWarnings("unchecked")
+		public Entrada<K, V> next() {
+			
+			Entrada<K, V> entrada;
+			
+			if (!hasNext())
+				throw new NoSuchElementException("Não há mais entradas a serem percorridas.");
+			
+			if (celula != null) {
+				entrada = celula.getItem();
+				celula = celula.getProximo();
+			} else
+				entrada = (Entrada<K, V>) entradasArvore[proximaEntradaArvore++];
+			return entrada;
+		}
+		
+		@Override
+		public boolean tryAdvance(Consumer<? super Entrada<K, V>> acao) {
+			
+			if (!hasNext())
+				return false;
+			acao.accept(next());
+			return true;
+		}
+		
+		@Override
+		public void forEachRemaining(Consumer<? super Entrada<K, V>> acao) {
+			while (hasNext())
+				acao.accept(next());
+		}
+		
+		/**
+		 * Entrega a segunda metade das posições ainda não visitadas a um novo cursor.
+		 * A posição em visita, se houver, permanece com este cursor.
+		 */
+		@Override
+		public Spliterator<Entrada<K, V>> trySplit() {
+			
+			int meio = (proximaPosicao + fim) >>> 1;
+			CursorEntradas outraMetade;
+			
+			if (meio <= proximaPosicao)
+				return null;
+			outraMetade = new CursorEntradas(this, meio, fim);
+			fim = meio;
+			return outraMetade;
+		}
+		
+		/// estimativa: a quantidade de entradas é proporcional à quantidade de posições restantes.
+		@Override
+		public long estimateSize() {
+			
+			int posicoes = quantidadePosicoes();
+			
+			return (posicoes == 0) ? 0 : (long) quantidade * (fim - proximaPosicao) / posicoes;
+		}
+		
+		@Override
+		public int characteristics() {
+			return Spliterator.DISTINCT | Spliterator.NONNULL;
+		}
+	}
 }
@@ -0,0 +1,345 @@
+import java.io.IOException;
+import java.util.NoSuchElementException;
+import java.util.function.BiFunction;
+
+/**
+ * Tabela hash com endereçamento aberto e sondagem linear.
+ * As chaves e os valores são armazenados diretamente em dois vetores paralelos, 
+ * sem listas encadeadas, células ou entradas: cada item ocupa apenas uma posição de cada vetor.
+ * A remoção é feita por deslocamento para trás (backward-shift), ou seja, sem marcadores de posição removida.
+ * A capacidade é sempre uma potência de 2 e a tabela é redimensionada quando o fator de carga ultrapassa o limite informado.
+ */
+public class TabelaHashAberta<K, V> implements IMapeamento<K, V> {
+
+	/// Constante de Fibonacci (2^32 / razão áurea), usada para espalhar os códigos hash sequenciais pela tabela.
+	private static final int CONSTANTE_FIBONACCI = 0x9E3779B9;
+	
+	private static final int CAPACIDADE_MAXIMA = 1 << 30;
+
+	private Object[] chaves;  /// chaves armazenadas. Uma posição com null está livre.
+	private Object[] valores; /// valores associados às chaves, na mesma posição.
+	
+	private int capacidade;   /// quantidade de posições da tabela (potência de 2).
+	private int deslocamento; /// quantidade de bits descartados pela função hash (32 - log2(capacidade)).
+	private int quantidade;
+	private double fatorCargaMaximo;
+	
+	private long comparacoes; // quantidade de posições sondadas na última pesquisa.
+	private long inicio;
+	private long termino;
+	
+	/**
+	 * Construtor da classe.
+	 * Cria uma tabela com capacidade suficiente para armazenar a quantidade de itens informada 
+	 * sem ultrapassar o fator de carga máximo.
+	 * @param capacidade: quantidade de itens esperada.
+	 * @param fatorCargaMaximo: fator de carga (entre 0 e 1, exclusive) a partir do qual a tabela é redimensionada.
+	 * @throws IllegalArgumentException caso a capacidade não seja positiva ou o fator de carga seja inválido.
+	 */
+	public TabelaHashAberta(int capacidade, double fatorCargaMaximo) {
+		
+		if (capacidade < 1)
+			throw new IllegalArgumentException("A capacidade da tabela hash não pode ser menor do que 1.");
+		if (!(fatorCargaMaximo > 0 && fatorCargaMaximo < 1))
+			throw new IllegalArgumentException("O fator de carga máximo deve estar entre 0 e 1.");
+		
+		this.fatorCargaMaximo = fatorCargaMaximo;
+		this.quantidade = 0;
+		alocar(potenciaDeDois((int) Math.min(CAPACIDADE_MAXIMA, Math.ceil(capacidade / fatorCargaMaximo))));
+	}
+	
+	/**
+	 * Construtor da classe, com fator de carga máximo de 0,75.
+	 * @param capacidade: quantidade de itens esperada.
+	 */
+	public TabelaHashAberta(int capacidade) {
+		this(capacidade, 0.75);
+	}
+	
+	private void alocar(int capacidade) {
+		
+		this.capacidade = capacidade;
+		this.deslocamento = 32 - Integer.numberOfTrailingZeros(capacidade);
+		this.chaves = new Object[capacidade];
+		this.valores = new Object[capacidade];
+	}
+	
+	private static int potenciaDeDois(int numero) {
+		
+		int potencia = 2;
+		
+		while (potencia < numero)
+			potencia <<= 1;
+		return potencia;
+	}
+	
+	/**
+	 * Função de transformação: hash multiplicativo de Fibonacci.
+	 * Usa os bits mais significativos do produto, de modo que chaves com códigos hash sequenciais 
+	 * fiquem espalhadas pela tabela, e dispensa a divisão, já que a capacidade é uma potência de 2.
+	 * @param chave: chave da qual desejamos saber a posição inicial na tabela.
+	 * @return a posição inicial de sondagem da chave.
+	 */
+	private int funcaoHash(Object chave) {
+		return (chave.hashCode() * CONSTANTE_FIBONACCI) >>> deslocamento;
+	}
+	
+	private int proxima(int posicao) {
+		return (posicao + 1) & (capacidade - 1);
+	}
+	
+	/**
+	 * Localiza a posição da chave na tabela, contabilizando as posições sondadas.
+	 * @return a posição em que a chave está armazenada ou, caso não esteja, 
+	 * o complemento (~) da posição livre em que deveria ser inserida.
+	 */
+	private int localizar(Object chave) {
+		
+		int posicao = funcaoHash(chave);
+		
+		comparacoes = 0;
+		while (true) {
+			comparacoes++;
+			if (chaves[posicao] == null)
+				return ~posicao;
+			if (chaves[posicao].equals(chave))
+				return posicao;
+			posicao = proxima(posicao);
+		}
+	}
+	
+	/**
+	 * Método responsável por inserir um novo item na tabela hash.
+	 * Não é permitido inserir, nessa tabela hash, mais de um item com uma mesma chave. 
+	 * @param chave: chave do item que deve ser inserido na tabela hash.
+	 * @param item: referência ao item que deve ser inserido na tabela hash.
+	 * @return a posição na tabela hash em que o novo item foi inserido.
+	 * @throws IllegalArgumentException no caso de um item, com a mesma chave, já existir na tabela.
+	 */
+	@Override
+	public int inserir(K chave, V item) {
+		
+		int posicao;
+		
+		if (chave == null)
+			throw new IllegalArgumentException("A chave não pode ser nula.");
+		
+		if (quantidade + 1 > capacidade * fatorCargaMaximo && capacidade < CAPACIDADE_MAXIMA)
+			redimensionar(capacidade * 2);
+		
+		posicao = localizar(chave);
+		if (posicao >= 0)
+			throw new IllegalArgumentException("O item já havia sido inserido anteriormente na tabela hash!");
+		
+		posicao = ~posicao;
+		chaves[posicao] = chave;
+		valores[posicao] = item;
+		quantidade++;
+		return posicao;
+	}
+	
+	/**
+	 * Redistribui todos os itens em uma nova tabela com a capacidade informada.
+	 */
+	private void redimensionar(int novaCapacidade) {
+		
+		Object[] chavesAntigas = chaves;
+		Object[] valoresAntigos = valores;
+		int posicao;
+		
+		alocar(novaCapacidade);
+		for (int i = 0; i < chavesAntigas.length; i++) {
+			if (chavesAntigas[i] != null) {
+				posicao = funcaoHash(chavesAntigas[i]);
+				while (chaves[posicao] != null)
+					posicao = proxima(posicao);
+				chaves[posicao] = chavesAntigas[i];
+				valores[posicao] = valoresAntigos[i];
+			}
+		}
+	}
+	
+	/**
+	 * Método responsável por localizar, na tabela hash, o item
+	 * cuja chave corresponde à que foi passada como parâmetro para esse método. 
+	 * O número de comparações registrado corresponde à quantidade de posições sondadas.
+	 * @param chave: chave do item que deve ser localizado na tabela hash.
+	 * @return uma referência ao item encontrado.
+     * @throws NoSuchElementException caso o item não seja localizado na tabela hash.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public V pesquisar(K chave) {
+		
+		int posicao;
+		
+		inicio = System.nanoTime();
+		posicao = localizar(chave);
+		termino = System.nanoTime();
+		
+		if (posicao < 0)
+			throw new NoSuchElementException("O item não foi localizado na tabela hash!");
+		return (V) valores[posicao];
+	}
+	
+	/**
+	 * Pesquisa o item associado à chave, retornando o valor padrão informado caso a chave não seja localizada.
+	 * Nenhuma exceção é lançada e nenhum objeto é criado durante a pesquisa.
+	 * @param chave: chave do item que deve ser localizado na tabela hash.
+	 * @param valorPadrao: valor retornado caso a chave não esteja presente na tabela.
+	 * @return o item associado à chave ou, caso a chave não seja localizada, valorPadrao.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public V pesquisar(K chave, V valorPadrao) {
+		
+		int posicao;
+		
+		inicio = System.nanoTime();
+		posicao = localizar(chave);
+		termino = System.nanoTime();
+		
+		return (posicao >= 0) ? (V) valores[posicao] : valorPadrao;
+	}
+	
+	@Override
+	public boolean contem(K chave) {
+		return (localizar(chave) >= 0);
+	}
+	
+	/**
+	 * Método responsável por remover, da tabela hash, o item
+	 * cuja chave corresponde à que foi passada como parâmetro para esse método. 
+	 * Os itens seguintes do mesmo agrupamento são deslocados para trás, 
+	 * de forma que nenhuma pesquisa posterior seja interrompida pela posição liberada.
+	 * @param chave: chave do item que deve ser removido da tabela hash.
+	 * @return uma referência ao item removido.
+	 * @throws NoSuchElementException caso o item não seja localizado na tabela hash.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public V remover(K chave) {
+		
+		int posicao;
+		V removido;
+		
+		posicao = localizar(chave);
+		if (posicao < 0)
+			throw new NoSuchElementException("O item a ser removido não foi localizado na tabela hash!");
+		
+		removido = (V) valores[posicao];
+		removerPosicao(posicao);
+		return removido;
+	}
+	
+	/**
+	 * Libera a posição informada, deslocando para ela cada item do agrupamento cuja posição ideal 
+	 * não esteja entre a posição liberada (exclusive) e a posição atual do item (inclusive).
+	 */
+	private void removerPosicao(int livre) {
+		
+		int atual, ideal;
+		
+		atual = proxima(livre);
+		while (chaves[atual] != null) {
+			ideal = funcaoHash(chaves[atual]);
+			if (((atual - ideal) & (capacidade - 1)) >= ((atual - livre) & (capacidade - 1))) {
+				chaves[livre] = chaves[atual];
+				valores[livre] = valores[atual];
+				livre = atual;
+			}
+			atual = proxima(atual);
+		}
+		chaves[livre] = null;
+		valores[livre] = null;
+		quantidade--;
+	}
+	
+	/**
+	 * Calcula o item associado à chave com uma única sondagem da tabela.
+	 * Se a chave não estiver presente e a função retornar um item, ele é gravado na posição livre encontrada pela sondagem;
+	 * se a chave estiver presente, seu item é substituído pelo calculado ou, se a função retornar null, a posição é liberada.
+	 * @param chave: chave cujo item será calculado.
+	 * @param funcaoRemapeamento: função que calcula o novo item a partir da chave e do item atual (ou null).
+	 * @return o novo item associado à chave, ou null caso a chave tenha ficado sem item.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public V calcular(K chave, BiFunction<? super K, ? super V, ? extends V> funcaoRemapeamento) {
+		
+		int posicao;
+		V novoItem;
+		
+		posicao = localizar(chave);
+		
+		if (posicao >= 0) {
+			novoItem = funcaoRemapeamento.apply(chave, (V) valores[posicao]);
+			if (novoItem != null)
+				valores[posicao] = novoItem;
+			else
+				removerPosicao(posicao);
+		} else {
+			novoItem = funcaoRemapeamento.apply(chave, null);
+			if (novoItem != null) {
+				if (quantidade + 1 > capacidade * fatorCargaMaximo && capacidade < CAPACIDADE_MAXIMA) {
+					/// a tabela será redimensionada: a posição livre precisa ser localizada novamente.
+					redimensionar(capacidade * 2);
+					posicao = localizar(chave);
+				}
+				posicao = ~posicao;
+				chaves[posicao] = chave;
+				valores[posicao] = novoItem;
+				quantidade++;
+			}
+		}
+		return novoItem;
+	}
+	
+	@Override
+	public String toString() {
+		return percorrer();
+	}
+	
+	/**
+	 * Método responsável por percorrer todo o conteúdo da tabela hash e escrever sua representação no destino.
+	 * Apenas as posições ocupadas são incluídas, com seu índice e o par chave/valor armazenado.
+	 */
+	@Override
+	public void percorrer(Appendable destino) throws IOException {
+		
+		destino.append("Tabela com " + capacidade + " posições e " + quantidade + " itens\n");
+		for (int i = 0; i < capacidade; i++) {
+			if (chaves[i] != null)
+				destino.append("Posição[" + i + "]: " + chaves[i] + "-->" + valores[i] + "\n");
+		}
+	}
+	
+	@Override
+	public int tamanho() {
+		return quantidade;
+	}
+	
+	/**
+	 * Retorna a capacidade atual da tabela, ou seja, a quantidade de posições dos vetores de chaves e valores.
+	 */
+	public int getCapacidade() {
+		return capacidade;
+	}
+	
+	/**
+	 * Retorna o fator de carga atual da tabela: a razão entre a quantidade de itens armazenados e a capacidade.
+	 */
+	public double getFatorCarga() {
+		return (double) quantidade / capacidade;
+	}
+	
+	@Override
+	public long getComparacoes() {
+		return comparacoes;
+	}
+
+	@Override
+	public double getTempo() {
+		return (termino - inicio) / 1_000_000;
+	}
+}
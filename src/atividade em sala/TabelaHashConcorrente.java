@@ -0,0 +1,390 @@
+import java.io.IOException;
+import java.util.NoSuchElementException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+
+/**
+ * Tabela hash com endereçamento em separado que pode ser utilizada, ao mesmo tempo, por várias threads.
+ * As posições da tabela são divididas em grupos, e cada grupo é protegido por uma trava própria (lock striping):
+ * operações sobre chaves de grupos diferentes não bloqueiam umas às outras.
+ * O grupo de uma chave depende apenas dos bits menos significativos do seu código hash, 
+ * e não da capacidade da tabela; por isso, ao dobrar a capacidade, cada lista é dividida dentro do próprio grupo.
+ * 
+ * As funções passadas para {@link #calcular(Object, BiFunction)} são executadas com a trava do grupo da chave.
+ * Assim, alterações feitas nelas sobre o item associado à chave (como inserir um elemento em uma lista de valores) 
+ * são atômicas em relação às demais operações sobre essa chave. Essas funções devem ser curtas e não devem acessar esta tabela.
+ * 
+ * As medições (comparações e tempo) se referem à última operação realizada pela thread que as consulta.
+ */
+public class TabelaHashConcorrente<K, V> implements IMapeamento<K, V> {
+
+	private static final double FATOR_CARGA_MAXIMO = 0.75;
+	private static final int CAPACIDADE_MAXIMA = 1 << 30;
+
+	private volatile Celula<Entrada<K, V>>[] tabelaHash; /// primeira célula da lista de cada posição (null: posição vazia).
+	
+	private final ReentrantLock[] travas; /// uma trava para cada grupo de posições.
+	private final int[] quantidades;      /// quantidade de itens de cada grupo, alterada apenas com a trava do grupo.
+	
+	private final ThreadLocal<long[]> medicoes = ThreadLocal.withInitial(() -> new long[3]); /// comparações, início e término.
+	
+	/**
+	 * Construtor da classe.
+	 * @param capacidade: quantidade de itens esperada. A capacidade real é a potência de 2 seguinte.
+	 * @param quantidadeTravas: quantidade de grupos de posições, cada um com sua trava. 
+	 * É arredondada para a potência de 2 seguinte; um valor adequado é um pequeno múltiplo da quantidade de threads.
+	 * @throws IllegalArgumentException caso a capacidade ou a quantidade de travas não sejam positivas.
+	 */
+	public TabelaHashConcorrente(int capacidade, int quantidadeTravas) {
+		
+		if (capacidade < 1)
+			throw new IllegalArgumentException("A capacidade da tabela hash não pode ser menor do que 1.");
+		if (quantidadeTravas < 1)
+			throw new IllegalArgumentException("A quantidade de travas não pode ser menor do que 1.");
+		
+		quantidadeTravas = potenciaDeDois(quantidadeTravas);
+		travas = new ReentrantLock[quantidadeTravas];
+		for (int i = 0; i < quantidadeTravas; i++)
+			travas[i] = new ReentrantLock();
+		quantidades = new int[quantidadeTravas];
+		
+		capacidade = (int) Math.min(CAPACIDADE_MAXIMA, Math.ceil(capacidade / FATOR_CARGA_MAXIMO));
+		tabelaHash = criarTabela(Math.max(potenciaDeDois(capacidade), quantidadeTravas));
+	}
+	
+	/**
+	 * Construtor da classe, com quatro travas por processador disponível.
+	 * @param capacidade: quantidade de itens esperada.
+	 */
+	public TabelaHashConcorrente(int capacidade) {
+		this(capacidade, 4 * Runtime.getRuntime().availableProcessors());
+	}
+	
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private Celula<Entrada<K, V>>[] criarTabela(int capacidade) {
+		return (Celula<Entrada<K, V>>[]) new Celula[capacidade];
+	}
+	
+	private static int potenciaDeDois(int numero) {
+		
+		int potencia = 1;
+		
+		while (potencia < numero)
+			potencia <<= 1;
+		return potencia;
+	}
+	
+	/**
+	 * Espalha os bits do código hash da chave, para que chaves sequenciais não se concentrem em poucos grupos.
+	 */
+	private static int espalhar(Object chave) {
+		
+		int h = chave.hashCode() * 0x9E3779B9;
+		
+		return h ^ (h >>> 16);
+	}
+	
+	private ReentrantLock travar(int hash) {
+		
+		ReentrantLock trava = travas[hash & (travas.length - 1)];
+		
+		trava.lock();
+		return trava;
+	}
+	
+	/**
+	 * Localiza a célula que armazena a chave, na lista da posição correspondente. Deve ser chamado com a trava do grupo da chave.
+	 * @return a célula que armazena a chave, ou null caso ela não esteja presente.
+	 */
+	private Celula<Entrada<K, V>> localizar(Celula<Entrada<K, V>>[] tabela, int hash, K chave, long[] medicao) {
+		
+		Celula<Entrada<K, V>> aux = tabela[hash & (tabela.length - 1)];
+		
+		medicao[0] = 1;
+		while (aux != null) {
+			medicao[0]++;
+			if (aux.getItem().getChave().equals(chave))
+				return aux;
+			aux = aux.getProximo();
+		}
+		return null;
+	}
+	
+	/**
+	 * Método responsável por inserir um novo item na tabela hash.
+	 * Não é permitido inserir, nessa tabela hash, mais de um item com uma mesma chave. 
+	 * @param chave: chave do item que deve ser inserido na tabela hash.
+	 * @param item: referência ao item que deve ser inserido na tabela hash.
+	 * @return a posição na tabela hash em que o novo item foi inserido.
+	 * @throws IllegalArgumentException no caso de um item, com a mesma chave, já existir na tabela.
+	 */
+	@Override
+	public int inserir(K chave, V item) {
+		
+		int hash = espalhar(chave);
+		int posicao;
+		long[] medicao = medicoes.get();
+		ReentrantLock trava = travar(hash);
+		
+		try {
+			Celula<Entrada<K, V>>[] tabela = tabelaHash;
+			if (localizar(tabela, hash, chave, medicao) != null)
+				throw new IllegalArgumentException("O item já havia sido inserido anteriormente na tabela hash!");
+			posicao = hash & (tabela.length - 1);
+			tabela[posicao] = new Celula<>(new Entrada<>(chave, item), tabela[posicao]);
+			quantidades[hash & (travas.length - 1)]++;
+		} finally {
+			trava.unlock();
+		}
+		redimensionarSeNecessario(hash);
+		return posicao;
+	}
+	
+	/**
+	 * Método responsável por localizar, na tabela hash, o item
+	 * cuja chave corresponde à que foi passada como parâmetro para esse método. 
+	 * @param chave: chave do item que deve ser localizado na tabela hash.
+	 * @return uma referência ao item encontrado.
+     * @throws NoSuchElementException caso o item não seja localizado na tabela hash.
+	 */
+	@Override
+	public V pesquisar(K chave) {
+		
+		Entrada<K, V> procurado = pesquisarEntrada(chave);
+		
+		if (procurado == null)
+			throw new NoSuchElementException("O item não foi localizado na tabela hash!");
+		return procurado.getValor();
+	}
+	
+	@Override
+	public V pesquisar(K chave, V valorPadrao) {
+		
+		Entrada<K, V> procurado = pesquisarEntrada(chave);
+		
+		return (procurado != null) ? procurado.getValor() : valorPadrao;
+	}
+	
+	@Override
+	public boolean contem(K chave) {
+		return (pesquisarEntrada(chave) != null);
+	}
+	
+	private Entrada<K, V> pesquisarEntrada(K chave) {
+		
+		int hash = espalhar(chave);
+		long[] medicao = medicoes.get();
+		Celula<Entrada<K, V>> celula;
+		ReentrantLock trava;
+		
+		medicao[1] = System.nanoTime();
+		trava = travar(hash);
+		try {
+			celula = localizar(tabelaHash, hash, chave, medicao);
+		} finally {
+			trava.unlock();
+		}
+		medicao[2] = System.nanoTime();
+		return (celula != null) ? celula.getItem() : null;
+	}
+	
+	/**
+	 * Método responsável por remover, da tabela hash, o item
+	 * cuja chave corresponde à que foi passada como parâmetro para esse método. 
+	 * @param chave: chave do item que deve ser removido da tabela hash.
+	 * @return uma referência ao item removido.
+	 * @throws NoSuchElementException caso o item não seja localizado na tabela hash.
+	 */
+	@Override
+	public V remover(K chave) {
+		
+		int hash = espalhar(chave);
+		long[] medicao = medicoes.get();
+		Celula<Entrada<K, V>> removida;
+		ReentrantLock trava = travar(hash);
+		
+		try {
+			Celula<Entrada<K, V>>[] tabela = tabelaHash;
+			removida = localizar(tabela, hash, chave, medicao);
+			if (removida == null)
+				throw new NoSuchElementException("O item a ser removido não foi localizado na tabela hash!");
+			removerCelula(tabela, hash & (tabela.length - 1), removida);
+			quantidades[hash & (travas.length - 1)]--;
+		} finally {
+			trava.unlock();
+		}
+		return removida.getItem().getValor();
+	}
+	
+	private void removerCelula(Celula<Entrada<K, V>>[] tabela, int posicao, Celula<Entrada<K, V>> removida) {
+		
+		Celula<Entrada<K, V>> anterior;
+		
+		if (tabela[posicao] == removida)
+			tabela[posicao] = removida.getProximo();
+		else {
+			anterior = tabela[posicao];
+			while (anterior.getProximo() != removida)
+				anterior = anterior.getProximo();
+			anterior.setProximo(removida.getProximo());
+		}
+	}
+	
+	/**
+	 * Calcula, de forma atômica, o item associado à chave: a função é executada com a trava do grupo da chave.
+	 * Dessa forma, várias threads podem, por exemplo, inserir elementos na lista de valores de uma mesma chave 
+	 * sem que nenhuma inserção seja perdida, desde que todas as inserções sejam feitas por meio deste método.
+	 * @param chave: chave cujo item será calculado.
+	 * @param funcaoRemapeamento: função que calcula o novo item a partir da chave e do item atual (ou null).
+	 * @return o novo item associado à chave, ou null caso a chave tenha ficado sem item.
+	 */
+	@Override
+	public V calcular(K chave, BiFunction<? super K, ? super V, ? extends V> funcaoRemapeamento) {
+		
+		int hash = espalhar(chave);
+		int posicao;
+		boolean inseriu = false;
+		long[] medicao = medicoes.get();
+		Celula<Entrada<K, V>> celula;
+		V novoItem;
+		ReentrantLock trava = travar(hash);
+		
+		try {
+			Celula<Entrada<K, V>>[] tabela = tabelaHash;
+			posicao = hash & (tabela.length - 1);
+			celula = localizar(tabela, hash, chave, medicao);
+			if (celula == null) {
+				novoItem = funcaoRemapeamento.apply(chave, null);
+				if (novoItem != null) {
+					tabela[posicao] = new Celula<>(new Entrada<>(chave, novoItem), tabela[posicao]);
+					quantidades[hash & (travas.length - 1)]++;
+					inseriu = true;
+				}
+			} else {
+				novoItem = funcaoRemapeamento.apply(chave, celula.getItem().getValor());
+				if (novoItem != null)
+					celula.getItem().setValor(novoItem);
+				else {
+					removerCelula(tabela, posicao, celula);
+					quantidades[hash & (travas.length - 1)]--;
+				}
+			}
+		} finally {
+			trava.unlock();
+		}
+		if (inseriu)
+			redimensionarSeNecessario(hash);
+		return novoItem;
+	}
+	
+	/**
+	 * Dobra a capacidade da tabela caso o grupo da chave inserida tenha ultrapassado o fator de carga máximo.
+	 * O redimensionamento adquire todas as travas, em ordem, e redistribui as células já existentes, sem criar novas.
+	 */
+	private void redimensionarSeNecessario(int hash) {
+		
+		int grupo = hash & (travas.length - 1);
+		Celula<Entrada<K, V>>[] antiga, nova;
+		Celula<Entrada<K, V>> aux, proxima;
+		int posicao;
+		
+		antiga = tabelaHash;
+		if (quantidades[grupo] <= (antiga.length / travas.length) * FATOR_CARGA_MAXIMO || antiga.length >= CAPACIDADE_MAXIMA)
+			return;
+		
+		for (ReentrantLock trava : travas)
+			trava.lock();
+		try {
+			if (tabelaHash != antiga)
+				return; /// outra thread já redimensionou a tabela.
+			nova = criarTabela(antiga.length * 2);
+			for (int i = 0; i < antiga.length; i++) {
+				aux = antiga[i];
+				while (aux != null) {
+					proxima = aux.getProximo();
+					posicao = espalhar(aux.getItem().getChave()) & (nova.length - 1);
+					aux.setProximo(nova[posicao]);
+					nova[posicao] = aux;
+					aux = proxima;
+				}
+			}
+			tabelaHash = nova;
+		} finally {
+			for (ReentrantLock trava : travas)
+				trava.unlock();
+		}
+	}
+	
+	@Override
+	public String toString() {
+		return percorrer();
+	}
+	
+	/**
+	 * Método responsável por percorrer todo o conteúdo da tabela hash e escrever sua representação no destino.
+	 * Todas as travas são adquiridas durante o percurso, de modo que a representação corresponde a um único instante;
+	 * por isso, a escrita em um destino lento (um arquivo, por exemplo) bloqueia as demais operações até terminar.
+	 */
+	@Override
+	public void percorrer(Appendable destino) throws IOException {
+		
+		Celula<Entrada<K, V>> aux;
+		
+		for (ReentrantLock trava : travas)
+			trava.lock();
+		try {
+			Celula<Entrada<K, V>>[] tabela = tabelaHash;
+			destino.append("Tabela com " + tabela.length + " posições e " + tamanho() + " itens\n");
+			for (int i = 0; i < tabela.length; i++) {
+				destino.append("Posição[" + i + "]: ");
+				if (tabela[i] == null)
+					destino.append("vazia\n");
+				else {
+					for (aux = tabela[i]; aux != null; aux = aux.getProximo())
+						destino.append(aux.getItem() + "\n");
+				}
+			}
+		} finally {
+			for (ReentrantLock trava : travas)
+				trava.unlock();
+		}
+	}
+	
+	/**
+	 * Retorna a quantidade de itens armazenados. A contagem de cada grupo é lida com a trava do grupo;
+	 * com outras threads alterando a tabela, o total pode não corresponder a um único instante.
+	 */
+	@Override
+	public int tamanho() {
+		
+		int total = 0;
+		
+		for (int i = 0; i < travas.length; i++) {
+			travas[i].lock();
+			try {
+				total += quantidades[i];
+			} finally {
+				travas[i].unlock();
+			}
+		}
+		return total;
+	}
+	
+	/**
+	 * Retorna a capacidade atual da tabela, ou seja, a quantidade de posições.
+	 */
+	public int getCapacidade() {
+		return tabelaHash.length;
+	}
+
+	@Override
+	public long getComparacoes() {
+		return medicoes.get()[0];
+	}
+
+	@Override
+	public double getTempo() {
+		long[] medicao = medicoes.get();
+		return (medicao[2] - medicao[1]) / 1_000_000;
+	}
+}
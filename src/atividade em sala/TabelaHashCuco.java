@@ -0,0 +1,413 @@
+import java.io.IOException;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.function.BiFunction;
+
+/**
+ * Tabela hash com hashing cuco (cuckoo hashing) em baldes.
+ * A tabela é formada por duas subtabelas, cada uma com sua própria função de transformação, divididas em baldes de
+ * POSICOES_POR_BALDE posições. Uma chave só pode estar em um de seus dois baldes (um em cada subtabela):
+ * uma pesquisa examina, no máximo, 2 * POSICOES_POR_BALDE posições, qualquer que seja a quantidade de itens ou colisões.
+ * Na inserção, se os dois baldes da chave estiverem cheios, um dos itens é expulso para o seu balde alternativo,
+ * que pode expulsar outro item, e assim por diante. Se esse ciclo de deslocamentos não terminar
+ * em MAXIMO_DESLOCAMENTOS passos, a tabela é reconstruída com novas funções de transformação.
+ * Indicada para mapeamentos de leitura predominante: a inserção é mais cara do que a pesquisa.
+ */
+public class TabelaHashCuco<K, V> implements IMapeamento<K, V> {
+
+	private static final int SUBTABELAS = 2;
+	private static final int POSICOES_POR_BALDE = 4;
+
+	/// Quantidade de expulsões, em uma inserção, a partir da qual considera-se que há um ciclo de deslocamentos.
+	private static final int MAXIMO_DESLOCAMENTOS = 500;
+
+	/// Com dois baldes de 4 posições por chave, a inserção raramente falha abaixo de ~95% de ocupação.
+	private static final double FATOR_CARGA_MAXIMO = 0.9;
+
+	/// Reconstruções seguidas, sem sucesso, após as quais a quantidade de baldes é dobrada.
+	private static final int TENTATIVAS_POR_CAPACIDADE = 3;
+
+	/// Reconstruções seguidas, sem sucesso, após as quais desiste-se de acomodar a chave.
+	private static final int MAXIMO_TENTATIVAS = 4 * TENTATIVAS_POR_CAPACIDADE;
+
+	private Object[] chaves;  /// chaves armazenadas. Uma posição com null está livre.
+	private Object[] valores; /// valores associados às chaves, na mesma posição.
+
+	private int baldes;       /// quantidade de baldes de cada subtabela (potência de 2).
+	private IFuncaoHash[] funcoes = new IFuncaoHash[SUBTABELAS]; /// função de transformação de cada subtabela.
+	private Random sorteio;   /// escolhe o item expulso de um balde cheio.
+	private int[] trajeto = new int[MAXIMO_DESLOCAMENTOS]; /// posições das expulsões da inserção em andamento.
+	private int quantidade;
+	private int reconstrucoes;
+
+	private long comparacoes; // quantidade de posições examinadas na última pesquisa.
+	private long inicio;
+	private long termino;
+
+	/**
+	 * Construtor da classe.
+	 * Cria uma tabela com baldes suficientes para armazenar a quantidade de itens informada sem ultrapassar o fator de carga máximo.
+	 * @param capacidade: quantidade de itens esperada.
+	 * @throws IllegalArgumentException caso a capacidade não seja positiva.
+	 */
+	public TabelaHashCuco(int capacidade) {
+
+		if (capacidade < 1)
+			throw new IllegalArgumentException("A capacidade da tabela hash não pode ser menor do que 1.");
+
+		this.sorteio = new Random();
+		this.quantidade = 0;
+		this.reconstrucoes = 0;
+		alocar(new HashMurmur().ajustarCapacidade(
+				(int) Math.min(1 << 26, Math.ceil(capacidade / (FATOR_CARGA_MAXIMO * SUBTABELAS * POSICOES_POR_BALDE)))));
+	}
+
+	/**
+	 * Aloca subtabelas vazias com a quantidade de baldes informada e sorteia novas funções de transformação.
+	 */
+	private void alocar(int baldes) {
+
+		this.baldes = baldes;
+		this.chaves = new Object[SUBTABELAS * baldes * POSICOES_POR_BALDE];
+		this.valores = new Object[chaves.length];
+		for (int i = 0; i < SUBTABELAS; i++)
+			funcoes[i] = HashMurmur.comSementeAleatoria();
+	}
+
+	/**
+	 * Retorna a primeira posição, nos vetores de chaves e valores, do balde da chave na subtabela informada.
+	 */
+	private int inicioBalde(int subtabela, Object chave) {
+		return (subtabela * baldes + funcoes[subtabela].posicao(chave.hashCode(), baldes)) * POSICOES_POR_BALDE;
+	}
+
+	/**
+	 * Localiza a posição da chave, examinando apenas as posições de seus dois baldes.
+	 * O número de comparações registrado corresponde à quantidade de posições examinadas.
+	 * @return a posição em que a chave está armazenada, ou -1 caso ela não esteja na tabela.
+	 */
+	private int localizar(Object chave) {
+
+		int balde;
+
+		comparacoes = 0;
+		for (int subtabela = 0; subtabela < SUBTABELAS; subtabela++) {
+			balde = inicioBalde(subtabela, chave);
+			for (int i = balde; i < balde + POSICOES_POR_BALDE; i++) {
+				comparacoes++;
+				if (chave.equals(chaves[i]))
+					return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Retorna uma posição livre em um dos baldes da chave, ou -1 caso os dois estejam cheios.
+	 */
+	private int posicaoLivre(Object chave) {
+
+		int balde;
+
+		for (int subtabela = 0; subtabela < SUBTABELAS; subtabela++) {
+			balde = inicioBalde(subtabela, chave);
+			for (int i = balde; i < balde + POSICOES_POR_BALDE; i++) {
+				if (chaves[i] == null)
+					return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Acomoda o par chave/valor (cuja chave não está na tabela) em um de seus baldes, expulsando itens se necessário.
+	 * Cada item expulso é levado ao seu balde na outra subtabela.
+	 * Se, após MAXIMO_DESLOCAMENTOS expulsões, ainda restar um item sem posição, as expulsões são desfeitas
+	 * na ordem inversa, de modo que a tabela volte exatamente ao estado anterior.
+	 * @return verdadeiro se o par foi acomodado; falso caso tenha ocorrido um ciclo de deslocamentos.
+	 */
+	private boolean acomodar(Object chave, Object valor) {
+
+		int subtabela = 0;
+		int posicao;
+		int deslocamentos;
+		Object expulso;
+
+		for (deslocamentos = 0; deslocamentos < MAXIMO_DESLOCAMENTOS; deslocamentos++) {
+			posicao = posicaoLivre(chave);
+			if (posicao >= 0) {
+				chaves[posicao] = chave;
+				valores[posicao] = valor;
+				return true;
+			}
+			/// os dois baldes estão cheios: o item sorteado no balde da subtabela atual dá lugar ao par
+			/// e passa a ser acomodado, a partir de agora, na outra subtabela.
+			posicao = inicioBalde(subtabela, chave) + sorteio.nextInt(POSICOES_POR_BALDE);
+			trajeto[deslocamentos] = posicao;
+			expulso = chaves[posicao];
+			chaves[posicao] = chave;
+			chave = expulso;
+			expulso = valores[posicao];
+			valores[posicao] = valor;
+			valor = expulso;
+			subtabela = (subtabela + 1) % SUBTABELAS;
+		}
+		
+		/// ciclo de deslocamentos: cada item volta à posição de onde foi expulso.
+		while (deslocamentos > 0) {
+			posicao = trajeto[--deslocamentos];
+			expulso = chaves[posicao];
+			chaves[posicao] = chave;
+			chave = expulso;
+			expulso = valores[posicao];
+			valores[posicao] = valor;
+			valor = expulso;
+		}
+		return false;
+	}
+
+	/**
+	 * Armazena o par chave/valor (cuja chave não está na tabela), reconstruindo a tabela
+	 * caso ela fique acima do fator de carga máximo ou caso ocorra um ciclo de deslocamentos.
+	 */
+	private void armazenar(Object chave, Object valor) {
+
+		if (quantidade + 1 > chaves.length * FATOR_CARGA_MAXIMO)
+			reconstruir(2 * baldes, chave, valor);
+		else if (!acomodar(chave, valor))
+			reconstruir(baldes, chave, valor);
+		quantidade++;
+	}
+
+	/**
+	 * Redistribui todos os itens, mais o par pendente, em subtabelas com novas funções de transformação.
+	 * Se ainda assim ocorrer um ciclo de deslocamentos, uma nova tentativa é feita com outras funções;
+	 * a cada TENTATIVAS_POR_CAPACIDADE tentativas sem sucesso, a quantidade de baldes é dobrada.
+	 * @throws IllegalStateException caso as chaves não possam ser acomodadas após MAXIMO_TENTATIVAS reconstruções
+	 * (por exemplo, mais de 2 * POSICOES_POR_BALDE chaves com o mesmo código hash). Nesse caso, a tabela anterior é mantida.
+	 */
+	private void reconstruir(int novosBaldes, Object chavePendente, Object valorPendente) {
+
+		Object[] chavesAntigas = chaves;
+		Object[] valoresAntigos = valores;
+		IFuncaoHash[] funcoesAntigas = funcoes.clone();
+		int baldesAntigos = baldes;
+		boolean acomodados = false;
+
+		for (int tentativa = 1; !acomodados; tentativa++) {
+			if (tentativa > MAXIMO_TENTATIVAS) {
+				chaves = chavesAntigas;
+				valores = valoresAntigos;
+				funcoes = funcoesAntigas;
+				baldes = baldesAntigos;
+				throw new IllegalStateException("Não foi possível acomodar as chaves na tabela hash: "
+						+ "há chaves demais com o mesmo código hash.");
+			}
+			reconstrucoes++;
+			alocar(novosBaldes);
+			acomodados = acomodar(chavePendente, valorPendente);
+			for (int i = 0; acomodados && (i < chavesAntigas.length); i++) {
+				if (chavesAntigas[i] != null)
+					acomodados = acomodar(chavesAntigas[i], valoresAntigos[i]);
+			}
+			if (tentativa % TENTATIVAS_POR_CAPACIDADE == 0)
+				novosBaldes *= 2;
+		}
+	}
+
+	/**
+	 * Método responsável por inserir um novo item na tabela hash.
+	 * Não é permitido inserir, nessa tabela hash, mais de um item com uma mesma chave.
+	 * @param chave: chave do item que deve ser inserido na tabela hash.
+	 * @param item: referência ao item que deve ser inserido na tabela hash.
+	 * @return a posição, nos vetores da tabela, em que o novo item foi armazenado.
+	 * @throws IllegalArgumentException no caso de um item, com a mesma chave, já existir na tabela.
+	 * @throws IllegalStateException caso a chave não possa ser acomodada (a tabela permanece inalterada).
+	 */
+	@Override
+	public int inserir(K chave, V item) {
+
+		if (chave == null)
+			throw new IllegalArgumentException("A chave não pode ser nula.");
+
+		if (localizar(chave) >= 0)
+			throw new IllegalArgumentException("O item já havia sido inserido anteriormente na tabela hash!");
+
+		armazenar(chave, item);
+		return localizar(chave);
+	}
+
+	/**
+	 * Método responsável por localizar, na tabela hash, o item
+	 * cuja chave corresponde à que foi passada como parâmetro para esse método.
+	 * Examina no máximo 2 * POSICOES_POR_BALDE posições.
+	 * @param chave: chave do item que deve ser localizado na tabela hash.
+	 * @return uma referência ao item encontrado.
+     * @throws NoSuchElementException caso o item não seja localizado na tabela hash.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public V pesquisar(K chave) {
+
+		int posicao;
+
+		inicio = System.nanoTime();
+		posicao = localizar(chave);
+		termino = System.nanoTime();
+
+		if (posicao < 0)
+			throw new NoSuchElementException("O item não foi localizado na tabela hash!");
+		return (V) valores[posicao];
+	}
+
+	/**
+	 * Pesquisa o item associado à chave, retornando o valor padrão informado caso a chave não seja localizada.
+	 * Nenhuma exceção é lançada e nenhum objeto é criado durante a pesquisa.
+	 * @param chave: chave do item que deve ser localizado na tabela hash.
+	 * @param valorPadrao: valor retornado caso a chave não esteja presente na tabela.
+	 * @return o item associado à chave ou, caso a chave não seja localizada, valorPadrao.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public V pesquisar(K chave, V valorPadrao) {
+
+		int posicao;
+
+		inicio = System.nanoTime();
+		posicao = localizar(chave);
+		termino = System.nanoTime();
+
+		return (posicao >= 0) ? (V) valores[posicao] : valorPadrao;
+	}
+
+	@Override
+	public boolean contem(K chave) {
+		return (localizar(chave) >= 0);
+	}
+
+	/**
+	 * Método responsável por remover, da tabela hash, o item
+	 * cuja chave corresponde à que foi passada como parâmetro para esse método.
+	 * A posição é simplesmente liberada: nenhum outro item precisa ser deslocado.
+	 * @param chave: chave do item que deve ser removido da tabela hash.
+	 * @return uma referência ao item removido.
+	 * @throws NoSuchElementException caso o item não seja localizado na tabela hash.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public V remover(K chave) {
+
+		int posicao;
+		V removido;
+
+		posicao = localizar(chave);
+		if (posicao < 0)
+			throw new NoSuchElementException("O item a ser removido não foi localizado na tabela hash!");
+
+		removido = (V) valores[posicao];
+		liberar(posicao);
+		return removido;
+	}
+
+	private void liberar(int posicao) {
+
+		chaves[posicao] = null;
+		valores[posicao] = null;
+		quantidade--;
+	}
+
+	/**
+	 * Calcula o item associado à chave com uma única pesquisa em seus dois baldes.
+	 * Se a chave não estiver presente e a função retornar um item, ele é armazenado como em {@link #inserir(Object, Object)};
+	 * se a chave estiver presente, seu item é substituído pelo calculado ou, se a função retornar null, a posição é liberada.
+	 * @param chave: chave cujo item será calculado.
+	 * @param funcaoRemapeamento: função que calcula o novo item a partir da chave e do item atual (ou null).
+	 * @return o novo item associado à chave, ou null caso a chave tenha ficado sem item.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public V calcular(K chave, BiFunction<? super K, ? super V, ? extends V> funcaoRemapeamento) {
+
+		int posicao;
+		V novoItem;
+
+		if (chave == null)
+			throw new IllegalArgumentException("A chave não pode ser nula.");
+
+		posicao = localizar(chave);
+
+		if (posicao >= 0) {
+			novoItem = funcaoRemapeamento.apply(chave, (V) valores[posicao]);
+			if (novoItem != null)
+				valores[posicao] = novoItem;
+			else
+				liberar(posicao);
+		} else {
+			novoItem = funcaoRemapeamento.apply(chave, null);
+			if (novoItem != null)
+				armazenar(chave, novoItem);
+		}
+		return novoItem;
+	}
+
+	@Override
+	public String toString() {
+		return percorrer();
+	}
+
+	/**
+	 * Método responsável por percorrer todo o conteúdo da tabela hash e escrever sua representação no destino.
+	 * Apenas as posições ocupadas são incluídas, com sua subtabela, seu balde e o par chave/valor armazenado.
+	 */
+	@Override
+	public void percorrer(Appendable destino) throws IOException {
+
+		int balde;
+
+		destino.append("Tabela com " + SUBTABELAS + " x " + baldes + " baldes de " + POSICOES_POR_BALDE
+				+ " posições e " + quantidade + " itens\n");
+		for (int i = 0; i < chaves.length; i++) {
+			if (chaves[i] != null) {
+				balde = i / POSICOES_POR_BALDE;
+				destino.append("Subtabela " + (balde / baldes) + ", balde[" + (balde % baldes) + "]: "
+						+ chaves[i] + "-->" + valores[i] + "\n");
+			}
+		}
+	}
+
+	@Override
+	public int tamanho() {
+		return quantidade;
+	}
+
+	/**
+	 * Retorna a capacidade atual da tabela, ou seja, a quantidade total de posições das subtabelas.
+	 */
+	public int getCapacidade() {
+		return chaves.length;
+	}
+
+	/**
+	 * Retorna o fator de carga atual da tabela: a razão entre a quantidade de itens armazenados e a capacidade.
+	 */
+	public double getFatorCarga() {
+		return (double) quantidade / chaves.length;
+	}
+
+	/**
+	 * Retorna quantas vezes a tabela foi reconstruída, por crescimento ou por ciclos de deslocamentos.
+	 */
+	public int getReconstrucoes() {
+		return reconstrucoes;
+	}
+
+	@Override
+	public long getComparacoes() {
+		return comparacoes;
+	}
+
+	@Override
+	public double getTempo() {
+		return (termino - inicio) / 1_000_000;
+	}
+}